@@ -0,0 +1,76 @@
+package de.renebergelt.quiterables.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.renebergelt.quiterables.Query;
+
+/**
+ * Compares ordering by boxed keys with ordering by primitive keys
+ * (radix sort) for timestamp-like values
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderByBenchmark {
+
+	@Param({"10000", "1000000"})
+	int size;
+
+	List<Event> events;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		events = new ArrayList<Event>(size);
+		for (int i = 0; i < size; i++)
+			events.add(new Event(1_500_000_000_000L + random.nextInt(86_400_000), random.nextDouble()));
+	}
+
+	@Benchmark
+	public List<Event> orderBy_boxed() {
+		return Query.list(events).orderBy(x -> x.timestamp).toList();
+	}
+
+	@Benchmark
+	public List<Event> orderBy_long() {
+		return Query.list(events).orderByLong(x -> x.timestamp).toList();
+	}
+
+	@Benchmark
+	public List<Event> orderBy_double() {
+		return Query.list(events).orderByDouble(x -> x.score).toList();
+	}
+
+	@Benchmark
+	public List<Event> top20_boxed() {
+		return Query.list(events).orderByDescending(x -> x.score).take(20).toList();
+	}
+
+	public static class Event {
+		long timestamp;
+		double score;
+
+		public Event(long _timestamp, double _score) {
+			timestamp = _timestamp;
+			score = _score;
+		}
+	}
+}
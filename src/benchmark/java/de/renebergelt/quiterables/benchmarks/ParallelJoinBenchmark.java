@@ -0,0 +1,81 @@
+package de.renebergelt.quiterables.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.renebergelt.quiterables.Query;
+
+/**
+ * Compares the sequential hash join with the partitioned parallel join
+ * for an increasing number of worker threads
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelJoinBenchmark {
+
+	@Param({"1", "2", "4", "8"})
+	int threads;
+
+	@Param({"1000000"})
+	int size;
+
+	List<long[]> orders;
+	List<long[]> customers;
+	ForkJoinPool pool;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		int customerCount = size / 5;
+
+		customers = new ArrayList<long[]>(customerCount);
+		for (int i = 0; i < customerCount; i++)
+			customers.add(new long[] { i, random.nextInt(100) });
+
+		orders = new ArrayList<long[]>(size);
+		for (int i = 0; i < size; i++)
+			orders.add(new long[] { random.nextInt(customerCount), random.nextInt(1000) });
+
+		pool = new ForkJoinPool(threads);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public List<Long> join_sequential() {
+		return Query.list(orders).join(customers, x -> x[0], x -> x[0], (o, c) -> o[1] * c[1]).toList();
+	}
+
+	@Benchmark
+	public List<Long> join_parallel_ordered() {
+		return Query.list(orders).parallelJoin(customers, x -> x[0], x -> x[0], (o, c) -> o[1] * c[1], pool, true).toList();
+	}
+
+	@Benchmark
+	public List<Long> join_parallel_unordered() {
+		return Query.list(orders).parallelJoin(customers, x -> x[0], x -> x[0], (o, c) -> o[1] * c[1], pool, false).toList();
+	}
+}
@@ -0,0 +1,92 @@
+package de.renebergelt.quiterables.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.renebergelt.quiterables.Query;
+import de.renebergelt.quiterables.grouping.GroupKey;
+
+/**
+ * Compares a sequential query with a CPU-heavy selector (and a grouping with many keys)
+ * to the same query using asParallel() for an increasing number of worker threads
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParallelQueryBenchmark {
+
+	@Param({"1", "2", "4", "8"})
+	int threads;
+
+	@Param({"1000000"})
+	int size;
+
+	List<Double> values;
+	ForkJoinPool pool;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		values = new ArrayList<Double>(size);
+		for (int i = 0; i < size; i++)
+			values.add(random.nextDouble() * 1000);
+
+		pool = new ForkJoinPool(threads);
+	}
+
+	@TearDown
+	public void tearDown() {
+		pool.shutdown();
+	}
+
+	static double score(double value) {
+		double result = value;
+		for (int i = 0; i < 20; i++)
+			result = Math.sqrt(result + i) * Math.log1p(result);
+		return result;
+	}
+
+	@Benchmark
+	public List<Double> select_sequential() {
+		return Query.list(values).select(x -> score(x)).where(x -> x > 100).toList();
+	}
+
+	@Benchmark
+	public List<Double> select_parallel_ordered() {
+		return Query.list(values).asParallel(pool, threads).select(x -> score(x)).where(x -> x > 100).asOrdered().toList();
+	}
+
+	@Benchmark
+	public Number sum_parallel() {
+		return Query.list(values).asParallel(pool, threads).select(x -> score(x)).sum();
+	}
+
+	@Benchmark
+	public int group_sequential() {
+		return Query.list(values).group(x -> GroupKey.of((long) (x * 100))).toList().size();
+	}
+
+	@Benchmark
+	public int group_parallel() {
+		return Query.list(values).asParallel(pool, threads).group(x -> GroupKey.of((long) (x * 100))).toList().size();
+	}
+}
@@ -0,0 +1,93 @@
+package de.renebergelt.quiterables.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.renebergelt.quiterables.Queriable;
+import de.renebergelt.quiterables.Query;
+
+/**
+ * Compares the push-based terminal operations of Queriable with
+ * enumerating the same pipeline using its (pull-based) iterator
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PushPullBenchmark {
+
+	@Param({"1000", "100000"})
+	int size;
+
+	Queriable<Integer> pipeline;
+
+	@Setup
+	public void setup() {
+		List<Integer> source = new ArrayList<Integer>(size);
+		for (int i = 0; i < size; i++)
+			source.add(i);
+
+		// a five stage pipeline
+		pipeline = Query.list(source)
+				.where(x -> x % 3 != 0)
+				.select(x -> x + 1)
+				.skip(10)
+				.where(x -> x % 2 == 0)
+				.select(x -> x * 2);
+	}
+
+	@Benchmark
+	public int count_pull() {
+		int c = 0;
+		for (Iterator<Integer> it = pipeline.iterator(); it.hasNext(); it.next())
+			c++;
+		return c;
+	}
+
+	@Benchmark
+	public int count_push() {
+		return pipeline.count();
+	}
+
+	@Benchmark
+	public long sum_pull() {
+		long sum = 0;
+		for (Integer x : pipeline)
+			sum += x;
+		return sum;
+	}
+
+	@Benchmark
+	public Number sum_push() {
+		return pipeline.sum();
+	}
+
+	@Benchmark
+	public List<Integer> toList_pull() {
+		List<Integer> list = new ArrayList<Integer>();
+		for (Integer x : pipeline)
+			list.add(x);
+		return list;
+	}
+
+	@Benchmark
+	public List<Integer> toList_push() {
+		return pipeline.toList();
+	}
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Aggregates elements into a single result without keeping the elements
+ * (used by Queriable.groupAggregate to keep only one accumulator per group)
+ * @param <T> Type of the aggregated elements
+ * @param <TAcc> Type of the accumulator
+ * @param <TResult> Type of the result
+ * @author René Bergelt
+ */
+public interface Aggregator<T, TAcc, TResult> {
+
+	/**
+	 * Return a new accumulator for a group
+	 * @return The initial accumulator
+	 */
+	public TAcc seed();
+
+	/**
+	 * Add the given element to the accumulator
+	 * (a mutable accumulator can be changed and returned)
+	 * @param accumulator The current accumulator
+	 * @param element The element to add
+	 * @return The new accumulator
+	 */
+	public TAcc accumulate(TAcc accumulator, T element);
+
+	/**
+	 * Return the result for the given final accumulator
+	 * @param accumulator The accumulator after all elements have been added
+	 * @return The result
+	 */
+	public TResult finish(TAcc accumulator);
+
+	/**
+	 * Create an aggregator from the given functions
+	 * @param seed Function which returns a new accumulator
+	 * @param accumulate Function which adds an element to an accumulator
+	 * @param finish Function which returns the result for an accumulator
+	 * @param <T> Type of the aggregated elements
+	 * @param <TAcc> Type of the accumulator
+	 * @param <TResult> Type of the result
+	 * @return The aggregator
+	 */
+	public static <T, TAcc, TResult> Aggregator<T, TAcc, TResult> of(final Supplier<TAcc> seed, final BiFunction<TAcc, ? super T, TAcc> accumulate, final Function<TAcc, TResult> finish) {
+		return new Aggregator<T, TAcc, TResult>() {
+			@Override
+			public TAcc seed() {
+				return seed.get();
+			}
+
+			@Override
+			public TAcc accumulate(TAcc accumulator, T element) {
+				return accumulate.apply(accumulator, element);
+			}
+
+			@Override
+			public TResult finish(TAcc accumulator) {
+				return finish.apply(accumulator);
+			}
+		};
+	}
+
+	/**
+	 * Create an aggregator whose result is the accumulator itself
+	 * @param seed Function which returns a new accumulator
+	 * @param accumulate Function which adds an element to an accumulator
+	 * @param <T> Type of the aggregated elements
+	 * @param <TAcc> Type of the accumulator and result
+	 * @return The aggregator
+	 */
+	public static <T, TAcc> Aggregator<T, TAcc, TAcc> of(Supplier<TAcc> seed, BiFunction<TAcc, ? super T, TAcc> accumulate) {
+		return of(seed, accumulate, Function.<TAcc>identity());
+	}
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.RandomAccess;
+
+import de.renebergelt.quiterables.grouping.Group;
+import de.renebergelt.quiterables.grouping.GroupFunction;
+import de.renebergelt.quiterables.grouping.GroupKey;
+import de.renebergelt.quiterables.grouping.GroupedList;
+
+/**
+ * Read-only GroupedList which stores the elements of all groups in one array
+ * ordered by group together with the start offset of each group
+ * (compressed sparse row layout). The groups are views on this array,
+ * so no list object is kept per group.
+ * The groups are in the order of the first occurrence of their key.
+ * @author René Bergelt
+ *
+ * @param <T> Type of the grouped elements
+ */
+class CompactGroupedList<T> extends AbstractList<Group<T>> implements GroupedList<T>, RandomAccess {
+
+	// the elements of group i are elements[offsets[i]] to elements[offsets[i + 1] - 1]
+	private final Object[] elements;
+	private final int[] offsets;
+	private final GroupKey[] keys;
+	// group key to group number
+	private final HashMap<GroupKey, Integer> index;
+
+	private CompactGroupedList(Object[] _elements, int[] _offsets, GroupKey[] _keys, HashMap<GroupKey, Integer> _index) {
+		elements = _elements;
+		offsets = _offsets;
+		keys = _keys;
+		index = _index;
+	}
+
+	/**
+	 * Group the elements of the given iterable according to the given grouping function
+	 * @param source The elements to group
+	 * @param func Function to group elements by
+	 * @param <T> Type of the elements
+	 * @return The grouped elements
+	 */
+	public static <T> CompactGroupedList<T> build(Iterable<T> source, GroupFunction<T> func) {
+		int capacity = source instanceof Collection ? Math.max(((Collection<?>) source).size(), 16) : 16;
+
+		// first pass: remember the elements and the number of their group
+		Object[] unordered = new Object[capacity];
+		int[] groupOf = new int[capacity];
+		int[] counts = new int[16];
+		ArrayList<GroupKey> keys = new ArrayList<GroupKey>();
+		HashMap<GroupKey, Integer> index = new HashMap<GroupKey, Integer>();
+
+		int count = 0;
+		for (T element : source) {
+			GroupKey gk = func.getKeyFor(element);
+
+			Integer group = index.get(gk);
+			if (group == null) {
+				// new group key
+				group = keys.size();
+				index.put(gk, group);
+				keys.add(gk);
+				if (group == counts.length)
+					counts = Arrays.copyOf(counts, counts.length * 2);
+			}
+
+			if (count == unordered.length) {
+				int newCapacity = count + (count >> 1);
+				unordered = Arrays.copyOf(unordered, newCapacity);
+				groupOf = Arrays.copyOf(groupOf, newCapacity);
+			}
+
+			unordered[count] = element;
+			groupOf[count] = group;
+			counts[group]++;
+			count++;
+		}
+
+		// turn the counts into the start offsets of the groups
+		int groupCount = keys.size();
+		int[] offsets = new int[groupCount + 1];
+		for (int i = 0; i < groupCount; i++)
+			offsets[i + 1] = offsets[i] + counts[i];
+
+		// second pass: move the elements to their group
+		// (the elements of a group keep their order)
+		int[] positions = Arrays.copyOf(offsets, groupCount);
+		Object[] ordered = new Object[count];
+		for (int i = 0; i < count; i++)
+			ordered[positions[groupOf[i]]++] = unordered[i];
+
+		return new CompactGroupedList<T>(ordered, offsets, keys.toArray(new GroupKey[groupCount]), index);
+	}
+
+	@Override
+	public int size() {
+		return keys.length;
+	}
+
+	@Override
+	public Group<T> get(GroupKey key) {
+		Integer group = index.get(key);
+		return group == null ? null : new CompactGroup(group);
+	}
+
+	@Override
+	public Group<T> get(Object... keyElements) {
+		return get(new GroupKey(keyElements));
+	}
+
+	@Override
+	public Group<T> get(int index) {
+		return elementAt(index);
+	}
+
+	@Override
+	public Group<T> elementAt(int index) {
+		if (index < 0 || index >= keys.length)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + keys.length);
+
+		return new CompactGroup(index);
+	}
+
+	/**
+	 * Read-only view on the elements of one group
+	 */
+	private class CompactGroup extends AbstractList<T> implements Group<T>, RandomAccess {
+
+		private final int group;
+
+		CompactGroup(int _group) {
+			group = _group;
+		}
+
+		@Override
+		public GroupKey getKey() {
+			return keys[group];
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public T get(int index) {
+			if (index < 0 || index >= size())
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+
+			return (T) elements[offsets[group] + index];
+		}
+
+		@Override
+		public int size() {
+			return offsets[group + 1] - offsets[group];
+		}
+	}
+}
@@ -0,0 +1,179 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.DoubleStream;
+
+/**
+ * A sequence of primitive double values which can be queried without
+ * boxing the individual values
+ * @author René Bergelt
+ */
+public interface DoubleQueriable extends Iterable<Double> {
+
+	/**
+	 * Return if the enumeration is empty
+	 * @return True if the enumeration is empty
+	 */
+	public boolean isEmpty();
+
+	/**
+	 * Return the amount of values in the enumeration if it is finite
+	 * @return Count of values in this sequence
+	 */
+	public int count();
+
+	/**
+	 * Return the amount of values in the (finite) enumeration which satisfy the given predicate
+	 * @param predicate The predicate to evaluate
+	 * @return Count of values which satisfy the predicate
+	 */
+	public int count(DoublePredicate predicate);
+
+	/**
+	 * Test if at least one value of the enumeration fulfills the condition
+	 * @param predicate Condition
+	 * @return whether at least one value satisfies the given predicate
+	 */
+	public boolean exists(DoublePredicate predicate);
+
+	/**
+	 * Return if all values in the enumeration fulfill the given predicate
+	 * @param predicate The predicate to evaluate
+	 * @return whether all values satisfy the given predicate
+	 */
+	public boolean all(DoublePredicate predicate);
+
+	/**
+	 * Returns if this enumeration contains the given value
+	 * @param value The value to check for
+	 * @return whether the given value is contained in this sequence
+	 */
+	public boolean contains(double value);
+
+	/**
+	 * Return the first value of the enumeration or throw NoSuchElementException if the enumeration is empty
+	 * @return The first value
+	 * @throws NoSuchElementException Thrown if there is no value present
+	 */
+	public double first() throws NoSuchElementException;
+
+	/**
+	 * Return the first value of the enumeration or the passed defaultValue if the enumeration is empty
+	 * @param defaultValue The default value to use
+	 * @return The first value or the given default value
+	 */
+	public double firstOrDefault(double defaultValue);
+
+	/**
+	 * Return the sum of all values in the enumeration
+	 * @return the sum or 0 if the enumeration is empty
+	 */
+	public double sum();
+
+	/**
+	 * Return the minimum value of the enumeration
+	 * @return the minimum value
+	 * @throws IllegalStateException if there are no values
+	 */
+	public double min();
+
+	/**
+	 * Return the maximum value of the enumeration
+	 * @return the maximum value
+	 * @throws IllegalStateException if there are no values
+	 */
+	public double max();
+
+	/**
+	 * Return the average of the values in the enumeration
+	 * @return the average value
+	 * @throws IllegalStateException if there are no values
+	 */
+	public double average();
+
+	/**
+	 * Return all values from the enumeration for which the predicate holds true
+	 * @param predicate The predicate to evaluate
+	 * @return A queriable sequence of the values which satisfy the given predicate
+	 */
+	public DoubleQueriable where(DoublePredicate predicate);
+
+	/**
+	 * Transforms each value of the enumeration using a selector
+	 * @param selector The transformation function
+	 * @return A queriable sequence of the transformed values
+	 */
+	public DoubleQueriable select(DoubleUnaryOperator selector);
+
+	/**
+	 * Transforms each value of the enumeration to an object using a selector
+	 * @param selector The transformation function
+	 * @param <TOut> The target type of the selection
+	 * @return A queriable sequence of the transformed elements
+	 */
+	public <TOut> Queriable<TOut> selectToObj(DoubleFunction<TOut> selector);
+
+	/**
+	 * Return a Queriable which contains the boxed values of this enumeration
+	 * @return A queriable sequence of the boxed values
+	 */
+	public Queriable<Double> boxed();
+
+	/**
+	 * Return an array which contains all values of this enumeration
+	 * (This will evaluate the whole enumeration, if it is infinite this will block forever.)
+	 * @return An array of the values of this sequence
+	 */
+	public double[] toArray();
+
+	/**
+	 * Return a primitive iterator for the values of this enumeration
+	 * (use nextDouble() to retrieve the values without boxing)
+	 * @return The primitive iterator
+	 */
+	@Override
+	public PrimitiveIterator.OfDouble iterator();
+
+	/**
+	 * Return a primitive spliterator for the values of this enumeration
+	 * @return The primitive spliterator
+	 */
+	@Override
+	public Spliterator.OfDouble spliterator();
+
+	/**
+	 * Return a sequential DoubleStream of the values of this enumeration
+	 * @return The stream
+	 */
+	public DoubleStream stream();
+}
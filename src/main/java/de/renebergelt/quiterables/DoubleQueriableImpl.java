@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.DoubleStream;
+import java.util.stream.StreamSupport;
+
+import de.renebergelt.quiterables.iterators.primitivetypes.DoubleIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazyDoubleSelectIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazyDoubleSelectToObjIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazyDoubleWhereIterable;
+
+/**
+ * Actual DoubleQueriable implementation used in this library and which is returned
+ * by the Query methods for primitive double sequences
+ *
+ * @author René Bergelt
+ */
+class DoubleQueriableImpl implements DoubleQueriable {
+
+	protected DoubleIterable containedIter;
+
+	protected DoubleQueriableImpl(DoubleIterable forIterable) {
+
+		if (forIterable == null)
+			throw new IllegalArgumentException("forIterable must not be null");
+
+		containedIter = forIterable;
+	}
+
+	/**
+	 * Throws an IllegalArgumentException if any of the arguments is null
+	 */
+	protected void throwIfArgumentIsNull(Object...arguments) throws IllegalArgumentException {
+		for(Object argument: arguments)
+			if (argument == null)
+				throw new IllegalArgumentException("Argument must not be null.");
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return !containedIter.iterator().hasNext();
+	}
+
+	@Override
+	public int count() {
+		int c = 0;
+		for (PrimitiveIterator.OfDouble it = containedIter.iterator(); it.hasNext(); it.nextDouble())
+			c++;
+		return c;
+	}
+
+	@Override
+	public int count(DoublePredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		int c = 0;
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		while (it.hasNext())
+			if (predicate.test(it.nextDouble()))
+				c++;
+		return c;
+	}
+
+	@Override
+	public boolean exists(DoublePredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		while (it.hasNext())
+			if (predicate.test(it.nextDouble()))
+				return true;
+		return false;
+	}
+
+	@Override
+	public boolean all(DoublePredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		while (it.hasNext())
+			if (!predicate.test(it.nextDouble()))
+				return false;
+		return true;
+	}
+
+	@Override
+	public boolean contains(double value) {
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		while (it.hasNext())
+			if (it.nextDouble() == value)
+				return true;
+		return false;
+	}
+
+	@Override
+	public double first() throws NoSuchElementException {
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		if (!it.hasNext())
+			throw new NoSuchElementException();
+		return it.nextDouble();
+	}
+
+	@Override
+	public double firstOrDefault(double defaultValue) {
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		return it.hasNext() ? it.nextDouble() : defaultValue;
+	}
+
+	@Override
+	public double sum() {
+		double sum = 0;
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		while (it.hasNext())
+			sum += it.nextDouble();
+		return sum;
+	}
+
+	@Override
+	public double min() {
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		if (!it.hasNext())
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
+		double min = it.nextDouble();
+		while (it.hasNext())
+			min = Math.min(min, it.nextDouble());
+		return min;
+	}
+
+	@Override
+	public double max() {
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		if (!it.hasNext())
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
+		double max = it.nextDouble();
+		while (it.hasNext())
+			max = Math.max(max, it.nextDouble());
+		return max;
+	}
+
+	@Override
+	public double average() {
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		if (!it.hasNext())
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
+		double sum = 0;
+		long count = 0;
+		while (it.hasNext()) {
+			sum += it.nextDouble();
+			count++;
+		}
+		return sum / count;
+	}
+
+	@Override
+	public DoubleQueriable where(DoublePredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		return new DoubleQueriableImpl(new LazyDoubleWhereIterable(containedIter, predicate));
+	}
+
+	@Override
+	public DoubleQueriable select(DoubleUnaryOperator selector) {
+		throwIfArgumentIsNull(selector);
+
+		return new DoubleQueriableImpl(new LazyDoubleSelectIterable(containedIter, selector));
+	}
+
+	@Override
+	public <TOut> Queriable<TOut> selectToObj(DoubleFunction<TOut> selector) {
+		throwIfArgumentIsNull(selector);
+
+		return new QueriableImpl<TOut>(new LazyDoubleSelectToObjIterable<TOut>(containedIter, selector));
+	}
+
+	@Override
+	public Queriable<Double> boxed() {
+		return new QueriableImpl<Double>(containedIter);
+	}
+
+	@Override
+	public double[] toArray() {
+		// we do not know the number of values in advance
+		// so grow the array as needed and trim it at the end
+		double[] array = new double[16];
+		int size = 0;
+
+		PrimitiveIterator.OfDouble it = containedIter.iterator();
+		while (it.hasNext()) {
+			if (size == array.length)
+				array = Arrays.copyOf(array, array.length * 2);
+			array[size++] = it.nextDouble();
+		}
+
+		return size == array.length ? array : Arrays.copyOf(array, size);
+	}
+
+	// --------------------------
+	// Iterable<Double> implementation
+	// --------------------------
+
+	@Override
+	public PrimitiveIterator.OfDouble iterator() {
+		return containedIter.iterator();
+	}
+
+	@Override
+	public Spliterator.OfDouble spliterator() {
+		return containedIter.spliterator();
+	}
+
+	@Override
+	public DoubleStream stream() {
+		return StreamSupport.doubleStream(spliterator(), false);
+	}
+}
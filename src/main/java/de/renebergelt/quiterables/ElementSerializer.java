@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes elements to and reads them from a binary stream
+ * (used by the operators which can store elements on disk, e.g. OrderedQueriable.externalSort)
+ * @param <T> Type of the elements
+ * @author René Bergelt
+ */
+public interface ElementSerializer<T> {
+
+	/**
+	 * Write the given element to the output
+	 * @param element The element to write
+	 * @param out The output to write to
+	 * @throws IOException If writing fails
+	 */
+	public void write(T element, DataOutput out) throws IOException;
+
+	/**
+	 * Read an element which has been written by write()
+	 * @param in The input to read from
+	 * @return The element
+	 * @throws IOException If reading fails
+	 */
+	public T read(DataInput in) throws IOException;
+
+}
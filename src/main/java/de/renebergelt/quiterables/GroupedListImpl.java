@@ -26,6 +26,8 @@
 package de.renebergelt.quiterables;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 import de.renebergelt.quiterables.grouping.Group;
 import de.renebergelt.quiterables.grouping.GroupKey;
@@ -38,6 +40,11 @@ import de.renebergelt.quiterables.grouping.GroupedList;
  * @param <T> Type of the grouped elements
  */
 class GroupedListImpl<T> extends ArrayList<Group<T>> implements GroupedList<T>  {
+	
+	// index from group key to group for O(1) lookups
+	// (built on first access and rebuilt when the list has been modified)
+	private Map<GroupKey, Group<T>> index;
+	private int indexModCount;
 		
 	public GroupedListImpl() {
 		// --
@@ -48,15 +55,36 @@ class GroupedListImpl<T> extends ArrayList<Group<T>> implements GroupedList<T>
 			add(g);
 	}
 	
+	/**
+	 * Create a grouped list which contains the groups of the given map
+	 * (the map is used as index and must not be modified afterwards)
+	 */
+	GroupedListImpl(Map<GroupKey, Group<T>> groups) {
+		super(groups.values());
+		index = groups;
+		indexModCount = modCount;
+	}
+	
 	@Override
 	public Group<T> get(GroupKey key) {
-		for (Group<T> g : this) {
-			if (g.getKey().equals(key)) {
-				return g;
-			}
+		if (index == null || indexModCount != modCount) {
+			// if several groups have the same key, the first one is returned
+			Map<GroupKey, Group<T>> newIndex = new HashMap<GroupKey, Group<T>>();
+			for (Group<T> g : this)
+				newIndex.putIfAbsent(g.getKey(), g);
+			
+			index = newIndex;
+			indexModCount = modCount;
 		}
 
-		return null;
+		return index.get(key);
+	}
+	
+	@Override
+	public Group<T> set(int index, Group<T> element) {
+		// set() does not change the modCount
+		this.index = null;
+		return super.set(index, element);
 	}
 	
 	@Override
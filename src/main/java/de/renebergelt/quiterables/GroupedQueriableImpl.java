@@ -29,11 +29,15 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 import de.renebergelt.quiterables.grouping.Group;
 import de.renebergelt.quiterables.grouping.GroupKey;
 import de.renebergelt.quiterables.grouping.GroupedList;
 import de.renebergelt.quiterables.grouping.GroupedQueriable;
+import de.renebergelt.quiterables.iterators.LazyDeferredIterable;
+import de.renebergelt.quiterables.iterators.LazyOrderIterable;
 
 /**
  * The actual implementation of the GroupedQueriable<T> interface used in the
@@ -55,8 +59,20 @@ class GroupedQueriableImpl<T> extends QueriableImpl<Group<T>> implements Grouped
 
 	@Override
 	public Queriable<T> get(GroupKey key) {
+		Iterable<Group<T>> groups = getGroupedIter();
+		if (groups instanceof LazyDeferredIterable) {
+			// evaluate the grouping once for this lookup, so that the index of the groups can be used
+			groups = evaluateToList((LazyDeferredIterable<Group<T>>)groups);
+		}
+
+		if (groups instanceof GroupedList) {
+			// use the index of the grouped list
+			Group<T> g = ((GroupedList<T>)groups).get(key);
+			return g == null ? null : new QueriableImpl<T>(g);
+		}
+		
 		Group<T> g = null;
-		for(Group<T> element: getGroupedIter()) {
+		for(Group<T> element: groups) {
 			if (element.getKey().equals(key))
 			{
 				g = element;
@@ -68,8 +84,28 @@ class GroupedQueriableImpl<T> extends QueriableImpl<Group<T>> implements Grouped
 
 	@Override
 	public GroupedList<T> toList() {
+		if (containedIter instanceof LazyDeferredIterable) {
+			// the result of the grouping is a new list which can be returned directly
+			return evaluateToList((LazyDeferredIterable<Group<T>>)containedIter);
+		}
+
+		return toGroupedList(getGroupedIter());
+	}
+
+	/**
+	 * Evaluate the given deferred grouping and return its groups as grouped list
+	 */
+	private GroupedList<T> evaluateToList(LazyDeferredIterable<Group<T>> deferred) {
+		Iterable<Group<T>> groups = deferred.evaluate();
+		if (groups instanceof GroupedList)
+			return (GroupedList<T>)groups;
+
+		return toGroupedList(groups);
+	}
+
+	private GroupedList<T> toGroupedList(Iterable<Group<T>> groups) {
 		GroupedList<T> gl = new GroupedListImpl<T>();
-		for(Group g: getGroupedIter())
+		for(Group<T> g: groups)
 			gl.add(g);
 		return gl;
 	}
@@ -197,4 +233,32 @@ class GroupedQueriableImpl<T> extends QueriableImpl<Group<T>> implements Grouped
 		
 		return new OrderedGroupedQueriableImpl<T>(containedIter, valueFunc, comparator, SortOrder.Descending);
 	}
+
+	@Override
+	public OrderedGroupedQueriable<T> orderByLong(ToLongFunction<Group<T>> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		return new OrderedGroupedQueriableImpl<T>(new LazyOrderIterable<Group<T>, Long>(containedIter, keyFunc, SortOrder.Ascending));
+	}
+
+	@Override
+	public OrderedGroupedQueriable<T> orderByLongDescending(ToLongFunction<Group<T>> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		return new OrderedGroupedQueriableImpl<T>(new LazyOrderIterable<Group<T>, Long>(containedIter, keyFunc, SortOrder.Descending));
+	}
+
+	@Override
+	public OrderedGroupedQueriable<T> orderByDouble(ToDoubleFunction<Group<T>> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		return new OrderedGroupedQueriableImpl<T>(new LazyOrderIterable<Group<T>, Double>(containedIter, keyFunc, SortOrder.Ascending));
+	}
+
+	@Override
+	public OrderedGroupedQueriable<T> orderByDoubleDescending(ToDoubleFunction<Group<T>> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		return new OrderedGroupedQueriableImpl<T>(new LazyOrderIterable<Group<T>, Double>(containedIter, keyFunc, SortOrder.Descending));
+	}
 }
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import de.renebergelt.quiterables.iterators.primitivetypes.IntIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazyIntSelectIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazyIntSelectToObjIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazyIntWhereIterable;
+
+/**
+ * Actual IntQueriable implementation used in this library and which is returned
+ * by the Query methods for primitive int sequences
+ *
+ * @author René Bergelt
+ */
+class IntQueriableImpl implements IntQueriable {
+
+	protected IntIterable containedIter;
+
+	protected IntQueriableImpl(IntIterable forIterable) {
+
+		if (forIterable == null)
+			throw new IllegalArgumentException("forIterable must not be null");
+
+		containedIter = forIterable;
+	}
+
+	/**
+	 * Throws an IllegalArgumentException if any of the arguments is null
+	 */
+	protected void throwIfArgumentIsNull(Object...arguments) throws IllegalArgumentException {
+		for(Object argument: arguments)
+			if (argument == null)
+				throw new IllegalArgumentException("Argument must not be null.");
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return !containedIter.iterator().hasNext();
+	}
+
+	@Override
+	public int count() {
+		int c = 0;
+		for (PrimitiveIterator.OfInt it = containedIter.iterator(); it.hasNext(); it.nextInt())
+			c++;
+		return c;
+	}
+
+	@Override
+	public int count(IntPredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		int c = 0;
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		while (it.hasNext())
+			if (predicate.test(it.nextInt()))
+				c++;
+		return c;
+	}
+
+	@Override
+	public boolean exists(IntPredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		while (it.hasNext())
+			if (predicate.test(it.nextInt()))
+				return true;
+		return false;
+	}
+
+	@Override
+	public boolean all(IntPredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		while (it.hasNext())
+			if (!predicate.test(it.nextInt()))
+				return false;
+		return true;
+	}
+
+	@Override
+	public boolean contains(int value) {
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		while (it.hasNext())
+			if (it.nextInt() == value)
+				return true;
+		return false;
+	}
+
+	@Override
+	public int first() throws NoSuchElementException {
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		if (!it.hasNext())
+			throw new NoSuchElementException();
+		return it.nextInt();
+	}
+
+	@Override
+	public int firstOrDefault(int defaultValue) {
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		return it.hasNext() ? it.nextInt() : defaultValue;
+	}
+
+	@Override
+	public long sum() {
+		long sum = 0;
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		while (it.hasNext())
+			sum += it.nextInt();
+		return sum;
+	}
+
+	@Override
+	public int min() {
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		if (!it.hasNext())
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
+		int min = it.nextInt();
+		while (it.hasNext())
+			min = Math.min(min, it.nextInt());
+		return min;
+	}
+
+	@Override
+	public int max() {
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		if (!it.hasNext())
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
+		int max = it.nextInt();
+		while (it.hasNext())
+			max = Math.max(max, it.nextInt());
+		return max;
+	}
+
+	@Override
+	public double average() {
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		if (!it.hasNext())
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
+		double sum = 0;
+		long count = 0;
+		while (it.hasNext()) {
+			sum += it.nextInt();
+			count++;
+		}
+		return sum / count;
+	}
+
+	@Override
+	public IntQueriable where(IntPredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		return new IntQueriableImpl(new LazyIntWhereIterable(containedIter, predicate));
+	}
+
+	@Override
+	public IntQueriable select(IntUnaryOperator selector) {
+		throwIfArgumentIsNull(selector);
+
+		return new IntQueriableImpl(new LazyIntSelectIterable(containedIter, selector));
+	}
+
+	@Override
+	public <TOut> Queriable<TOut> selectToObj(IntFunction<TOut> selector) {
+		throwIfArgumentIsNull(selector);
+
+		return new QueriableImpl<TOut>(new LazyIntSelectToObjIterable<TOut>(containedIter, selector));
+	}
+
+	@Override
+	public Queriable<Integer> boxed() {
+		return new QueriableImpl<Integer>(containedIter);
+	}
+
+	@Override
+	public int[] toArray() {
+		// we do not know the number of values in advance
+		// so grow the array as needed and trim it at the end
+		int[] array = new int[16];
+		int size = 0;
+
+		PrimitiveIterator.OfInt it = containedIter.iterator();
+		while (it.hasNext()) {
+			if (size == array.length)
+				array = Arrays.copyOf(array, array.length * 2);
+			array[size++] = it.nextInt();
+		}
+
+		return size == array.length ? array : Arrays.copyOf(array, size);
+	}
+
+	// --------------------------
+	// Iterable<Integer> implementation
+	// --------------------------
+
+	@Override
+	public PrimitiveIterator.OfInt iterator() {
+		return containedIter.iterator();
+	}
+
+	@Override
+	public Spliterator.OfInt spliterator() {
+		return containedIter.spliterator();
+	}
+
+	@Override
+	public IntStream stream() {
+		return StreamSupport.intStream(spliterator(), false);
+	}
+}
@@ -0,0 +1,252 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import de.renebergelt.quiterables.iterators.primitivetypes.LongIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazyLongSelectIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazyLongSelectToObjIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazyLongWhereIterable;
+
+/**
+ * Actual LongQueriable implementation used in this library and which is returned
+ * by the Query methods for primitive long sequences
+ *
+ * @author René Bergelt
+ */
+class LongQueriableImpl implements LongQueriable {
+
+	protected LongIterable containedIter;
+
+	protected LongQueriableImpl(LongIterable forIterable) {
+
+		if (forIterable == null)
+			throw new IllegalArgumentException("forIterable must not be null");
+
+		containedIter = forIterable;
+	}
+
+	/**
+	 * Throws an IllegalArgumentException if any of the arguments is null
+	 */
+	protected void throwIfArgumentIsNull(Object...arguments) throws IllegalArgumentException {
+		for(Object argument: arguments)
+			if (argument == null)
+				throw new IllegalArgumentException("Argument must not be null.");
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return !containedIter.iterator().hasNext();
+	}
+
+	@Override
+	public int count() {
+		int c = 0;
+		for (PrimitiveIterator.OfLong it = containedIter.iterator(); it.hasNext(); it.nextLong())
+			c++;
+		return c;
+	}
+
+	@Override
+	public int count(LongPredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		int c = 0;
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		while (it.hasNext())
+			if (predicate.test(it.nextLong()))
+				c++;
+		return c;
+	}
+
+	@Override
+	public boolean exists(LongPredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		while (it.hasNext())
+			if (predicate.test(it.nextLong()))
+				return true;
+		return false;
+	}
+
+	@Override
+	public boolean all(LongPredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		while (it.hasNext())
+			if (!predicate.test(it.nextLong()))
+				return false;
+		return true;
+	}
+
+	@Override
+	public boolean contains(long value) {
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		while (it.hasNext())
+			if (it.nextLong() == value)
+				return true;
+		return false;
+	}
+
+	@Override
+	public long first() throws NoSuchElementException {
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		if (!it.hasNext())
+			throw new NoSuchElementException();
+		return it.nextLong();
+	}
+
+	@Override
+	public long firstOrDefault(long defaultValue) {
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		return it.hasNext() ? it.nextLong() : defaultValue;
+	}
+
+	@Override
+	public long sum() {
+		long sum = 0;
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		while (it.hasNext())
+			sum += it.nextLong();
+		return sum;
+	}
+
+	@Override
+	public long min() {
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		if (!it.hasNext())
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
+		long min = it.nextLong();
+		while (it.hasNext())
+			min = Math.min(min, it.nextLong());
+		return min;
+	}
+
+	@Override
+	public long max() {
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		if (!it.hasNext())
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
+		long max = it.nextLong();
+		while (it.hasNext())
+			max = Math.max(max, it.nextLong());
+		return max;
+	}
+
+	@Override
+	public double average() {
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		if (!it.hasNext())
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
+		double sum = 0;
+		long count = 0;
+		while (it.hasNext()) {
+			sum += it.nextLong();
+			count++;
+		}
+		return sum / count;
+	}
+
+	@Override
+	public LongQueriable where(LongPredicate predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		return new LongQueriableImpl(new LazyLongWhereIterable(containedIter, predicate));
+	}
+
+	@Override
+	public LongQueriable select(LongUnaryOperator selector) {
+		throwIfArgumentIsNull(selector);
+
+		return new LongQueriableImpl(new LazyLongSelectIterable(containedIter, selector));
+	}
+
+	@Override
+	public <TOut> Queriable<TOut> selectToObj(LongFunction<TOut> selector) {
+		throwIfArgumentIsNull(selector);
+
+		return new QueriableImpl<TOut>(new LazyLongSelectToObjIterable<TOut>(containedIter, selector));
+	}
+
+	@Override
+	public Queriable<Long> boxed() {
+		return new QueriableImpl<Long>(containedIter);
+	}
+
+	@Override
+	public long[] toArray() {
+		// we do not know the number of values in advance
+		// so grow the array as needed and trim it at the end
+		long[] array = new long[16];
+		int size = 0;
+
+		PrimitiveIterator.OfLong it = containedIter.iterator();
+		while (it.hasNext()) {
+			if (size == array.length)
+				array = Arrays.copyOf(array, array.length * 2);
+			array[size++] = it.nextLong();
+		}
+
+		return size == array.length ? array : Arrays.copyOf(array, size);
+	}
+
+	// --------------------------
+	// Iterable<Long> implementation
+	// --------------------------
+
+	@Override
+	public PrimitiveIterator.OfLong iterator() {
+		return containedIter.iterator();
+	}
+
+	@Override
+	public Spliterator.OfLong spliterator() {
+		return containedIter.spliterator();
+	}
+
+	@Override
+	public LongStream stream() {
+		return StreamSupport.longStream(spliterator(), false);
+	}
+}
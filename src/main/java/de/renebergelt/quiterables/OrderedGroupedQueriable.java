@@ -25,7 +25,11 @@
  *******************************************************************************/
 package de.renebergelt.quiterables;
 
+import java.io.File;
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 import de.renebergelt.quiterables.grouping.Group;
 import de.renebergelt.quiterables.grouping.GroupedQueriable;
@@ -50,4 +54,28 @@ public interface OrderedGroupedQueriable<T> extends OrderedQueriable<Group<T>>,
 	
 	@Override
 	public <TComparable> OrderedGroupedQueriable<T> thenByDescending(ItemFunc<Group<T>, TComparable> valueFunc, Comparator<TComparable> comparator);
+
+	@Override
+	public OrderedGroupedQueriable<T> thenByLong(ToLongFunction<Group<T>> keyFunc);
+
+	@Override
+	public OrderedGroupedQueriable<T> thenByLongDescending(ToLongFunction<Group<T>> keyFunc);
+
+	@Override
+	public OrderedGroupedQueriable<T> thenByDouble(ToDoubleFunction<Group<T>> keyFunc);
+
+	@Override
+	public OrderedGroupedQueriable<T> thenByDoubleDescending(ToDoubleFunction<Group<T>> keyFunc);
+
+	@Override
+	public OrderedGroupedQueriable<T> parallelSort();
+
+	@Override
+	public OrderedGroupedQueriable<T> parallelSort(ForkJoinPool pool);
+
+	@Override
+	public OrderedGroupedQueriable<T> externalSort(ElementSerializer<Group<T>> serializer, int maxElementsInMemory);
+
+	@Override
+	public OrderedGroupedQueriable<T> externalSort(ElementSerializer<Group<T>> serializer, int maxElementsInMemory, File directory);
 }
@@ -25,10 +25,18 @@
  *******************************************************************************/
 package de.renebergelt.quiterables;
 
+import java.io.File;
 import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 import de.renebergelt.quiterables.grouping.Group;
+import de.renebergelt.quiterables.grouping.GroupedQueriable;
+import de.renebergelt.quiterables.iterators.LazyMergeJoinIterable;
 import de.renebergelt.quiterables.iterators.LazyOrderIterable;
+import de.renebergelt.quiterables.iterators.LazyTopKIterable;
 
 /**
  * The actual implementation of the OrderedGroupedQueriable<T> interface used in the
@@ -42,8 +50,12 @@ class OrderedGroupedQueriableImpl<T> extends GroupedQueriableImpl<T> implements
 
 	LazyOrderIterable orderedContainedIter;
 	
-	protected LazyOrderIterable getOrderIterable() {
-		return (LazyOrderIterable)containedIter;
+	protected LazyOrderIterable<Group<T>, ?> getOrderIterable() {
+		return (LazyOrderIterable<Group<T>, ?>)containedIter;
+	}
+	
+	public OrderedGroupedQueriableImpl(LazyOrderIterable<Group<T>, ?> orderIterable) {
+		super(orderIterable);
 	}
 	
 	public OrderedGroupedQueriableImpl(Iterable<Group<T>> forIterable, ItemFunc<Group<T>, Comparable> func, SortOrder sortOrder) {
@@ -77,4 +89,103 @@ class OrderedGroupedQueriableImpl<T> extends GroupedQueriableImpl<T> implements
 		getOrderIterable().addSecondaryOrderFunction(valueFunc, comparator, SortOrder.Descending);
 		return this;
 	}	
+
+	@Override
+	public OrderedGroupedQueriable<T> thenByLong(ToLongFunction<Group<T>> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		getOrderIterable().addSecondaryLongOrderFunction(keyFunc, SortOrder.Ascending);
+		return this;
+	}
+
+	@Override
+	public OrderedGroupedQueriable<T> thenByLongDescending(ToLongFunction<Group<T>> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		getOrderIterable().addSecondaryLongOrderFunction(keyFunc, SortOrder.Descending);
+		return this;
+	}
+
+	@Override
+	public OrderedGroupedQueriable<T> thenByDouble(ToDoubleFunction<Group<T>> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		getOrderIterable().addSecondaryDoubleOrderFunction(keyFunc, SortOrder.Ascending);
+		return this;
+	}
+
+	@Override
+	public OrderedGroupedQueriable<T> thenByDoubleDescending(ToDoubleFunction<Group<T>> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		getOrderIterable().addSecondaryDoubleOrderFunction(keyFunc, SortOrder.Descending);
+		return this;
+	}
+
+	@Override
+	public OrderedGroupedQueriable<T> parallelSort() {
+		return parallelSort(ForkJoinPool.commonPool());
+	}
+
+	@Override
+	public OrderedGroupedQueriable<T> parallelSort(ForkJoinPool pool) {
+		throwIfArgumentIsNull(pool);
+
+		getOrderIterable().setParallelSortPool(pool);
+		return this;
+	}
+
+	@Override
+	public OrderedGroupedQueriable<T> externalSort(ElementSerializer<Group<T>> serializer, int maxElementsInMemory) {
+		return externalSort(serializer, maxElementsInMemory, null);
+	}
+
+	@Override
+	public OrderedGroupedQueriable<T> externalSort(ElementSerializer<Group<T>> serializer, int maxElementsInMemory, File directory) {
+		throwIfArgumentIsNull(serializer);
+
+		getOrderIterable().setExternalSort(serializer, maxElementsInMemory, directory);
+		return this;
+	}
+
+	@Override
+	public <TInner, TKey extends Comparable<? super TKey>, TResult> Queriable<TResult> mergeJoin(Iterable<TInner> inner, ItemFunc<Group<T>, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<Group<T>, TInner, TResult> resultSelector) {
+		return mergeJoin(inner, outerKeySelector, innerKeySelector, Comparator.<TKey>naturalOrder(), resultSelector);
+	}
+
+	@Override
+	public <TInner, TKey, TResult> Queriable<TResult> mergeJoin(Iterable<TInner> inner, ItemFunc<Group<T>, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, Comparator<? super TKey> keyComparator, JoinSelector<Group<T>, TInner, TResult> resultSelector) {
+		throwIfArgumentIsNull(inner, outerKeySelector, innerKeySelector, keyComparator, resultSelector);
+
+		return Query.iterable(new LazyMergeJoinIterable<Group<T>, TInner, TKey, TResult>(containedIter, inner, outerKeySelector, innerKeySelector, keyComparator, resultSelector));
+	}
+
+	// --------------------------
+	// Top-K selection
+	// (see OrderedQueriableImpl)
+	// --------------------------
+
+	@Override
+	public GroupedQueriable<T> take(int amount) {
+		return new GroupedQueriableImpl<T>(new LazyTopKIterable<Group<T>>(getOrderIterable(), amount));
+	}
+
+	@Override
+	public Group<T> firstOrDefault(Group<T> defaultValue) {
+		List<Group<T>> top = new LazyTopKIterable<Group<T>>(getOrderIterable(), 1).selectTopK();
+		return top.isEmpty() ? defaultValue : top.get(0);
+	}
+
+	@Override
+	public Group<T> elementAtOrDefault(int index) {
+		if (index < 0 || !getOrderIterable().fitsInMemory(index + 1L)) {
+			// iterate the (externally) sorted sequence if the heap would exceed the memory limit
+			return super.elementAtOrDefault(index);
+		}
+
+		List<Group<T>> top = new LazyTopKIterable<Group<T>>(getOrderIterable(), index + 1).selectTopK();
+		return index < top.size() ? top.get(index) : null;
+	}
 }
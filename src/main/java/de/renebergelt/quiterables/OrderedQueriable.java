@@ -25,7 +25,11 @@
  *******************************************************************************/
 package de.renebergelt.quiterables;
 
+import java.io.File;
 import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Represents a Queriable which has been ordered
@@ -65,4 +69,108 @@ public interface OrderedQueriable<T> extends Queriable<T> {
 	 * @return Ordered queriable
 	 */
 	public <TComparable> OrderedQueriable<T> thenByDescending(ItemFunc<T, TComparable> valueFunc, Comparator<TComparable> comparator);
+
+	/**
+	 * Define a secondary ordering criterion with a primitive long key
+	 * @param keyFunc Function to retrieve the key of an element
+	 * @return Ordered queriable
+	 */
+	public OrderedQueriable<T> thenByLong(ToLongFunction<T> keyFunc);
+
+	/**
+	 * Define a secondary ordering criterion with a primitive long key (descending)
+	 * @param keyFunc Function to retrieve the key of an element
+	 * @return Ordered queriable
+	 */
+	public OrderedQueriable<T> thenByLongDescending(ToLongFunction<T> keyFunc);
+
+	/**
+	 * Define a secondary ordering criterion with a primitive double key
+	 * @param keyFunc Function to retrieve the key of an element
+	 * @return Ordered queriable
+	 */
+	public OrderedQueriable<T> thenByDouble(ToDoubleFunction<T> keyFunc);
+
+	/**
+	 * Define a secondary ordering criterion with a primitive double key (descending)
+	 * @param keyFunc Function to retrieve the key of an element
+	 * @return Ordered queriable
+	 */
+	public OrderedQueriable<T> thenByDoubleDescending(ToDoubleFunction<T> keyFunc);
+
+	/**
+	 * Sort the elements using multiple threads of the common ForkJoinPool
+	 * (the sort stays stable, i.e. the result is the same as for the sequential sort.
+	 * Small sequences are still sorted sequentially)
+	 * @return Ordered queriable
+	 */
+	public OrderedQueriable<T> parallelSort();
+
+	/**
+	 * Sort the elements using multiple threads of the given ForkJoinPool
+	 * (the sort stays stable, i.e. the result is the same as for the sequential sort.
+	 * Small sequences are still sorted sequentially)
+	 * @param pool The pool to use for sorting
+	 * @return Ordered queriable
+	 */
+	public OrderedQueriable<T> parallelSort(ForkJoinPool pool);
+
+	/**
+	 * Sort the elements with an external merge sort if the sequence is too large to be sorted in memory:
+	 * Runs of at most maxElementsInMemory elements are sorted in memory and written to temporary files
+	 * which are merged while the result is iterated
+	 * (the sort stays stable, the files are deleted once the result has been iterated completely)
+	 * @param serializer The serializer used to write the elements to the temporary files
+	 * @param maxElementsInMemory The maximum number of elements which are sorted in memory at once
+	 * @return Ordered queriable
+	 */
+	public OrderedQueriable<T> externalSort(ElementSerializer<T> serializer, int maxElementsInMemory);
+
+	/**
+	 * Sort the elements with an external merge sort if the sequence is too large to be sorted in memory:
+	 * Runs of at most maxElementsInMemory elements are sorted in memory and written to temporary files
+	 * which are merged while the result is iterated
+	 * (the sort stays stable, the files are deleted once the result has been iterated completely)
+	 * @param serializer The serializer used to write the elements to the temporary files
+	 * @param maxElementsInMemory The maximum number of elements which are sorted in memory at once
+	 * @param directory The directory for the temporary files
+	 * @return Ordered queriable
+	 */
+	public OrderedQueriable<T> externalSort(ElementSerializer<T> serializer, int maxElementsInMemory, File directory);
+
+	/**
+	 * Return the combination of the elements of this enumeration and the elements of
+	 * the inner enumeration which have matching keys using a merge join
+	 * This enumeration and the inner enumeration have to be ordered ascending by the given keys
+	 * (otherwise an IllegalStateException is thrown during enumeration).
+	 * Only the inner elements with the current key are kept in memory.
+	 * @param inner The inner enumeration (ordered by its key)
+	 * @param outerKeySelector Function to retrieve the key of an element of this enumeration
+	 * @param innerKeySelector Function to retrieve the key of an element of the inner enumeration
+	 * @param resultSelector Function to combine two matching elements
+	 * @param <TInner> Type of the elements of the inner enumeration
+	 * @param <TKey> Type of the keys
+	 * @param <TResult> Type of the result elements
+	 * @return A queriable sequence of the combined elements
+	 */
+	public <TInner, TKey extends Comparable<? super TKey>, TResult> Queriable<TResult> mergeJoin(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<T, TInner, TResult> resultSelector);
+
+	/**
+	 * Return the combination of the elements of this enumeration and the elements of
+	 * the inner enumeration which have matching keys using a merge join
+	 * This enumeration and the inner enumeration have to be ordered by the given keys
+	 * according to the given comparator (otherwise an IllegalStateException is thrown during enumeration).
+	 * @param inner The inner enumeration (ordered by its key)
+	 * @param outerKeySelector Function to retrieve the key of an element of this enumeration
+	 * @param innerKeySelector Function to retrieve the key of an element of the inner enumeration
+	 * @param keyComparator The comparator the keys are ordered by
+	 * @param resultSelector Function to combine two matching elements
+	 * @param <TInner> Type of the elements of the inner enumeration
+	 * @param <TKey> Type of the keys
+	 * @param <TResult> Type of the result elements
+	 * @return A queriable sequence of the combined elements
+	 */
+	public <TInner, TKey, TResult> Queriable<TResult> mergeJoin(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, Comparator<? super TKey> keyComparator, JoinSelector<T, TInner, TResult> resultSelector);
 }
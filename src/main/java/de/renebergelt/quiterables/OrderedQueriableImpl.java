@@ -25,9 +25,16 @@
  *******************************************************************************/
 package de.renebergelt.quiterables;
 
+import java.io.File;
 import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
+import de.renebergelt.quiterables.iterators.LazyMergeJoinIterable;
 import de.renebergelt.quiterables.iterators.LazyOrderIterable;
+import de.renebergelt.quiterables.iterators.LazyTopKIterable;
 
 /**
  * The actual implementation of OrderedQueriable used in the library
@@ -35,8 +42,12 @@ import de.renebergelt.quiterables.iterators.LazyOrderIterable;
  */
 class OrderedQueriableImpl<T> extends QueriableImpl<T> implements OrderedQueriable<T> {
 
-	protected LazyOrderIterable getOrderIterable() {
-		return (LazyOrderIterable)containedIter;
+	protected LazyOrderIterable<T, ?> getOrderIterable() {
+		return (LazyOrderIterable<T, ?>)containedIter;
+	}
+	
+	protected OrderedQueriableImpl(LazyOrderIterable<T, ?> orderIterable) {
+		super(orderIterable);
 	}
 	
 	protected OrderedQueriableImpl(Iterable<T> forIterable, ItemFunc<T, Comparable> valueFunc, SortOrder sortOrder) {
@@ -70,4 +81,104 @@ class OrderedQueriableImpl<T> extends QueriableImpl<T> implements OrderedQueriab
 		getOrderIterable().addSecondaryOrderFunction(valueFunc, comparator, SortOrder.Descending);
 		return this;
 	}
+
+	@Override
+	public OrderedQueriable<T> thenByLong(ToLongFunction<T> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		getOrderIterable().addSecondaryLongOrderFunction(keyFunc, SortOrder.Ascending);
+		return this;
+	}
+
+	@Override
+	public OrderedQueriable<T> thenByLongDescending(ToLongFunction<T> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		getOrderIterable().addSecondaryLongOrderFunction(keyFunc, SortOrder.Descending);
+		return this;
+	}
+
+	@Override
+	public OrderedQueriable<T> thenByDouble(ToDoubleFunction<T> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		getOrderIterable().addSecondaryDoubleOrderFunction(keyFunc, SortOrder.Ascending);
+		return this;
+	}
+
+	@Override
+	public OrderedQueriable<T> thenByDoubleDescending(ToDoubleFunction<T> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		getOrderIterable().addSecondaryDoubleOrderFunction(keyFunc, SortOrder.Descending);
+		return this;
+	}
+
+	@Override
+	public OrderedQueriable<T> parallelSort() {
+		return parallelSort(ForkJoinPool.commonPool());
+	}
+
+	@Override
+	public OrderedQueriable<T> parallelSort(ForkJoinPool pool) {
+		throwIfArgumentIsNull(pool);
+
+		getOrderIterable().setParallelSortPool(pool);
+		return this;
+	}
+
+	@Override
+	public OrderedQueriable<T> externalSort(ElementSerializer<T> serializer, int maxElementsInMemory) {
+		return externalSort(serializer, maxElementsInMemory, null);
+	}
+
+	@Override
+	public OrderedQueriable<T> externalSort(ElementSerializer<T> serializer, int maxElementsInMemory, File directory) {
+		throwIfArgumentIsNull(serializer);
+
+		getOrderIterable().setExternalSort(serializer, maxElementsInMemory, directory);
+		return this;
+	}
+
+	@Override
+	public <TInner, TKey extends Comparable<? super TKey>, TResult> Queriable<TResult> mergeJoin(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<T, TInner, TResult> resultSelector) {
+		return mergeJoin(inner, outerKeySelector, innerKeySelector, Comparator.<TKey>naturalOrder(), resultSelector);
+	}
+
+	@Override
+	public <TInner, TKey, TResult> Queriable<TResult> mergeJoin(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, Comparator<? super TKey> keyComparator, JoinSelector<T, TInner, TResult> resultSelector) {
+		throwIfArgumentIsNull(inner, outerKeySelector, innerKeySelector, keyComparator, resultSelector);
+
+		return Query.iterable(new LazyMergeJoinIterable<T, TInner, TKey, TResult>(containedIter, inner, outerKeySelector, innerKeySelector, keyComparator, resultSelector));
+	}
+
+	// --------------------------
+	// Top-K selection
+	// the following operations only need the first elements of the ordered
+	// sequence so that there is no need to sort all elements
+	// --------------------------
+
+	@Override
+	public Queriable<T> take(int amount) {
+		return Query.iterable(new LazyTopKIterable<T>(getOrderIterable(), amount));
+	}
+
+	@Override
+	public T firstOrDefault(T defaultValue) {
+		List<T> top = new LazyTopKIterable<T>(getOrderIterable(), 1).selectTopK();
+		return top.isEmpty() ? defaultValue : top.get(0);
+	}
+
+	@Override
+	public T elementAtOrDefault(int index) {
+		if (index < 0 || !getOrderIterable().fitsInMemory(index + 1L)) {
+			// iterate the (externally) sorted sequence if the heap would exceed the memory limit
+			return super.elementAtOrDefault(index);
+		}
+
+		List<T> top = new LazyTopKIterable<T>(getOrderIterable(), index + 1).selectTopK();
+		return index < top.size() ? top.get(index) : null;
+	}
 }
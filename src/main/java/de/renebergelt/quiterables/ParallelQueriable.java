@@ -0,0 +1,158 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables;
+
+import java.util.List;
+
+import de.renebergelt.quiterables.grouping.GroupFunction;
+import de.renebergelt.quiterables.grouping.GroupedQueriable;
+
+/**
+ * A query whose operators are executed in parallel:
+ * The source is split into chunks which are processed by the threads of a ForkJoinPool.
+ * The where, select and selectMany operators are combined and executed when one of the
+ * evaluating methods (count, sum, toList, ...) is called
+ * (As with sequential queries a null element returned by an operator ends the sequence)
+ * @param <T> Type of elements
+ * @author René Bergelt
+ */
+public interface ParallelQueriable<T> {
+
+	/**
+	 * Return the elements which satisfy the predicate
+	 * (the predicate is evaluated concurrently and has to be thread-safe)
+	 * @param predicate The predicate
+	 * @return Parallel queriable of the matching elements
+	 */
+	public ParallelQueriable<T> where(Predicate<T> predicate);
+
+	/**
+	 * Transform the elements using the given selector
+	 * (the selector is evaluated concurrently and has to be thread-safe)
+	 * @param selector The selector
+	 * @param <TOut> Target type
+	 * @return Parallel queriable of the transformed elements
+	 */
+	public <TOut> ParallelQueriable<TOut> select(Selector<T, TOut> selector);
+
+	/**
+	 * Transform each element to a sequence of elements and return the elements of
+	 * all these sequences
+	 * (the selector is evaluated concurrently and has to be thread-safe)
+	 * @param selector The selector
+	 * @param <TOut> Target type
+	 * @return Parallel queriable of the elements of the returned sequences
+	 */
+	public <TOut> ParallelQueriable<TOut> selectMany(Selector<T, Iterable<TOut>> selector);
+
+	/**
+	 * Keep the order of the source in the results of toList() and asSequential()
+	 * (by default the results of the chunks are combined in the order in which the chunks finish)
+	 * @return Ordered parallel queriable
+	 */
+	public ParallelQueriable<T> asOrdered();
+
+	/**
+	 * Return a sequential queriable of the results of this parallel query
+	 * (the parallel query is executed when the returned queriable is enumerated)
+	 * @return Sequential queriable
+	 */
+	public Queriable<T> asSequential();
+
+	/**
+	 * Return the number of elements
+	 * @return The number of elements
+	 */
+	public int count();
+
+	/**
+	 * Return the number of elements which satisfy the predicate
+	 * @param predicate The predicate
+	 * @return The number of matching elements
+	 */
+	public int count(Predicate<T> predicate);
+
+	/**
+	 * Return the sum of the elements (elements will be cast to java.lang.Number)
+	 * @return the sum or 0 (integer zero) if there are no elements
+	 */
+	public Number sum();
+
+	/**
+	 * Return the sum of the values of the elements
+	 * @param valFunc The function to calculate the value of an element
+	 * (all values have to be of the same type)
+	 * @return the sum or 0 (integer zero) if there are no elements
+	 */
+	public Number sum(NumberFunc<T> valFunc);
+
+	/**
+	 * Return the maximum element (elements have to implement Comparable)
+	 * @return The maximum element
+	 * @throws IllegalStateException if there are no elements
+	 */
+	public T max();
+
+	/**
+	 * Return the maximum of the values of the elements
+	 * @param valFunc The function to calculate the value of an element
+	 * @return The maximum value
+	 * @throws IllegalStateException if there are no elements
+	 */
+	public Number max(NumberFunc<T> valFunc);
+
+	/**
+	 * Return the minimum element (elements have to implement Comparable)
+	 * @return The minimum element
+	 * @throws IllegalStateException if there are no elements
+	 */
+	public T min();
+
+	/**
+	 * Return the minimum of the values of the elements
+	 * @param valFunc The function to calculate the value of an element
+	 * @return The minimum value
+	 * @throws IllegalStateException if there are no elements
+	 */
+	public Number min(NumberFunc<T> valFunc);
+
+	/**
+	 * Return a list of the elements
+	 * (in the order of the source if asOrdered() has been called)
+	 * @return List of the elements
+	 */
+	public List<T> toList();
+
+	/**
+	 * Groups the elements according to the given grouping function
+	 * (each chunk is grouped into its own tables which are merged in parallel afterwards,
+	 * the elements of a group keep their order. If asOrdered() has been called, the groups
+	 * are ordered by the first occurrence of their key. The grouping is executed when the result is enumerated)
+	 * @param func Function to group elements by
+	 * @return The grouped elements
+	 */
+	public GroupedQueriable<T> group(GroupFunction<T> func);
+}
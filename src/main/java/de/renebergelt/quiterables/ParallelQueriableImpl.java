@@ -0,0 +1,548 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import de.renebergelt.quiterables.grouping.Group;
+import de.renebergelt.quiterables.grouping.GroupFunction;
+import de.renebergelt.quiterables.grouping.GroupKey;
+import de.renebergelt.quiterables.grouping.GroupedQueriable;
+import de.renebergelt.quiterables.iterators.LazyDeferredIterable;
+import de.renebergelt.quiterables.iterators.Sink;
+
+/**
+ * The actual implementation of the ParallelQueriable interface used in the library
+ * The operators are combined to a pipeline of sinks which is created once per chunk
+ * @author René Bergelt
+ *
+ * @param <TSource> Type of the source elements
+ * @param <T> Type of the elements
+ */
+class ParallelQueriableImpl<TSource, T> implements ParallelQueriable<T> {
+
+	// number of chunks per thread, more chunks balance the load if the elements take different times
+	static final int CHUNKS_PER_THREAD = 4;
+
+	Iterable<TSource> source;
+	Pipeline<TSource, T> pipeline;
+	ForkJoinPool pool;
+	int degreeOfParallelism;
+	boolean ordered;
+
+	ParallelQueriableImpl(Iterable<TSource> _source, Pipeline<TSource, T> _pipeline, ForkJoinPool _pool, int _degreeOfParallelism, boolean _ordered) {
+		if (_degreeOfParallelism < 1)
+			throw new IllegalArgumentException("degreeOfParallelism must be at least 1");
+
+		source = _source;
+		pipeline = _pipeline;
+		pool = _pool;
+		degreeOfParallelism = _degreeOfParallelism;
+		ordered = _ordered;
+	}
+
+	/**
+	 * Create a parallel queriable for the given source
+	 */
+	static <T> ParallelQueriable<T> of(Iterable<T> source, ForkJoinPool pool, int degreeOfParallelism) {
+		return new ParallelQueriableImpl<T, T>(source, sink -> sink, pool, degreeOfParallelism, false);
+	}
+
+	protected void throwIfArgumentIsNull(Object...arguments) throws IllegalArgumentException {
+		for(Object argument: arguments)
+			if (argument == null)
+				throw new IllegalArgumentException("Argument must not be null.");
+	}
+
+	private <TOut> ParallelQueriableImpl<TSource, TOut> append(Pipeline<T, TOut> stage) {
+		return new ParallelQueriableImpl<TSource, TOut>(source, sink -> pipeline.wrap(stage.wrap(sink)), pool, degreeOfParallelism, ordered);
+	}
+
+	@Override
+	public ParallelQueriable<T> where(Predicate<T> predicate) {
+		throwIfArgumentIsNull(predicate);
+
+		// as with the LazyIterator a null element ends the sequence (i.e. the chunk)
+		return append(sink -> element -> !predicate.evaluate(element) || (element != null && sink.accept(element)));
+	}
+
+	@Override
+	public <TOut> ParallelQueriable<TOut> select(Selector<T, TOut> selector) {
+		throwIfArgumentIsNull(selector);
+
+		return append(sink -> element -> {
+			TOut result = selector.select(element);
+			return result != null && sink.accept(result);
+		});
+	}
+
+	@Override
+	public <TOut> ParallelQueriable<TOut> selectMany(Selector<T, Iterable<TOut>> selector) {
+		throwIfArgumentIsNull(selector);
+
+		return append(sink -> element -> {
+			for (TOut e : selector.select(element))
+				if (e == null || !sink.accept(e))
+					return false;
+			return true;
+		});
+	}
+
+	@Override
+	public ParallelQueriable<T> asOrdered() {
+		return new ParallelQueriableImpl<TSource, T>(source, pipeline, pool, degreeOfParallelism, true);
+	}
+
+	@Override
+	public Queriable<T> asSequential() {
+		return Query.iterable(new LazyDeferredIterable<T>(() -> toList()));
+	}
+
+	@Override
+	public int count() {
+		final int[] count = new int[1];
+		execute(() -> new CollectingSink<T>(false), true, chunk -> count[0] += chunk.count);
+		return count[0];
+	}
+
+	@Override
+	public int count(Predicate<T> predicate) {
+		return where(predicate).count();
+	}
+
+	@Override
+	public Number sum() {
+		return sum(new QueriableImpl.SimpleCastNumberFunc<T>());
+	}
+
+	@Override
+	public Number sum(NumberFunc<T> valFunc) {
+		throwIfArgumentIsNull(valFunc);
+
+		final QueriableImpl.SumSink<T> total = new QueriableImpl.SumSink<T>(valFunc);
+		execute(() -> new QueriableImpl.SumSink<T>(valFunc), true, chunk -> {
+			if (chunk.sum != null)
+				total.add(chunk.sum);
+		});
+		return total.sum == null ? 0 : total.sum;
+	}
+
+	@Override
+	public T max() {
+		return extreme(1, "");
+	}
+
+	@Override
+	public Number max(NumberFunc<T> valFunc) {
+		throwIfArgumentIsNull(valFunc);
+
+		return this.<Number>append(sink -> element -> sink.accept(valFunc.getValue(element))).extreme(1, "numerical ");
+	}
+
+	@Override
+	public T min() {
+		return extreme(-1, "");
+	}
+
+	@Override
+	public Number min(NumberFunc<T> valFunc) {
+		throwIfArgumentIsNull(valFunc);
+
+		return this.<Number>append(sink -> element -> sink.accept(valFunc.getValue(element))).extreme(-1, "numerical ");
+	}
+
+	/**
+	 * Return the first maximum (sign = 1) or minimum (sign = -1)
+	 */
+	private T extreme(int sign, String valueName) {
+		final ExtremeSink<T> result = new ExtremeSink<T>(sign, valueName);
+		// combine the results of the chunks in order, so that the first extreme element is returned
+		execute(() -> new ExtremeSink<T>(sign, valueName), true, chunk -> {
+			if (chunk.hasValue)
+				result.accept(chunk.value);
+		});
+
+		if (!result.hasValue)
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
+		return result.value;
+	}
+
+	@Override
+	public List<T> toList() {
+		final List<T> list = new ArrayList<T>();
+		execute(() -> new CollectingSink<T>(true), ordered, chunk -> list.addAll(chunk.elements));
+		return list;
+	}
+
+	@Override
+	public GroupedQueriable<T> group(GroupFunction<T> func) {
+		throwIfArgumentIsNull(func);
+
+		// the groups are built when the result is enumerated
+		return new GroupedQueriableImpl<T>(new LazyDeferredIterable<Group<T>>(() -> buildGroups(func)));
+	}
+
+	private GroupedListImpl<T> buildGroups(GroupFunction<T> func) {
+		final int partitionCount = degreeOfParallelism * CHUNKS_PER_THREAD;
+
+		// each chunk groups its elements into its own tables (one per key partition),
+		// so that neither the key computation nor the hashing needs to be synchronized
+		final List<GroupingSink<T>> chunks = new ArrayList<GroupingSink<T>>();
+		execute(() -> new GroupingSink<T>(func, partitionCount), true, chunks::add);
+
+		// merge the tables of each partition in parallel
+		// (in the order of the chunks, so that the elements of a group keep their order;
+		// each task only sets the list of its own partition)
+		final List<List<ParallelGroup<T>>> partitions = new ArrayList<List<ParallelGroup<T>>>(Collections.nCopies(partitionCount, null));
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(partitionCount);
+		for (int p = 0; p < partitionCount; p++) {
+			final int partition = p;
+			tasks.add(() -> {
+				partitions.set(partition, mergePartition(chunks, partition));
+				return null;
+			});
+		}
+		invokeAll(tasks);
+
+		List<ParallelGroup<T>> groups = new ArrayList<ParallelGroup<T>>();
+		for (List<ParallelGroup<T>> partition : partitions)
+			groups.addAll(partition);
+
+		if (ordered) {
+			// order the groups by the first occurrence of their key
+			groups.sort((g1, g2) -> g1.chunk != g2.chunk ? Integer.compare(g1.chunk, g2.chunk) : Integer.compare(g1.position, g2.position));
+		}
+
+		return new GroupedListImpl<T>(new ArrayList<Group<T>>(groups));
+	}
+
+	/**
+	 * Merge the partial groups of the given partition of all chunks
+	 */
+	private static <T> List<ParallelGroup<T>> mergePartition(List<GroupingSink<T>> chunks, int partition) {
+		HashMap<GroupKey, ParallelGroup<T>> merged = null;
+		for (int c = 0; c < chunks.size(); c++) {
+			HashMap<GroupKey, ParallelGroup<T>> table = chunks.get(c).tables.get(partition);
+			if (table == null)
+				continue;
+
+			for (ParallelGroup<T> g : table.values())
+				g.chunk = c;
+
+			if (merged == null) {
+				// the first table can be used as it is
+				merged = table;
+				continue;
+			}
+
+			for (ParallelGroup<T> g : table.values()) {
+				ParallelGroup<T> existing = merged.putIfAbsent(g.getKey(), g);
+				if (existing != null)
+					existing.addAll(g);
+			}
+		}
+
+		return merged == null ? new ArrayList<ParallelGroup<T>>() : new ArrayList<ParallelGroup<T>>(merged.values());
+	}
+
+	/**
+	 * Execute the given tasks in the pool and wait for their completion
+	 */
+	private void invokeAll(List<Callable<Void>> tasks) {
+		for (Future<Void> future : pool.invokeAll(tasks)) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("The parallel query has been interrupted.", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				if (e.getCause() instanceof Error)
+					throw (Error) e.getCause();
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Run the pipeline for all chunks of the source with at most degreeOfParallelism chunks at once
+	 * A chunk ends when a stage of the pipeline ends the sequence (by a null element),
+	 * the results of the following chunks are discarded then
+	 * @param sinkFactory Creates the sink which receives the results of a chunk
+	 * @param inOrder If true, the sinks are passed to the consumer in the order of the chunks,
+	 * otherwise in the order in which the chunks finish
+	 * @param consumer Receives the sinks of the finished chunks (on the calling thread)
+	 */
+	private <S extends Sink<T>> void execute(Supplier<S> sinkFactory, boolean inOrder, Consumer<S> consumer) {
+		final List<TSource> elements = sourceList();
+		final int size = elements.size();
+		if (size == 0)
+			return;
+
+		int chunkCount = (int) Math.min(size, (long) degreeOfParallelism * CHUNKS_PER_THREAD);
+		ExecutorCompletionService<ChunkResult<S>> completion = new ExecutorCompletionService<ChunkResult<S>>(pool);
+		// the futures in the order of the chunks
+		List<Future<ChunkResult<S>>> futures = new ArrayList<Future<ChunkResult<S>>>(chunkCount);
+		// the results in the order in which the chunks finished
+		List<ChunkResult<S>> results = new ArrayList<ChunkResult<S>>(chunkCount);
+
+		// the chunks from endChunk on lie behind the end of the sequence
+		int endChunk = chunkCount;
+		// the first chunk which failed (only relevant if it lies before endChunk)
+		int failedChunk = chunkCount;
+		ExecutionException failure = null;
+		int running = 0;
+
+		try {
+			while (true) {
+				// keep degreeOfParallelism chunks running
+				while (futures.size() < endChunk && running < degreeOfParallelism) {
+					final int chunk = futures.size();
+					final int from = (int) ((long) size * chunk / chunkCount);
+					final int to = (int) ((long) size * (chunk + 1) / chunkCount);
+
+					futures.add(completion.submit(() -> {
+						S sink = sinkFactory.get();
+						Sink<TSource> head = pipeline.wrap(sink);
+						// the sinks only reject an element if the sequence ends
+						boolean ended = false;
+						for (int i = from; i < to && !ended; i++)
+							ended = !head.accept(elements.get(i));
+						return new ChunkResult<S>(chunk, sink, ended);
+					}));
+					running++;
+				}
+
+				if (running == 0)
+					break;
+
+				Future<ChunkResult<S>> future = completion.take();
+				running--;
+				int chunk = futures.indexOf(future);
+				if (chunk >= endChunk)
+					// discarded
+					continue;
+
+				try {
+					ChunkResult<S> result = future.get();
+					results.add(result);
+					if (!result.ended)
+						continue;
+				} catch (ExecutionException e) {
+					failedChunk = chunk;
+					failure = e;
+				}
+
+				// the following chunks are not needed anymore
+				endChunk = chunk + 1;
+				for (int c = endChunk; c < futures.size(); c++)
+					futures.get(c).cancel(true);
+			}
+		} catch (InterruptedException e) {
+			cancelAll(futures);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("The parallel query has been interrupted.", e);
+		}
+
+		if (failedChunk < endChunk) {
+			if (failure.getCause() instanceof RuntimeException)
+				throw (RuntimeException) failure.getCause();
+			if (failure.getCause() instanceof Error)
+				throw (Error) failure.getCause();
+			throw new IllegalStateException(failure.getCause());
+		}
+
+		if (inOrder)
+			results.sort((r1, r2) -> Integer.compare(r1.chunk, r2.chunk));
+		for (ChunkResult<S> result : results)
+			if (result.chunk < endChunk)
+				consumer.accept(result.sink);
+	}
+
+	private static void cancelAll(List<? extends Future<?>> futures) {
+		for (Future<?> future : futures)
+			future.cancel(true);
+	}
+
+	/**
+	 * Return the source as list with random access so that it can be split into chunks
+	 */
+	@SuppressWarnings("unchecked")
+	private List<TSource> sourceList() {
+		if (source instanceof List && source instanceof RandomAccess)
+			return (List<TSource>) source;
+
+		List<TSource> list = new ArrayList<TSource>();
+		for (TSource element : source)
+			list.add(element);
+		return list;
+	}
+
+	/**
+	 * Creates the sink of a stage which passes its results to the given sink
+	 */
+	interface Pipeline<TIn, TOut> {
+		Sink<TIn> wrap(Sink<TOut> sink);
+	}
+
+	static class ChunkResult<S> {
+		int chunk;
+		S sink;
+		// indicates if the sequence ended in this chunk
+		boolean ended;
+
+		public ChunkResult(int _chunk, S _sink, boolean _ended) {
+			chunk = _chunk;
+			sink = _sink;
+			ended = _ended;
+		}
+	}
+
+	/**
+	 * Counts and (optionally) collects the elements of a chunk
+	 */
+	static class CollectingSink<T> implements Sink<T> {
+		boolean collect;
+		List<T> elements = new ArrayList<T>();
+		int count = 0;
+
+		public CollectingSink(boolean _collect) {
+			collect = _collect;
+		}
+
+		@Override
+		public boolean accept(T element) {
+			if (collect)
+				elements.add(element);
+			count++;
+			return true;
+		}
+	}
+
+	/**
+	 * Groups the elements of a chunk into one table per key partition
+	 */
+	static class GroupingSink<T> implements Sink<T> {
+		GroupFunction<T> func;
+		List<HashMap<GroupKey, ParallelGroup<T>>> tables;
+		int position = 0;
+
+		public GroupingSink(GroupFunction<T> _func, int partitionCount) {
+			func = _func;
+			tables = new ArrayList<HashMap<GroupKey, ParallelGroup<T>>>(Collections.nCopies(partitionCount, null));
+		}
+
+		@Override
+		public boolean accept(T element) {
+			GroupKey gk = func.getKeyFor(element);
+			int partition = partitionOf(gk, tables.size());
+
+			HashMap<GroupKey, ParallelGroup<T>> table = tables.get(partition);
+			if (table == null) {
+				table = new HashMap<GroupKey, ParallelGroup<T>>();
+				tables.set(partition, table);
+			}
+
+			ParallelGroup<T> els = table.get(gk);
+			if (els == null) {
+				els = new ParallelGroup<T>(gk, position);
+				table.put(gk, els);
+			}
+			els.add(element);
+			position++;
+			return true;
+		}
+
+		/**
+		 * Return the partition of the given key
+		 * (uses the high bits of the hash, the tables use the low bits)
+		 */
+		static int partitionOf(GroupKey key, int partitionCount) {
+			if (key == null)
+				return 0;
+			return (int) (((key.hashCode() & 0xFFFFFFFFL) * partitionCount) >>> 32);
+		}
+	}
+
+	/**
+	 * A group which knows where its key occurred first
+	 */
+	static class ParallelGroup<T> extends GroupImpl<T> {
+		private static final long serialVersionUID = 1L;
+
+		int chunk;
+		int position;
+
+		public ParallelGroup(GroupKey _key, int _position) {
+			super(_key);
+			position = _position;
+		}
+	}
+
+	/**
+	 * Finds the first maximum (sign = 1) or minimum (sign = -1) of a chunk
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	static class ExtremeSink<T> implements Sink<T> {
+		int sign;
+		String valueName;
+		T value;
+		boolean hasValue = false;
+
+		public ExtremeSink(int _sign, String _valueName) {
+			sign = _sign;
+			valueName = _valueName;
+		}
+
+		@Override
+		public boolean accept(T element) {
+			if (!(element instanceof Comparable)) {
+				throw new RuntimeException("The " + valueName + "value for the list element '" + element
+						+ "' does not implement the Comparable interface.");
+			}
+
+			if (!hasValue || Integer.signum(((Comparable) element).compareTo(value)) == sign) {
+				value = element;
+				hasValue = true;
+			}
+			return true;
+		}
+	}
+}
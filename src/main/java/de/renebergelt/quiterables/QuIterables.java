@@ -154,6 +154,36 @@ public class QuIterables {
 	 */
 	public static Queriable<Character> query(char[] array) {
 		return new QueriableImpl<Character>(new CharArrayIterable(array));
+	}
+	
+	/**
+	 * Return a primitive int queriable which wraps the given primitive-type int-array
+	 * (in contrast to query(int[]) the values are not boxed when being queried)
+	 * @param array array to query
+	 * @return IntQueriable object
+	 */
+	public static IntQueriable queryIntArray(int[] array) {
+		return new IntQueriableImpl(new IntArrayIterable(array));
+	}
+	
+	/**
+	 * Return a primitive long queriable which wraps the given primitive-type long-array
+	 * (in contrast to query(long[]) the values are not boxed when being queried)
+	 * @param array array to query
+	 * @return LongQueriable object
+	 */
+	public static LongQueriable queryLongArray(long[] array) {
+		return new LongQueriableImpl(new LongArrayIterable(array));
+	}
+	
+	/**
+	 * Return a primitive double queriable which wraps the given primitive-type double-array
+	 * (in contrast to query(double[]) the values are not boxed when being queried)
+	 * @param array array to query
+	 * @return DoubleQueriable object
+	 */
+	public static DoubleQueriable queryDoubleArray(double[] array) {
+		return new DoubleQueriableImpl(new DoubleArrayIterable(array));
 	}	
 	
 	/**
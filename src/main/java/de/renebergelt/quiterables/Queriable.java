@@ -25,9 +25,19 @@
  *******************************************************************************/
 package de.renebergelt.quiterables;
 
+import java.io.File;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
 
+import org.reactivestreams.Publisher;
+
+import de.renebergelt.quiterables.grouping.GroupedList;
 import de.renebergelt.quiterables.grouping.GroupedQueriable;
 import de.renebergelt.quiterables.grouping.GroupFunction;
 import de.renebergelt.quiterables.grouping.SingleKeyGroupFunction;
@@ -345,6 +355,43 @@ public interface Queriable<T> extends Iterable<T> {
 	 * @return A queriable sequence of the transformed elements
      */	
 	public <TOut> Queriable<TOut> select(Selector<T, TOut> selector);
+
+	/**
+	 * Transforms each element of the enumeration using a selector which is run concurrently
+	 * on virtual threads (or on a cached thread pool, if the JVM does not support them).
+	 * The results are returned in the order of the source
+	 * (use this for selectors which block, e.g. for I/O)
+	 * @param selector The transformation function
+	 * @param maxConcurrency The maximum number of selector calls which run at the same time
+	 * @param <TOut> The target type of the selection
+	 * @return A queriable sequence of the transformed elements
+	 */
+	public <TOut> Queriable<TOut> selectAsync(Selector<T, TOut> selector, int maxConcurrency);
+
+	/**
+	 * Transforms each element of the enumeration using a selector which is run concurrently
+	 * on virtual threads (or on a cached thread pool, if the JVM does not support them)
+	 * @param selector The transformation function
+	 * @param maxConcurrency The maximum number of selector calls which run at the same time
+	 * @param preserveOrder If true, the results are returned in the order of the source,
+	 * otherwise in the order in which they are completed
+	 * @param <TOut> The target type of the selection
+	 * @return A queriable sequence of the transformed elements
+	 */
+	public <TOut> Queriable<TOut> selectAsync(Selector<T, TOut> selector, int maxConcurrency, boolean preserveOrder);
+
+	/**
+	 * Transforms each element of the enumeration using a selector which is run concurrently
+	 * by the given executor
+	 * @param selector The transformation function
+	 * @param maxConcurrency The maximum number of selector calls which run at the same time
+	 * @param preserveOrder If true, the results are returned in the order of the source,
+	 * otherwise in the order in which they are completed
+	 * @param executor The executor which runs the selector calls
+	 * @param <TOut> The target type of the selection
+	 * @return A queriable sequence of the transformed elements
+	 */
+	public <TOut> Queriable<TOut> selectAsync(Selector<T, TOut> selector, int maxConcurrency, boolean preserveOrder, Executor executor);
       
     /**
      * Transform each element of the enumeration into another enumeration and combine all results to a single list          
@@ -353,6 +400,30 @@ public interface Queriable<T> extends Iterable<T> {
 	 * @return A queriable sequence of the transformed elements
      */	
 	public <TOut> Queriable<TOut> selectMany(Selector<T, Iterable<TOut>> selector);
+	
+	/**
+	 * Transforms each element of the enumeration to a primitive int value
+	 * (the resulting sequence can be queried without boxing the values)
+	 * @param selector The transformation function
+	 * @return A queriable sequence of the int values
+	 */
+	public IntQueriable selectInt(ToIntFunction<T> selector);
+	
+	/**
+	 * Transforms each element of the enumeration to a primitive long value
+	 * (the resulting sequence can be queried without boxing the values)
+	 * @param selector The transformation function
+	 * @return A queriable sequence of the long values
+	 */
+	public LongQueriable selectLong(ToLongFunction<T> selector);
+	
+	/**
+	 * Transforms each element of the enumeration to a primitive double value
+	 * (the resulting sequence can be queried without boxing the values)
+	 * @param selector The transformation function
+	 * @return A queriable sequence of the double values
+	 */
+	public DoubleQueriable selectDouble(ToDoubleFunction<T> selector);
         
     /**
      * Cast each element of the enumeration to the given type and return an enumeration of this type     
@@ -454,6 +525,153 @@ public interface Queriable<T> extends Iterable<T> {
 	 * @return all elements of this sequence without duplicates
      */	
 	public Queriable<T> distinct(Equivalence<T> equalityComparer);	
+
+	/**
+	 * Returns an enumeration which contains the first element of this enumeration
+	 * for each distinct key returned by the key selector
+	 * (only the keys are kept in memory)
+	 * @param keySelector Function to retrieve the key of an element
+	 * @param <TKey> Type of the keys
+	 * @return all elements of this sequence without elements with duplicate keys
+	 */
+	public <TKey> Queriable<T> distinctBy(ItemFunc<T, TKey> keySelector);
+
+	/**
+	 * Return an enumeration which contains all elements of the current
+	 * enumeration and all elements of the enumeration given as argument
+	 * without elements with duplicate keys
+	 * @param toUnite Elements to unite with
+	 * @param keySelector Function to retrieve the key of an element
+	 * @param <TKey> Type of the keys
+	 * @return A queriable sequence which contains the union of this sequence and the given Iterable
+	 */
+	public <TKey> Queriable<T> unionBy(Iterable<T> toUnite, ItemFunc<T, TKey> keySelector);
+
+	/**
+	 * Returns an iterable which contains the elements of this enumeration
+	 * whose key is contained in the given keys
+	 * @param keys The keys to intersect with
+	 * @param keySelector Function to retrieve the key of an element
+	 * @param <TKey> Type of the keys
+	 * @return A queriable sequence which contains the elements whose key is contained in keys
+	 */
+	public <TKey> Queriable<T> intersectBy(Iterable<TKey> keys, ItemFunc<T, TKey> keySelector);
+
+	/**
+	 * Returns an iterable which contains the elements of this enumeration
+	 * whose key is not contained in the given keys
+	 * @param keys The keys to exclude
+	 * @param keySelector Function to retrieve the key of an element
+	 * @param <TKey> Type of the keys
+	 * @return A queriable sequence which contains the elements whose key is not contained in keys
+	 */
+	public <TKey> Queriable<T> exceptBy(Iterable<TKey> keys, ItemFunc<T, TKey> keySelector);
+
+	/**
+	 * Return the combination of the elements of this enumeration and the elements of
+	 * the inner enumeration which have matching keys (elements with a null key never match)
+	 * The inner enumeration is put into a hash table, so pass the smaller sequence as inner.
+	 * The result has the order of this enumeration.
+	 * @param inner The inner enumeration
+	 * @param outerKeySelector Function to retrieve the key of an element of this enumeration
+	 * @param innerKeySelector Function to retrieve the key of an element of the inner enumeration
+	 * @param resultSelector Function to combine two matching elements
+	 * @param <TInner> Type of the elements of the inner enumeration
+	 * @param <TKey> Type of the keys
+	 * @param <TResult> Type of the result elements
+	 * @return A queriable sequence of the combined elements
+	 */
+	public <TInner, TKey, TResult> Queriable<TResult> join(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<T, TInner, TResult> resultSelector);
+
+	/**
+	 * Combine each element of this enumeration with the group of all elements of
+	 * the inner enumeration which have a matching key (the group may be empty)
+	 * The inner enumeration is put into a hash table.
+	 * @param inner The inner enumeration
+	 * @param outerKeySelector Function to retrieve the key of an element of this enumeration
+	 * @param innerKeySelector Function to retrieve the key of an element of the inner enumeration
+	 * @param resultSelector Function to combine an element with its group of matching inner elements
+	 * @param <TInner> Type of the elements of the inner enumeration
+	 * @param <TKey> Type of the keys
+	 * @param <TResult> Type of the result elements
+	 * @return A queriable sequence of the combined elements
+	 */
+	public <TInner, TKey, TResult> Queriable<TResult> groupJoin(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<T, Queriable<TInner>, TResult> resultSelector);
+
+	/**
+	 * Return the combination of the elements of this enumeration and the elements of
+	 * the inner enumeration which have matching keys using a partitioned hash join which
+	 * is executed in parallel in the common ForkJoinPool
+	 * (the result has the order of this enumeration, as with join)
+	 * @param inner The inner enumeration
+	 * @param outerKeySelector Function to retrieve the key of an element of this enumeration
+	 * @param innerKeySelector Function to retrieve the key of an element of the inner enumeration
+	 * @param resultSelector Function to combine two matching elements (has to be thread-safe)
+	 * @param <TInner> Type of the elements of the inner enumeration
+	 * @param <TKey> Type of the keys
+	 * @param <TResult> Type of the result elements
+	 * @return A queriable sequence of the combined elements
+	 */
+	public <TInner, TKey, TResult> Queriable<TResult> parallelJoin(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<T, TInner, TResult> resultSelector);
+
+	/**
+	 * Return the combination of the elements of this enumeration and the elements of
+	 * the inner enumeration which have matching keys using a partitioned hash join which
+	 * is executed in parallel in the given ForkJoinPool
+	 * @param inner The inner enumeration
+	 * @param outerKeySelector Function to retrieve the key of an element of this enumeration
+	 * @param innerKeySelector Function to retrieve the key of an element of the inner enumeration
+	 * @param resultSelector Function to combine two matching elements (has to be thread-safe)
+	 * @param pool The pool to execute the join in
+	 * @param preserveOrder If true, the result has the order of this enumeration, otherwise the results are grouped by partition
+	 * @param <TInner> Type of the elements of the inner enumeration
+	 * @param <TKey> Type of the keys
+	 * @param <TResult> Type of the result elements
+	 * @return A queriable sequence of the combined elements
+	 */
+	public <TInner, TKey, TResult> Queriable<TResult> parallelJoin(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<T, TInner, TResult> resultSelector, ForkJoinPool pool, boolean preserveOrder);
+
+	/**
+	 * Return a parallel query on the elements of this enumeration which is executed
+	 * by the common ForkJoinPool
+	 * @return The parallel queriable
+	 */
+	public ParallelQueriable<T> asParallel();
+
+	/**
+	 * Return a parallel query on the elements of this enumeration which is executed
+	 * by the given pool
+	 * @param pool The pool which executes the query
+	 * @param degreeOfParallelism The maximum number of chunks which are processed at the same time
+	 * @return The parallel queriable
+	 */
+	public ParallelQueriable<T> asParallel(ForkJoinPool pool, int degreeOfParallelism);
+
+	/**
+	 * Return a sequential java.util.stream.Stream of the elements of this enumeration
+	 * (in contrast to the iterator, null elements do not end the stream)
+	 * @return The stream
+	 */
+	public Stream<T> stream();
+
+	/**
+	 * Return a parallel java.util.stream.Stream of the elements of this enumeration
+	 * (sources with a known size, like lists and arrays, are split evenly)
+	 * @return The parallel stream
+	 */
+	public Stream<T> parallelStream();
+
+	/**
+	 * Return a Reactive Streams publisher of the elements of this enumeration
+	 * (each subscription enumerates the elements anew and only retrieves as many elements
+	 * as have been requested by the subscriber. Requires the org.reactivestreams library)
+	 * @return The publisher
+	 */
+	public Publisher<T> toPublisher();
 	
 	/**
 	 * Take the given amount of elements from the enumeration or
@@ -496,6 +714,53 @@ public interface Queriable<T> extends Iterable<T> {
 	 */
 	public GroupedQueriable<T> group(GroupFunction<T> func);	
 	
+	/**
+	 * Groups the elements of the enumeration according to the given grouping function
+	 * and stores the groups compactly: all elements are kept in a single array ordered by group
+	 * and the groups are read-only views on this array
+	 * (use this instead of group() for a large number of small groups)
+	 * @param func Function to group elements by
+	 * @return The grouped elements
+	 */
+	public GroupedQueriable<T> groupCompact(GroupFunction<T> func);
+
+	/**
+	 * Groups runs of consecutive elements which have the same group key
+	 * (Only the current run is kept in memory. If the enumeration is ordered by the group key,
+	 * e.g. by orderBy, the result contains the same groups as group() in the order of the keys.
+	 * Otherwise a key is returned once for every run.)
+	 * @param func Function to group elements by
+	 * @return The grouped elements
+	 */
+	public GroupedQueriable<T> groupAdjacent(GroupFunction<T> func);
+
+	/**
+	 * Groups the elements of the enumeration according to the given grouping function
+	 * with a limited number of elements in memory:
+	 * If there are more than maxElementsInMemory elements, the elements are distributed to temporary
+	 * files by the hash of their group key and these partitions are grouped one after another while
+	 * the result is iterated (the groups of the current partition are kept in memory)
+	 * @param func Function to group elements by
+	 * @param serializer The serializer used to write the elements to the temporary files
+	 * @param maxElementsInMemory The maximum number of elements which are grouped in memory at once
+	 * @return The grouped elements
+	 */
+	public GroupedQueriable<T> groupSpilling(GroupFunction<T> func, ElementSerializer<T> serializer, int maxElementsInMemory);
+
+	/**
+	 * Groups the elements of the enumeration according to the given grouping function
+	 * with a limited number of elements in memory:
+	 * If there are more than maxElementsInMemory elements, the elements are distributed to temporary
+	 * files by the hash of their group key and these partitions are grouped one after another while
+	 * the result is iterated (the groups of the current partition are kept in memory)
+	 * @param func Function to group elements by
+	 * @param serializer The serializer used to write the elements to the temporary files
+	 * @param maxElementsInMemory The maximum number of elements which are grouped in memory at once
+	 * @param directory The directory for the temporary files
+	 * @return The grouped elements
+	 */
+	public GroupedQueriable<T> groupSpilling(GroupFunction<T> func, ElementSerializer<T> serializer, int maxElementsInMemory, File directory);
+
 	 /**
 	  * Groups the elements of the enumeration according to the given grouping function
 	  * (Convenience function for grouping with only one group key element)
@@ -503,6 +768,69 @@ public interface Queriable<T> extends Iterable<T> {
 	  * @return The grouped elements
       */
 	public GroupedQueriable<T> groupSingle(SingleKeyGroupFunction<T> func);	
+
+	/**
+	 * Group the elements of this enumeration by a single key and return the groups
+	 * as list which is indexed by the group key
+	 * (get(key) of the returned list takes constant time)
+	 * @param func Function which returns the key element for an element
+	 * @return The groups indexed by their key
+	 */
+	public GroupedList<T> toLookup(SingleKeyGroupFunction<T> func);
+
+	/**
+	 * Aggregate the elements of this enumeration per key without materializing the groups
+	 * (only one accumulator is kept per key, the map contains the keys in the order of their first occurrence)
+	 * @param keyFunc Function which returns the key of an element
+	 * @param aggregator The aggregator which is applied to the elements of each key
+	 * @param <TKey> Type of the keys
+	 * @param <TAcc> Type of the accumulator
+	 * @param <TResult> Type of the aggregation result
+	 * @return Map of the aggregation result per key
+	 */
+	public <TKey, TAcc, TResult> Map<TKey, TResult> groupAggregate(ItemFunc<T, TKey> keyFunc, Aggregator<? super T, TAcc, TResult> aggregator);
+
+	/**
+	 * Count the elements of this enumeration per key
+	 * (the map contains the keys in the order of their first occurrence)
+	 * @param keyFunc Function which returns the key of an element
+	 * @param <TKey> Type of the keys
+	 * @return Map of the number of elements per key
+	 */
+	public <TKey> Map<TKey, Integer> countBy(ItemFunc<T, TKey> keyFunc);
+
+	/**
+	 * Sum up the long values of the elements of this enumeration per key
+	 * (the map contains the keys in the order of their first occurrence)
+	 * @param keyFunc Function which returns the key of an element
+	 * @param valueFunc Function which returns the value of an element
+	 * @param <TKey> Type of the keys
+	 * @return Map of the sum per key
+	 */
+	public <TKey> Map<TKey, Long> sumLongBy(ItemFunc<T, TKey> keyFunc, ToLongFunction<? super T> valueFunc);
+
+	/**
+	 * Sum up the double values of the elements of this enumeration per key
+	 * (the map contains the keys in the order of their first occurrence)
+	 * @param keyFunc Function which returns the key of an element
+	 * @param valueFunc Function which returns the value of an element
+	 * @param <TKey> Type of the keys
+	 * @return Map of the sum per key
+	 */
+	public <TKey> Map<TKey, Double> sumDoubleBy(ItemFunc<T, TKey> keyFunc, ToDoubleFunction<? super T> valueFunc);
+
+	/**
+	 * Aggregate runs of consecutive elements which have the same key
+	 * (Neither the elements nor the results are kept in memory, only the accumulator of the
+	 * current run. If the enumeration is ordered by the key the result contains one entry per key.)
+	 * @param keyFunc Function which returns the key of an element
+	 * @param aggregator The aggregator which is applied to the elements of each run
+	 * @param <TKey> Type of the keys
+	 * @param <TAcc> Type of the accumulator
+	 * @param <TResult> Type of the aggregation result
+	 * @return The key and aggregation result of each run
+	 */
+	public <TKey, TAcc, TResult> Queriable<Map.Entry<TKey, TResult>> groupAdjacentAggregate(ItemFunc<T, TKey> keyFunc, Aggregator<? super T, TAcc, TResult> aggregator);
 	
 	/**
 	 * Order the elements of this enumeration according to	the values
@@ -539,6 +867,41 @@ public interface Queriable<T> extends Iterable<T> {
 	 * @return The ordered elements
 	 */
 	public <TComparable> OrderedQueriable<T> orderByDescending(ItemFunc<T, TComparable> valueFunc, Comparator<TComparable> comparator);
+
+	/**
+	 * Order the elements of this enumeration according to the primitive long
+	 * keys returned by the key function
+	 * (if only primitive keys are used, the elements are sorted using a radix sort
+	 * which does not compare or box the keys)
+	 * @param keyFunc Function to retrieve the key of an element
+	 * @return The ordered elements
+	 */
+	public OrderedQueriable<T> orderByLong(ToLongFunction<T> keyFunc);
+
+	/**
+	 * Order the elements of this enumeration according to the primitive long
+	 * keys returned by the key function in descending order
+	 * @param keyFunc Function to retrieve the key of an element
+	 * @return The ordered elements
+	 */
+	public OrderedQueriable<T> orderByLongDescending(ToLongFunction<T> keyFunc);
+
+	/**
+	 * Order the elements of this enumeration according to the primitive double
+	 * keys returned by the key function
+	 * (the keys are ordered like Double.compare does)
+	 * @param keyFunc Function to retrieve the key of an element
+	 * @return The ordered elements
+	 */
+	public OrderedQueriable<T> orderByDouble(ToDoubleFunction<T> keyFunc);
+
+	/**
+	 * Order the elements of this enumeration according to the primitive double
+	 * keys returned by the key function in descending order
+	 * @param keyFunc Function to retrieve the key of an element
+	 * @return The ordered elements
+	 */
+	public OrderedQueriable<T> orderByDoubleDescending(ToDoubleFunction<T> keyFunc);
 	
 	/**
 	 * Reverse the order of elements of this enumeration
@@ -25,9 +25,20 @@
  *******************************************************************************/
 package de.renebergelt.quiterables;
 
+import java.io.File;
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.reactivestreams.Publisher;
 
 import de.renebergelt.quiterables.grouping.Group;
 import de.renebergelt.quiterables.grouping.GroupFunction;
@@ -35,14 +46,31 @@ import de.renebergelt.quiterables.grouping.GroupKey;
 import de.renebergelt.quiterables.grouping.GroupedList;
 import de.renebergelt.quiterables.grouping.GroupedQueriable;
 import de.renebergelt.quiterables.grouping.SingleKeyGroupFunction;
-import de.renebergelt.quiterables.iterators.LazySkipIterable;
-import de.renebergelt.quiterables.iterators.LazyTakeIterable;
-import de.renebergelt.quiterables.iterators.LazyWhereIterable;
+import de.renebergelt.quiterables.iterators.IterablePublisher;
+import de.renebergelt.quiterables.iterators.LazyFusedIterable;
+import de.renebergelt.quiterables.iterators.LazyOrderIterable;
+import de.renebergelt.quiterables.iterators.LazySelectAsyncIterable;
+import de.renebergelt.quiterables.iterators.PushIterables;
+import de.renebergelt.quiterables.iterators.Sink;
 import de.renebergelt.quiterables.iterators.ListReverseIterable;
+import de.renebergelt.quiterables.iterators.LazyAggregateAdjacentIterable;
 import de.renebergelt.quiterables.iterators.LazyConcatIterable;
+import de.renebergelt.quiterables.iterators.LazyDefaultIfEmptyIterable;
+import de.renebergelt.quiterables.iterators.LazyDeferredIterable;
+import de.renebergelt.quiterables.iterators.LazyDistinctByIterable;
 import de.renebergelt.quiterables.iterators.LazyDistinctIterable;
-import de.renebergelt.quiterables.iterators.LazySelectIterable;
+import de.renebergelt.quiterables.iterators.LazyExceptIterable;
+import de.renebergelt.quiterables.iterators.LazyIntersectByIterable;
+import de.renebergelt.quiterables.iterators.LazyIntersectIterable;
+import de.renebergelt.quiterables.iterators.LazyGroupAdjacentIterable;
+import de.renebergelt.quiterables.iterators.LazyGroupJoinIterable;
+import de.renebergelt.quiterables.iterators.LazyJoinIterable;
+import de.renebergelt.quiterables.iterators.LazyParallelJoinIterable;
 import de.renebergelt.quiterables.iterators.LazySelectManyIterable;
+import de.renebergelt.quiterables.iterators.LazySpillingGroupIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazySelectToDoubleIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazySelectToIntIterable;
+import de.renebergelt.quiterables.iterators.primitivetypes.LazySelectToLongIterable;
 
 /**
  * Actual Queriable<T> implementation used in this library and which is returned
@@ -92,9 +120,8 @@ class QueriableImpl<T> implements Queriable<T> {
 
 	@Override
 	public List<T> toList() {
-		ArrayList<T> list = new ArrayList<T>();
-		for(T element: containedIter)
-			list.add(element);		
+		final ArrayList<T> list = new ArrayList<T>();
+		PushIterables.push(containedIter, element -> list.add(element));
 		return list;		
 	}
 
@@ -149,13 +176,7 @@ class QueriableImpl<T> implements Queriable<T> {
 	
 	@Override
 	public Queriable<T> defaultIfEmpty(T defaultValue) {
-		if (isEmpty()) {
-			List<T> list = new ArrayList<T>();
-			list.add(defaultValue);
-			return Query.list(list);
-		}
-		
-		return this;
+		return Query.iterable(new LazyDefaultIfEmptyIterable<T>(containedIter, defaultValue));
 	}
 	
 	@Override
@@ -198,7 +219,7 @@ class QueriableImpl<T> implements Queriable<T> {
 	public Queriable<T> where(Predicate<T> predicate) {
 		throwIfArgumentIsNull(predicate);
 		
-		return Query.iterable(new LazyWhereIterable<T>(containedIter, predicate));
+		return Query.iterable(LazyFusedIterable.where(containedIter, predicate));
 	}
 	
 	@Override
@@ -242,48 +263,28 @@ class QueriableImpl<T> implements Queriable<T> {
 	public boolean all(Predicate<T> predicate) {
 		throwIfArgumentIsNull(predicate);
 		
-		for (T item : containedIter) {
-			if (!predicate.evaluate(item)) {
-				return false;
-			}
-		}
-
-		return true;
+		// the enumeration stops at the first element which does not satisfy the predicate
+		return PushIterables.push(containedIter, item -> predicate.evaluate(item));
 	}
 
 	@Override
 	public boolean exists(Predicate<T> predicate) {
 		throwIfArgumentIsNull(predicate);
 		
-		for (T item : containedIter) {
-			if (predicate.evaluate(item)) {
-				return true;
-			}
-		}
-
-		return false;
+		// the enumeration stops at the first element which satisfies the predicate
+		return !PushIterables.push(containedIter, item -> !predicate.evaluate(item));
 	}
 	
 	public boolean contains(T element) {
 		throwIfArgumentIsNull(element);
 		
-		for(T item: this) {
-			if (item.equals(element))
-				return true;
-		}
-			
-		return false;
+		return !PushIterables.push(containedIter, item -> !item.equals(element));
 	}
 	
 	public boolean contains(final T element, Equivalence<T> equalityComparer) {
 		throwIfArgumentIsNull(element, equalityComparer);
 		
-		for(final T item: this) {
-			if (equalityComparer.areEqual(element, item))
-				return true;
-		}
-			
-		return false;
+		return !PushIterables.push(containedIter, item -> !equalityComparer.areEqual(element, item));
 	}
 
 	@Override
@@ -314,13 +315,16 @@ class QueriableImpl<T> implements Queriable<T> {
 	public T firstOrDefault(Predicate<T> predicate) {
 		throwIfArgumentIsNull(predicate);
 		
-		for (T item : containedIter) {
+		final List<T> result = new ArrayList<T>(1);
+		PushIterables.push(containedIter, item -> {
 			if (predicate.evaluate(item)) {
-				return item;
+				result.add(item);
+				return false;
 			}
-		}
+			return true;
+		});
 
-		return null;
+		return result.isEmpty() ? null : result.get(0);
 	}
 	
 	public T firstOrDefault(Predicate<T> predicate, T defaultValue) {
@@ -412,30 +416,29 @@ class QueriableImpl<T> implements Queriable<T> {
 			return ((Collection<T>)containedIter).size();
 		}				
 		
-		int c = 0;		
-		for (Iterator<T> it = containedIter.iterator(); it.hasNext(); it.next())
-			c++;
-		return c;
+		final int[] c = new int[1];
+		PushIterables.push(containedIter, element -> {
+			c[0]++;
+			return true;
+		});
+		return c[0];
 	}
 
 	@Override
 	public int count(Predicate<T> predicate) {
 		throwIfArgumentIsNull(predicate);
 		
-		int c = 0;
-		for (T element : containedIter)
+		final int[] c = new int[1];
+		PushIterables.push(containedIter, element -> {
 			if (predicate.evaluate(element))
-				c++;
-
-		return c;
+				c[0]++;
+			return true;
+		});
+		return c[0];
 	}
 
 	@Override
 	public T max() {						
-		if (isEmpty())
-			// the enumeration is empty
-			throw new IllegalStateException("The iteration has no elements.");
-		
 		T max = null;
 		
 		for (T item : containedIter) {
@@ -453,6 +456,10 @@ class QueriableImpl<T> implements Queriable<T> {
 			}
 		}
 
+		if (max == null)
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
 		return max;
 	}
 	
@@ -460,10 +467,6 @@ class QueriableImpl<T> implements Queriable<T> {
 	public Number max(NumberFunc<T> valFunc) {
 		throwIfArgumentIsNull(valFunc);
 		
-		if (isEmpty())
-			// the enumeration is empty
-			throw new IllegalStateException("The iteration has no elements.");
-
 		Number max = null;		
 		
 		for (T item : containedIter) {
@@ -482,15 +485,15 @@ class QueriableImpl<T> implements Queriable<T> {
 			}
 		}
 
+		if (max == null)
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
 		return max;
 	}
 	
 	@Override
 	public T min() {						
-		if (isEmpty())
-			// the enumeration is empty
-			throw new IllegalStateException("The iteration has no elements.");
-		
 		T min = null;
 
 		for (T item : containedIter) {
@@ -506,6 +509,10 @@ class QueriableImpl<T> implements Queriable<T> {
 			}
 		}
 
+		if (min == null)
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
 		return min;
 	}
 
@@ -513,10 +520,6 @@ class QueriableImpl<T> implements Queriable<T> {
 	public Number min(NumberFunc<T> valFunc) {
 		throwIfArgumentIsNull(valFunc);		
 		
-		if (isEmpty())
-			// the enumeration is empty
-			throw new IllegalStateException("The iteration has no elements.");
-		
 		Number min = null;
 
 		for (T item : containedIter) {
@@ -534,6 +537,10 @@ class QueriableImpl<T> implements Queriable<T> {
 			}
 		}
 
+		if (min == null)
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
 		return min;
 	}
 	
@@ -546,10 +553,6 @@ class QueriableImpl<T> implements Queriable<T> {
 	public Number average(NumberFunc<T> valFunc) {
 		throwIfArgumentIsNull(valFunc);
 		
-		if (isEmpty())
-			// the enumeration is empty
-			throw new IllegalStateException("The iteration has no elements.");
-		
 		Double avg = null;
 		int count = 0;
 
@@ -565,6 +568,10 @@ class QueriableImpl<T> implements Queriable<T> {
 			count++;
 		}
 
+		if (avg == null)
+			// the enumeration is empty
+			throw new IllegalStateException("The iteration has no elements.");
+
 		return avg;
 	}
 
@@ -577,37 +584,34 @@ class QueriableImpl<T> implements Queriable<T> {
 	public Number sum(NumberFunc<T> valFunc) {
 		throwIfArgumentIsNull(valFunc);				
 		
-		Number sum = null;
-		for (T item : containedIter) {
-
-			//
-			Number c = valFunc.getValue(item);
-
-			if (sum == null) {
-				sum = c;
-			} else {
-				// this only works if the valFunc always returns the same type
-				// of number (i.e. only Integer, only Double, etc.)
-				if (c instanceof Integer) {
-					sum = ((Integer) sum) + (Integer) c;
-				} else if (c instanceof Double) {
-					sum = ((Double) sum) + (Double) c;
-				} else {
-					// fallback
-					sum = sum.doubleValue() + c.doubleValue();
-				}
-			}
+		SumSink<T> sink = new SumSink<T>(valFunc);
+		PushIterables.push(containedIter, sink);
 
-		}
-
-		return sum == null ? 0 : sum;
+		return sink.sum == null ? 0 : sink.sum;
 	}
 
 	@Override
 	public <TOut> Queriable<TOut> select(Selector<T, TOut> selector) {
 		throwIfArgumentIsNull(selector);
 		
-		return new QueriableImpl<TOut>(new LazySelectIterable<T, TOut>(containedIter, selector));
+		return new QueriableImpl<TOut>(LazyFusedIterable.select(containedIter, selector));
+	}
+
+	@Override
+	public <TOut> Queriable<TOut> selectAsync(Selector<T, TOut> selector, int maxConcurrency) {
+		return selectAsync(selector, maxConcurrency, true);
+	}
+
+	@Override
+	public <TOut> Queriable<TOut> selectAsync(Selector<T, TOut> selector, int maxConcurrency, boolean preserveOrder) {
+		return selectAsync(selector, maxConcurrency, preserveOrder, LazySelectAsyncIterable.defaultExecutor());
+	}
+
+	@Override
+	public <TOut> Queriable<TOut> selectAsync(Selector<T, TOut> selector, int maxConcurrency, boolean preserveOrder, Executor executor) {
+		throwIfArgumentIsNull(selector, executor);
+
+		return new QueriableImpl<TOut>(new LazySelectAsyncIterable<T, TOut>(containedIter, selector, maxConcurrency, preserveOrder, executor));
 	}
 
 	@Override
@@ -617,13 +621,34 @@ class QueriableImpl<T> implements Queriable<T> {
 		return new QueriableImpl<TOut>(new LazySelectManyIterable<T, TOut>(containedIter, selector));
 	}
 
+	@Override
+	public IntQueriable selectInt(ToIntFunction<T> selector) {
+		throwIfArgumentIsNull(selector);
+		
+		return new IntQueriableImpl(new LazySelectToIntIterable<T>(containedIter, selector));
+	}
+	
+	@Override
+	public LongQueriable selectLong(ToLongFunction<T> selector) {
+		throwIfArgumentIsNull(selector);
+		
+		return new LongQueriableImpl(new LazySelectToLongIterable<T>(containedIter, selector));
+	}
+	
+	@Override
+	public DoubleQueriable selectDouble(ToDoubleFunction<T> selector) {
+		throwIfArgumentIsNull(selector);
+		
+		return new DoubleQueriableImpl(new LazySelectToDoubleIterable<T>(containedIter, selector));
+	}
+
 	@SuppressWarnings({ "unchecked" })
 	@Override
 	public <TOut> Queriable<TOut> cast(Class<TOut> targetType) {
 		throwIfArgumentIsNull(targetType);
 		
 		// use select with a selector which casts the elements
-		return Query.iterable(new LazySelectIterable<T, TOut>(containedIter, 
+		return Query.iterable(LazyFusedIterable.select(containedIter, 
 			new Selector<T, TOut>() {
 			@Override
 			public TOut select(T item) {
@@ -671,77 +696,28 @@ class QueriableImpl<T> implements Queriable<T> {
 	public Queriable<T> intersect(Iterable<T> intersectWith) {
 		throwIfArgumentIsNull(intersectWith);
 		
-		// TODO: maybe also do this lazy
-		List<T> intersectList = Query.iterable(intersectWith).toList();
-		List<T> resultList = new ArrayList<T>();
-		
-		for(T element: this) {
-			if (intersectList.contains(element))
-				resultList.add(element);
-		}
-		
-		return Query.list(resultList);
+		return Query.iterable(new LazyIntersectIterable<T>(containedIter, intersectWith));
 	}
 	
 	@Override
 	public Queriable<T> intersect(Iterable<T> intersectWith, final Equivalence<T> equalityComparer) {
 		throwIfArgumentIsNull(intersectWith, equalityComparer);
 		
-		// TODO: maybe also do this lazy		
-		Queriable<T> intersectQueriable = Query.iterable(intersectWith);
-		List<T> resultList = new ArrayList<T>();
-		
-		for(final T element: this) {
-			if (intersectQueriable.exists(
-					new Predicate<T>() {
-						@Override
-						public boolean evaluate(T item) {
-							 return equalityComparer.areEqual(element, item);
-						}}
-					))
-				resultList.add(element);
-		}
-		
-		return Query.list(resultList);
+		return Query.iterable(new LazyIntersectIterable<T>(containedIter, intersectWith, equalityComparer));
 	}
 
 	@Override
 	public Queriable<T> except(Iterable<T> elementsToSubtract) {
 		throwIfArgumentIsNull(elementsToSubtract);
 		
-		// TODO: maybe also do this lazy
-		List<T> intersectList = Query.iterable(elementsToSubtract).toList();
-		List<T> resultList = new ArrayList<T>();
-		
-		for(T element: this) {
-			if (!intersectList.contains(element))
-				resultList.add(element);
-		}
-		
-		return Query.list(resultList);
+		return Query.iterable(new LazyExceptIterable<T>(containedIter, elementsToSubtract));
 	}
 	
 	@Override
 	public Queriable<T> except(Iterable<T> elementsToSubtract, final Equivalence<T> equalityComparer) {
 		throwIfArgumentIsNull(elementsToSubtract, equalityComparer);
 		
-		// TODO: maybe also do this lazy		
-		Queriable<T> intersectQueriable = Query.iterable(elementsToSubtract);
-		List<T> resultList = new ArrayList<T>();
-		
-		for(final T element: this) {
-			if (!intersectQueriable.exists(					
-					new Predicate<T>() {
-						@Override
-						public boolean evaluate(T item) {
-							return equalityComparer.areEqual(element, item);
-						}}
-					
-					))
-				resultList.add(element);
-		}
-		
-		return Query.list(resultList);
+		return Query.iterable(new LazyExceptIterable<T>(containedIter, elementsToSubtract, equalityComparer));
 	}
 	
 	@Override
@@ -756,27 +732,113 @@ class QueriableImpl<T> implements Queriable<T> {
 		return Query.iterable(new LazyDistinctIterable<>(containedIter, equalityComparer));
 	}
 
+	@Override
+	public <TKey> Queriable<T> distinctBy(ItemFunc<T, TKey> keySelector) {
+		throwIfArgumentIsNull(keySelector);
+		
+		return Query.iterable(new LazyDistinctByIterable<T, TKey>(containedIter, keySelector));
+	}
+	
+	@Override
+	public <TKey> Queriable<T> unionBy(Iterable<T> toUnite, ItemFunc<T, TKey> keySelector) {
+		throwIfArgumentIsNull(toUnite, keySelector);
+		
+		return Query.iterable(new LazyDistinctByIterable<T, TKey>(new LazyConcatIterable<T>(containedIter, toUnite), keySelector));
+	}
+	
+	@Override
+	public <TKey> Queriable<T> intersectBy(Iterable<TKey> keys, ItemFunc<T, TKey> keySelector) {
+		throwIfArgumentIsNull(keys, keySelector);
+		
+		return Query.iterable(new LazyIntersectByIterable<T, TKey>(containedIter, keys, keySelector));
+	}
+	
+	@Override
+	public <TKey> Queriable<T> exceptBy(Iterable<TKey> keys, ItemFunc<T, TKey> keySelector) {
+		throwIfArgumentIsNull(keys, keySelector);
+		
+		return Query.iterable(new LazyIntersectByIterable<T, TKey>(containedIter, keys, keySelector, true));
+	}
+
+	@Override
+	public <TInner, TKey, TResult> Queriable<TResult> join(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<T, TInner, TResult> resultSelector) {
+		throwIfArgumentIsNull(inner, outerKeySelector, innerKeySelector, resultSelector);
+		
+		return Query.iterable(new LazyJoinIterable<T, TInner, TKey, TResult>(containedIter, inner, outerKeySelector, innerKeySelector, resultSelector));
+	}
+	
+	@Override
+	public <TInner, TKey, TResult> Queriable<TResult> groupJoin(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<T, Queriable<TInner>, TResult> resultSelector) {
+		throwIfArgumentIsNull(inner, outerKeySelector, innerKeySelector, resultSelector);
+		
+		return Query.iterable(new LazyGroupJoinIterable<T, TInner, TKey, TResult>(containedIter, inner, outerKeySelector, innerKeySelector, resultSelector));
+	}
+
+	@Override
+	public <TInner, TKey, TResult> Queriable<TResult> parallelJoin(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<T, TInner, TResult> resultSelector) {
+		return parallelJoin(inner, outerKeySelector, innerKeySelector, resultSelector, ForkJoinPool.commonPool(), true);
+	}
+	
+	@Override
+	public <TInner, TKey, TResult> Queriable<TResult> parallelJoin(Iterable<TInner> inner, ItemFunc<T, TKey> outerKeySelector,
+			ItemFunc<TInner, TKey> innerKeySelector, JoinSelector<T, TInner, TResult> resultSelector, ForkJoinPool pool, boolean preserveOrder) {
+		throwIfArgumentIsNull(inner, outerKeySelector, innerKeySelector, resultSelector, pool);
+		
+		return Query.iterable(new LazyParallelJoinIterable<T, TInner, TKey, TResult>(containedIter, inner, outerKeySelector, innerKeySelector, resultSelector, pool, preserveOrder));
+	}
+
+	@Override
+	public ParallelQueriable<T> asParallel() {
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		return asParallel(pool, pool.getParallelism());
+	}
+
+	@Override
+	public ParallelQueriable<T> asParallel(ForkJoinPool pool, int degreeOfParallelism) {
+		throwIfArgumentIsNull(pool);
+
+		return ParallelQueriableImpl.of(containedIter, pool, degreeOfParallelism);
+	}
+
+	@Override
+	public Stream<T> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	@Override
+	public Stream<T> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	@Override
+	public Publisher<T> toPublisher() {
+		return IterablePublisher.of(containedIter);
+	}
+
 	@Override
 	public Queriable<T> take(int amount) {
-		return Query.iterable(new LazyTakeIterable<T>(containedIter, amount));
+		return Query.iterable(LazyFusedIterable.take(containedIter, amount));
 	}
 
 	@Override
 	public Queriable<T> takeWhile(Predicate<T> condition) {
 		throwIfArgumentIsNull(condition);
 		
-		return Query.iterable(new LazyTakeIterable<T>(containedIter, condition));
+		return Query.iterable(LazyFusedIterable.takeWhile(containedIter, condition));
 	}
 
 	@Override
 	public Queriable<T> skip(int amount) {
-		return Query.iterable(new LazySkipIterable<T>(containedIter, amount));
+		return Query.iterable(LazyFusedIterable.skip(containedIter, amount));
 	}
 
 	public Queriable<T> skipWhile(Predicate<T> condition) {
 		throwIfArgumentIsNull(condition);
 		
-		return Query.iterable(new LazySkipIterable<T>(containedIter, condition));
+		return Query.iterable(LazyFusedIterable.skipWhile(containedIter, condition));
 	}
 
 	@Override
@@ -806,6 +868,34 @@ class QueriableImpl<T> implements Queriable<T> {
 				
 		return new OrderedQueriableImpl<T>(containedIter, valueFunc, comparator, SortOrder.Descending);
 	}		
+
+	@Override
+	public OrderedQueriable<T> orderByLong(ToLongFunction<T> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		return new OrderedQueriableImpl<T>(new LazyOrderIterable<T, Long>(containedIter, keyFunc, SortOrder.Ascending));
+	}
+
+	@Override
+	public OrderedQueriable<T> orderByLongDescending(ToLongFunction<T> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		return new OrderedQueriableImpl<T>(new LazyOrderIterable<T, Long>(containedIter, keyFunc, SortOrder.Descending));
+	}
+
+	@Override
+	public OrderedQueriable<T> orderByDouble(ToDoubleFunction<T> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		return new OrderedQueriableImpl<T>(new LazyOrderIterable<T, Double>(containedIter, keyFunc, SortOrder.Ascending));
+	}
+
+	@Override
+	public OrderedQueriable<T> orderByDoubleDescending(ToDoubleFunction<T> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		return new OrderedQueriableImpl<T>(new LazyOrderIterable<T, Double>(containedIter, keyFunc, SortOrder.Descending));
+	}
 	
 	@Override
 	public Queriable<T> reverse() {
@@ -817,15 +907,60 @@ class QueriableImpl<T> implements Queriable<T> {
 		}
 		
 		// otherwise we have to enumerate all elements and reverse the collection afterwards
-		List<T> lst = toList();		
-		Collections.reverse(lst);
-		return Query.iterable(lst);
+		// (this is deferred until the result is enumerated)
+		return Query.iterable(new LazyDeferredIterable<T>(() -> {
+			List<T> lst = toList();
+			Collections.reverse(lst);
+			return lst;
+		}));
 	}
 
 	@Override
 	public GroupedQueriable<T> group(GroupFunction<T> func) {
 		throwIfArgumentIsNull(func);
 		
+		// the groups are built when the result is enumerated
+		return new GroupedQueriableImpl<T>(new LazyDeferredIterable<Group<T>>(() -> buildGroups(func)));
+	}
+	
+	@Override
+	public GroupedQueriable<T> groupCompact(GroupFunction<T> func) {
+		throwIfArgumentIsNull(func);
+
+		return new GroupedQueriableImpl<T>(new LazyDeferredIterable<Group<T>>(() -> CompactGroupedList.build(containedIter, func)));
+	}
+
+	@Override
+	public GroupedQueriable<T> groupAdjacent(GroupFunction<T> func) {
+		throwIfArgumentIsNull(func);
+
+		return new GroupedQueriableImpl<T>(new LazyGroupAdjacentIterable<T>(containedIter, func, key -> new GroupImpl<T>(key)));
+	}
+
+	@Override
+	public GroupedQueriable<T> groupSpilling(GroupFunction<T> func, ElementSerializer<T> serializer, int maxElementsInMemory) {
+		return groupSpilling(func, serializer, maxElementsInMemory, null);
+	}
+
+	@Override
+	public GroupedQueriable<T> groupSpilling(GroupFunction<T> func, ElementSerializer<T> serializer, int maxElementsInMemory, File directory) {
+		throwIfArgumentIsNull(func, serializer);
+
+		return new GroupedQueriableImpl<T>(new LazySpillingGroupIterable<T>(containedIter, func, key -> new GroupImpl<T>(key), serializer, maxElementsInMemory, directory));
+	}
+
+	@Override
+	public <TKey, TAcc, TResult> Queriable<Map.Entry<TKey, TResult>> groupAdjacentAggregate(ItemFunc<T, TKey> keyFunc, Aggregator<? super T, TAcc, TResult> aggregator) {
+		throwIfArgumentIsNull(keyFunc, aggregator);
+
+		return Query.iterable(new LazyAggregateAdjacentIterable<T, TKey, TAcc, TResult>(containedIter, keyFunc, aggregator));
+	}
+
+	/**
+	 * Put the elements of this enumeration into groups
+	 * (the returned list keeps the map of the groups as index)
+	 */
+	private GroupedListImpl<T> buildGroups(GroupFunction<T> func) {
 		HashMap<GroupKey, Group<T>> groups = new HashMap<GroupKey, Group<T>>();
 		// put each element into a group
 		for (T element : containedIter) {
@@ -844,10 +979,118 @@ class QueriableImpl<T> implements Queriable<T> {
 		}
 
 		// return the groups
-		GroupedList<T> gList = new GroupedListImpl<T>();
-		gList.addAll(groups.values());
+		return new GroupedListImpl<T>(groups);
+	}
 
-		return new GroupedQueriableImpl<T>(gList);
+	@Override
+	public GroupedList<T> toLookup(final SingleKeyGroupFunction<T> func) {
+		throwIfArgumentIsNull(func);
+		
+		return buildGroups(new GroupFunction<T>() {
+			@Override
+			public GroupKey getKeyFor(T element) {
+				return GroupKey.of(func.getKeyElementFor(element));
+			}});
+	}
+
+	@Override
+	public <TKey, TAcc, TResult> Map<TKey, TResult> groupAggregate(ItemFunc<T, TKey> keyFunc, Aggregator<? super T, TAcc, TResult> aggregator) {
+		throwIfArgumentIsNull(keyFunc, aggregator);
+
+		// the accumulators are wrapped so that they can be replaced without a second lookup
+		LinkedHashMap<TKey, Object[]> accumulators = new LinkedHashMap<TKey, Object[]>();
+		for (T element : containedIter) {
+			TKey key = keyFunc.exec(element);
+			Object[] holder = accumulators.get(key);
+			if (holder == null) {
+				holder = new Object[] { aggregator.seed() };
+				accumulators.put(key, holder);
+			}
+			holder[0] = accumulate(aggregator, holder[0], element);
+		}
+
+		LinkedHashMap<TKey, TResult> result = new LinkedHashMap<TKey, TResult>(Math.max(16, accumulators.size() * 4 / 3 + 1));
+		for (Map.Entry<TKey, Object[]> entry : accumulators.entrySet()) {
+			result.put(entry.getKey(), finish(aggregator, entry.getValue()[0]));
+		}
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T, TAcc> TAcc accumulate(Aggregator<? super T, TAcc, ?> aggregator, Object accumulator, T element) {
+		return aggregator.accumulate((TAcc) accumulator, element);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <TAcc, TResult> TResult finish(Aggregator<?, TAcc, TResult> aggregator, Object accumulator) {
+		return aggregator.finish((TAcc) accumulator);
+	}
+
+	@Override
+	public <TKey> Map<TKey, Integer> countBy(ItemFunc<T, TKey> keyFunc) {
+		throwIfArgumentIsNull(keyFunc);
+
+		// use mutable counters to avoid boxing for every element
+		LinkedHashMap<TKey, int[]> counts = new LinkedHashMap<TKey, int[]>();
+		for (T element : containedIter) {
+			TKey key = keyFunc.exec(element);
+			int[] count = counts.get(key);
+			if (count == null) {
+				count = new int[1];
+				counts.put(key, count);
+			}
+			count[0]++;
+		}
+
+		LinkedHashMap<TKey, Integer> result = new LinkedHashMap<TKey, Integer>(Math.max(16, counts.size() * 4 / 3 + 1));
+		for (Map.Entry<TKey, int[]> entry : counts.entrySet()) {
+			result.put(entry.getKey(), entry.getValue()[0]);
+		}
+		return result;
+	}
+
+	@Override
+	public <TKey> Map<TKey, Long> sumLongBy(ItemFunc<T, TKey> keyFunc, ToLongFunction<? super T> valueFunc) {
+		throwIfArgumentIsNull(keyFunc, valueFunc);
+
+		LinkedHashMap<TKey, long[]> sums = new LinkedHashMap<TKey, long[]>();
+		for (T element : containedIter) {
+			TKey key = keyFunc.exec(element);
+			long[] sum = sums.get(key);
+			if (sum == null) {
+				sum = new long[1];
+				sums.put(key, sum);
+			}
+			sum[0] += valueFunc.applyAsLong(element);
+		}
+
+		LinkedHashMap<TKey, Long> result = new LinkedHashMap<TKey, Long>(Math.max(16, sums.size() * 4 / 3 + 1));
+		for (Map.Entry<TKey, long[]> entry : sums.entrySet()) {
+			result.put(entry.getKey(), entry.getValue()[0]);
+		}
+		return result;
+	}
+
+	@Override
+	public <TKey> Map<TKey, Double> sumDoubleBy(ItemFunc<T, TKey> keyFunc, ToDoubleFunction<? super T> valueFunc) {
+		throwIfArgumentIsNull(keyFunc, valueFunc);
+
+		LinkedHashMap<TKey, double[]> sums = new LinkedHashMap<TKey, double[]>();
+		for (T element : containedIter) {
+			TKey key = keyFunc.exec(element);
+			double[] sum = sums.get(key);
+			if (sum == null) {
+				sum = new double[1];
+				sums.put(key, sum);
+			}
+			sum[0] += valueFunc.applyAsDouble(element);
+		}
+
+		LinkedHashMap<TKey, Double> result = new LinkedHashMap<TKey, Double>(Math.max(16, sums.size() * 4 / 3 + 1));
+		for (Map.Entry<TKey, double[]> entry : sums.entrySet()) {
+			result.put(entry.getKey(), entry.getValue()[0]);
+		}
+		return result;
 	}
 
 	@Override
@@ -857,7 +1100,7 @@ class QueriableImpl<T> implements Queriable<T> {
 		return group(new GroupFunction<T>() {
 			@Override
 			public GroupKey getKeyFor(T element) {
-				return new GroupKey(func.getKeyElementFor(element));
+				return GroupKey.of(func.getKeyElementFor(element));
 			}});
 	}
 
@@ -869,13 +1112,68 @@ class QueriableImpl<T> implements Queriable<T> {
 	public Iterator<T> iterator() {
 		return containedIter.iterator();
 	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return containedIter.spliterator();
+	}
+	
+	@Override
+	public void forEach(Consumer<? super T> action) {
+		throwIfArgumentIsNull(action);
+		
+		PushIterables.push(containedIter, element -> {
+			action.accept(element);
+			return true;
+		});
+	}
+	
+	/**
+	 * Sink which sums up the numerical values of the elements
+	 * @author René Bergelt
+	 */
+	static class SumSink<T> implements Sink<T> {
+		
+		NumberFunc<T> valFunc;
+		Number sum = null;
+		
+		public SumSink(NumberFunc<T> _valFunc) {
+			valFunc = _valFunc;
+		}
+		
+		@Override
+		public boolean accept(T item) {
+			add(valFunc.getValue(item));
+			return true;
+		}
+
+		/**
+		 * Add the given value to the sum
+		 */
+		void add(Number c) {
+			if (sum == null) {
+				sum = c;
+			} else {
+				// this only works if the valFunc always returns the same type
+				// of number (i.e. only Integer, only Double, etc.)
+				if (c instanceof Integer) {
+					sum = ((Integer) sum) + (Integer) c;
+				} else if (c instanceof Double) {
+					sum = ((Double) sum) + (Double) c;
+				} else {
+					// fallback
+					sum = sum.doubleValue() + c.doubleValue();
+				}
+			}
+		}
+	}
 	
 	/**
 	 * Class which implements NumberFunc and just tries to
 	 * cast the given elements to Number
 	 * @author René Bergelt	 
 	 */
-	class SimpleCastNumberFunc<TNumber> implements NumberFunc<TNumber>
+	static class SimpleCastNumberFunc<TNumber> implements NumberFunc<TNumber>
 	{
 		@Override
 		public Number getValue(TNumber item) {
@@ -26,8 +26,13 @@
 package de.renebergelt.quiterables;
 
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.reactivestreams.Publisher;
 
 import de.renebergelt.quiterables.iterators.ArrayIterable;
+import de.renebergelt.quiterables.iterators.PublisherIterable;
+import de.renebergelt.quiterables.iterators.StreamIterable;
 import de.renebergelt.quiterables.iterators.primitivetypes.BooleanArrayIterable;
 import de.renebergelt.quiterables.iterators.primitivetypes.ByteArrayIterable;
 import de.renebergelt.quiterables.iterators.primitivetypes.CharArrayIterable;
@@ -117,6 +122,40 @@ public class Query {
 	public static <T> Queriable<T> array(T[] array) {
 		return new QueriableImpl<T>(new ArrayIterable<T>(array));
 	}
+
+	/**
+	 * Return a queriable object for the given stream
+	 * (as the stream can only be consumed once, the queriable can only be enumerated once)
+	 * @param stream stream to query
+	 * @param <T> Type of elements
+	 * @return Queriable object
+	 */
+	public static <T> Queriable<T> stream(Stream<T> stream) {
+		return new QueriableImpl<T>(new StreamIterable<T>(stream));
+	}
+
+	/**
+	 * Return a queriable object for the given Reactive Streams publisher
+	 * (each enumeration subscribes to the publisher and requests up to 256 elements in advance)
+	 * @param publisher publisher to query
+	 * @param <T> Type of elements
+	 * @return Queriable object
+	 */
+	public static <T> Queriable<T> fromPublisher(Publisher<T> publisher) {
+		return fromPublisher(publisher, 256);
+	}
+
+	/**
+	 * Return a queriable object for the given Reactive Streams publisher
+	 * (each enumeration subscribes to the publisher and blocks until the next element has been published)
+	 * @param publisher publisher to query
+	 * @param prefetch maximum number of elements which are requested in advance
+	 * @param <T> Type of elements
+	 * @return Queriable object
+	 */
+	public static <T> Queriable<T> fromPublisher(Publisher<T> publisher, int prefetch) {
+		return new QueriableImpl<T>(new PublisherIterable<T>(publisher, prefetch));
+	}
 	
 	/**********************************************
 	 * Overloaded methods for primitive-type arrays
@@ -192,5 +231,35 @@ public class Query {
 	 */
 	public static Queriable<Character> array(char[] array) {
 		return new QueriableImpl<Character>(new CharArrayIterable(array));
+	}
+	
+	/**
+	 * Return a primitive int queriable which wraps the given primitive-type int-array
+	 * (in contrast to array(int[]) the values are not boxed when being queried)
+	 * @param array array to query
+	 * @return IntQueriable object
+	 */
+	public static IntQueriable intArray(int[] array) {
+		return new IntQueriableImpl(new IntArrayIterable(array));
+	}
+	
+	/**
+	 * Return a primitive long queriable which wraps the given primitive-type long-array
+	 * (in contrast to array(long[]) the values are not boxed when being queried)
+	 * @param array array to query
+	 * @return LongQueriable object
+	 */
+	public static LongQueriable longArray(long[] array) {
+		return new LongQueriableImpl(new LongArrayIterable(array));
+	}
+	
+	/**
+	 * Return a primitive double queriable which wraps the given primitive-type double-array
+	 * (in contrast to array(double[]) the values are not boxed when being queried)
+	 * @param array array to query
+	 * @return DoubleQueriable object
+	 */
+	public static DoubleQueriable doubleArray(double[] array) {
+		return new DoubleQueriableImpl(new DoubleArrayIterable(array));
 	}	
 }
\ No newline at end of file
@@ -25,10 +25,15 @@
  *******************************************************************************/
 package de.renebergelt.quiterables.grouping;
 
+import java.util.Objects;
+
 /**
  * Represents a group key (All group key instances with the same elements
  * (value-wise) are considered equal and have the same hashCode
  * 
+ * Use the static of(...) methods to create keys with up to three parts or
+ * with int/long parts, these do not need an array and cache their hashCode
+ * 
  * @author René Bergelt
  * 
  */
@@ -36,6 +41,18 @@ public class GroupKey {
 
 	private Object[] elements;
 
+	/**
+	 * The cached hash code (keys are immutable)
+	 */
+	private int hash;
+
+	/**
+	 * Constructor for the specialized keys which do not use the elements array
+	 */
+	private GroupKey() {
+		// --
+	}
+
 	/**
 	 * Create a new group key
 	 * 
@@ -45,6 +62,84 @@ public class GroupKey {
 	public GroupKey(Object... parts) {
 		elements = new Object[parts.length];
 		System.arraycopy(parts, 0, elements, 0, parts.length);
+
+		int h = 1;
+		for (Object o : elements) {
+			h = combine(h, hashOf(o));
+		}
+		hash = mix(h);
+	}
+
+	/**
+	 * Create a group key which consists of a single part
+	 * @param part The key part
+	 * @return The group key
+	 */
+	public static GroupKey of(Object part) {
+		return new GroupKey1(part);
+	}
+
+	/**
+	 * Create a group key which consists of two parts
+	 * @param part1 The first key part
+	 * @param part2 The second key part
+	 * @return The group key
+	 */
+	public static GroupKey of(Object part1, Object part2) {
+		return new GroupKey2(part1, part2);
+	}
+
+	/**
+	 * Create a group key which consists of three parts
+	 * @param part1 The first key part
+	 * @param part2 The second key part
+	 * @param part3 The third key part
+	 * @return The group key
+	 */
+	public static GroupKey of(Object part1, Object part2, Object part3) {
+		return new GroupKey3(part1, part2, part3);
+	}
+
+	/**
+	 * Create a group key which consists of a single int part
+	 * (the key is equal to a key whose part is the boxed Integer)
+	 * @param part The key part
+	 * @return The group key
+	 */
+	public static GroupKey of(int part) {
+		return new IntGroupKey(part);
+	}
+
+	/**
+	 * Create a group key which consists of a single long part
+	 * (the key is equal to a key whose part is the boxed Long)
+	 * @param part The key part
+	 * @return The group key
+	 */
+	public static GroupKey of(long part) {
+		return new LongGroupKey(part);
+	}
+
+	/**
+	 * Create a group key which consists of two int parts
+	 * (the key is equal to a key whose parts are the boxed Integers)
+	 * @param part1 The first key part
+	 * @param part2 The second key part
+	 * @return The group key
+	 */
+	public static GroupKey of(int part1, int part2) {
+		return new IntIntGroupKey(part1, part2);
+	}
+
+	/**
+	 * Create a group key which consists of two long parts
+	 * (the key is equal to a key whose parts are the boxed Longs)
+	 * @param part1 The first key part
+	 * @param part2 The second key part
+	 * @return The group key
+	 */
+	public static GroupKey of(long part1, long part2) {
+		return new LongLongGroupKey(part1, part2);
 	}
 
 	/**
@@ -60,13 +155,13 @@ public class GroupKey {
 			return true;
 		}
 
-		if (this.partCount() != gk.partCount()) {
+		if (gk == null || hash != gk.hash || this.partCount() != gk.partCount()) {
 			return false;
 		}
 
 		// compare the individual elements
 		for (int i = 0; i < partCount(); i++) {
-			if (!get(i).equals(gk.get(i))) {
+			if (!Objects.equals(get(i), gk.get(i))) {
 				return false; // the group keys are not equal
 			}
 		}
@@ -85,15 +180,7 @@ public class GroupKey {
 
 	@Override
 	public int hashCode() {
-		final int prime = 31;
-		int result = 1;
-		result = prime * result;
-
-		for (Object o : elements) {
-			result += o.hashCode();
-		}
-
-		return result;
+		return hash;
 	}
 
 	/**
@@ -122,7 +209,255 @@ public class GroupKey {
 	 * @return The first key part
 	 */
 	public Object first() {
-		return elements[0];
+		return get(0);
+	}
+
+	// the hash code is computed the same way for all key variants:
+	// the part hashes are combined positionally, so that (a, b) and (b, a) differ,
+	// and the result is mixed so that similar keys do not cluster in hash tables
+
+	private static int hashOf(Object part) {
+		return part == null ? 0 : part.hashCode();
+	}
+
+	private static int combine(int h, int partHash) {
+		return 31 * h + partHash;
+	}
+
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		h *= 0xc2b2ae35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	private static IndexOutOfBoundsException outOfBounds(int index, int partCount) {
+		return new IndexOutOfBoundsException("Index: " + index + ", Parts: " + partCount);
+	}
+
+	private static class GroupKey1 extends GroupKey {
+		final Object part;
+
+		GroupKey1(Object _part) {
+			part = _part;
+			super.hash = mix(combine(1, hashOf(part)));
+		}
+
+		@Override
+		public boolean equals(GroupKey gk) {
+			if (gk instanceof GroupKey1)
+				return super.hash == gk.hash && Objects.equals(part, ((GroupKey1) gk).part);
+			return super.equals(gk);
+		}
+
+		@Override
+		public int partCount() {
+			return 1;
+		}
+
+		@Override
+		public Object get(int index) {
+			if (index != 0)
+				throw outOfBounds(index, 1);
+			return part;
+		}
+	}
+
+	private static class GroupKey2 extends GroupKey {
+		final Object part1;
+		final Object part2;
+
+		GroupKey2(Object _part1, Object _part2) {
+			part1 = _part1;
+			part2 = _part2;
+			super.hash = mix(combine(combine(1, hashOf(part1)), hashOf(part2)));
+		}
+
+		@Override
+		public boolean equals(GroupKey gk) {
+			if (gk instanceof GroupKey2) {
+				GroupKey2 other = (GroupKey2) gk;
+				return super.hash == gk.hash && Objects.equals(part1, other.part1) && Objects.equals(part2, other.part2);
+			}
+			return super.equals(gk);
+		}
+
+		@Override
+		public int partCount() {
+			return 2;
+		}
+
+		@Override
+		public Object get(int index) {
+			switch (index) {
+				case 0: return part1;
+				case 1: return part2;
+				default: throw outOfBounds(index, 2);
+			}
+		}
+	}
+
+	private static class GroupKey3 extends GroupKey {
+		final Object part1;
+		final Object part2;
+		final Object part3;
+
+		GroupKey3(Object _part1, Object _part2, Object _part3) {
+			part1 = _part1;
+			part2 = _part2;
+			part3 = _part3;
+			super.hash = mix(combine(combine(combine(1, hashOf(part1)), hashOf(part2)), hashOf(part3)));
+		}
+
+		@Override
+		public boolean equals(GroupKey gk) {
+			if (gk instanceof GroupKey3) {
+				GroupKey3 other = (GroupKey3) gk;
+				return super.hash == gk.hash && Objects.equals(part1, other.part1)
+						&& Objects.equals(part2, other.part2) && Objects.equals(part3, other.part3);
+			}
+			return super.equals(gk);
+		}
+
+		@Override
+		public int partCount() {
+			return 3;
+		}
+
+		@Override
+		public Object get(int index) {
+			switch (index) {
+				case 0: return part1;
+				case 1: return part2;
+				case 2: return part3;
+				default: throw outOfBounds(index, 3);
+			}
+		}
+	}
+
+	private static class IntGroupKey extends GroupKey {
+		final int part;
+
+		IntGroupKey(int _part) {
+			part = _part;
+			super.hash = mix(combine(1, Integer.hashCode(part)));
+		}
+
+		@Override
+		public boolean equals(GroupKey gk) {
+			if (gk instanceof IntGroupKey)
+				return part == ((IntGroupKey) gk).part;
+			return super.equals(gk);
+		}
+
+		@Override
+		public int partCount() {
+			return 1;
+		}
+
+		@Override
+		public Object get(int index) {
+			if (index != 0)
+				throw outOfBounds(index, 1);
+			return part;
+		}
+	}
+
+	private static class LongGroupKey extends GroupKey {
+		final long part;
+
+		LongGroupKey(long _part) {
+			part = _part;
+			super.hash = mix(combine(1, Long.hashCode(part)));
+		}
+
+		@Override
+		public boolean equals(GroupKey gk) {
+			if (gk instanceof LongGroupKey)
+				return part == ((LongGroupKey) gk).part;
+			return super.equals(gk);
+		}
+
+		@Override
+		public int partCount() {
+			return 1;
+		}
+
+		@Override
+		public Object get(int index) {
+			if (index != 0)
+				throw outOfBounds(index, 1);
+			return part;
+		}
+	}
+
+	private static class IntIntGroupKey extends GroupKey {
+		final int part1;
+		final int part2;
+
+		IntIntGroupKey(int _part1, int _part2) {
+			part1 = _part1;
+			part2 = _part2;
+			super.hash = mix(combine(combine(1, Integer.hashCode(part1)), Integer.hashCode(part2)));
+		}
+
+		@Override
+		public boolean equals(GroupKey gk) {
+			if (gk instanceof IntIntGroupKey) {
+				IntIntGroupKey other = (IntIntGroupKey) gk;
+				return part1 == other.part1 && part2 == other.part2;
+			}
+			return super.equals(gk);
+		}
+
+		@Override
+		public int partCount() {
+			return 2;
+		}
+
+		@Override
+		public Object get(int index) {
+			switch (index) {
+				case 0: return part1;
+				case 1: return part2;
+				default: throw outOfBounds(index, 2);
+			}
+		}
+	}
+
+	private static class LongLongGroupKey extends GroupKey {
+		final long part1;
+		final long part2;
+
+		LongLongGroupKey(long _part1, long _part2) {
+			part1 = _part1;
+			part2 = _part2;
+			super.hash = mix(combine(combine(1, Long.hashCode(part1)), Long.hashCode(part2)));
+		}
+
+		@Override
+		public boolean equals(GroupKey gk) {
+			if (gk instanceof LongLongGroupKey) {
+				LongLongGroupKey other = (LongLongGroupKey) gk;
+				return part1 == other.part1 && part2 == other.part2;
+			}
+			return super.equals(gk);
+		}
+
+		@Override
+		public int partCount() {
+			return 2;
+		}
+
+		@Override
+		public Object get(int index) {
+			switch (index) {
+				case 0: return part1;
+				case 1: return part2;
+				default: throw outOfBounds(index, 2);
+			}
+		}
 	}
-	
 }
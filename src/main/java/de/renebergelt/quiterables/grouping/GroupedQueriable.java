@@ -27,6 +27,8 @@ package de.renebergelt.quiterables.grouping;
 
 import java.util.Comparator;
 import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 import de.renebergelt.quiterables.Equivalence;
 import de.renebergelt.quiterables.ItemFunc;
@@ -43,6 +45,9 @@ public interface GroupedQueriable<T> extends Queriable<Group<T>> {
 
 	/**
 	 * Return the elements of the group with the given group keys
+	 * (the result of group() or groupCompact() is grouped anew by each call, so that changes of
+	 * the source are reflected. For many lookups call toList() once and use the index of the
+	 * returned GroupedList)
 	 * @param key Key of the group
 	 * @return Elements of the group
 	 */
@@ -125,4 +130,16 @@ public interface GroupedQueriable<T> extends Queriable<Group<T>> {
 	
 	@Override
 	public <TComparable> OrderedGroupedQueriable<T> orderByDescending(ItemFunc<Group<T>, TComparable> valueFunc, Comparator<TComparable> comparator);
+
+	@Override
+	public OrderedGroupedQueriable<T> orderByLong(ToLongFunction<Group<T>> keyFunc);
+
+	@Override
+	public OrderedGroupedQueriable<T> orderByLongDescending(ToLongFunction<Group<T>> keyFunc);
+
+	@Override
+	public OrderedGroupedQueriable<T> orderByDouble(ToDoubleFunction<Group<T>> keyFunc);
+
+	@Override
+	public OrderedGroupedQueriable<T> orderByDoubleDescending(ToDoubleFunction<Group<T>> keyFunc);
 }
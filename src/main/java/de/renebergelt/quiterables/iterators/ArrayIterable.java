@@ -26,6 +26,8 @@
 package de.renebergelt.quiterables.iterators;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * Iterable wrapper for arrays
@@ -34,7 +36,7 @@ import java.util.Iterator;
  *
  * @param <T> Type of the elements in this Iterable
  */
-public class ArrayIterable<T> implements Iterable<T> {
+public class ArrayIterable<T> implements PushIterable<T> {
 
 	T[] wrapped;
 
@@ -50,6 +52,29 @@ public class ArrayIterable<T> implements Iterable<T> {
 	public Iterator<T> iterator() {
 		return new ArrayIterator<T>(wrapped);
 	}
+	
+	@Override
+	public Spliterator<T> spliterator() {
+		if (wrapped == null)
+			return Spliterators.emptySpliterator();
+
+		return Spliterators.spliterator(wrapped, Spliterator.ORDERED);
+	}
+
+	@Override
+	public boolean push(Sink<? super T> sink) {
+		if (wrapped == null)
+			return true;
+		
+		for (T element : wrapped) {
+			// as with the ArrayIterator a null element ends the sequence
+			if (element == null)
+				return true;
+			if (!sink.accept(element))
+				return false;
+		}
+		return true;
+	}
 }
 
 class ArrayIterator<T> extends LazyIterator<T>
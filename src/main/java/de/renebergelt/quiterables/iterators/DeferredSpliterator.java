@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Spliterator which creates the actual spliterator when it is first used
+ * (late-binding, so that creating a stream does not evaluate the source yet)
+ * @param <T> Type of the elements
+ * @author René Bergelt
+ */
+class DeferredSpliterator<T> implements Spliterator<T> {
+
+	Supplier<Spliterator<T>> factory;
+	int characteristics;
+	Spliterator<T> spliterator;
+
+	/**
+	 * Create a new deferred spliterator
+	 * @param _factory Function which creates the actual spliterator
+	 * @param _characteristics The characteristics of the actual spliterator
+	 */
+	public DeferredSpliterator(Supplier<Spliterator<T>> _factory, int _characteristics) {
+		factory = _factory;
+		characteristics = _characteristics;
+	}
+
+	private Spliterator<T> get() {
+		if (spliterator == null)
+			spliterator = factory.get();
+		return spliterator;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		return get().tryAdvance(action);
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		get().forEachRemaining(action);
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		return get().trySplit();
+	}
+
+	@Override
+	public long estimateSize() {
+		return get().estimateSize();
+	}
+
+	@Override
+	public int characteristics() {
+		return characteristics;
+	}
+}
@@ -27,6 +27,8 @@ package de.renebergelt.quiterables.iterators;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * An iterable implementation which cotnains no elements
@@ -61,6 +63,11 @@ public class EmptyIterable<T> implements Iterable<T> {
 	public Iterator<T> iterator() {	
 		return it;
 	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return Spliterators.emptySpliterator();
+	}
 	
 	static class EmptyIterator<T> implements Iterator<T> {
 
@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import de.renebergelt.quiterables.HashingEquivalence;
+
+/**
+ * Wraps an element so that equals() and hashCode() use a HashingEquivalence
+ * (which allows to put elements into hash based collections)
+ * @param <T> Type of the wrapped element
+ * @author René Bergelt
+ */
+class EquivalenceKey<T> {
+
+	T element;
+	HashingEquivalence<T> equivalence;
+	int hash;
+
+	public EquivalenceKey(T _element, HashingEquivalence<T> _equivalence) {
+		element = _element;
+		equivalence = _equivalence;
+		hash = _equivalence.hashCodeOf(_element);
+	}
+
+	/**
+	 * Return the key to use in a hash based collection for the given element
+	 * @param element The element
+	 * @param equivalence The equivalence to use or null to use the element itself
+	 */
+	public static <T> Object of(T element, HashingEquivalence<T> equivalence) {
+		return equivalence == null ? element : new EquivalenceKey<T>(element, equivalence);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof EquivalenceKey))
+			return false;
+
+		EquivalenceKey<T> other = (EquivalenceKey<T>)obj;
+		return hash == other.hash && equivalence.areEqual(element, other.element);
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+}
@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import de.renebergelt.quiterables.ElementSerializer;
+
+/**
+ * External merge sort which is used by the LazyOrderIterable if the number of
+ * elements which may be sorted in memory is limited:
+ * The source is sorted in runs of at most maxElementsInMemory elements, each run except for
+ * the last one is written to a file in a temporary directory and the runs are merged while the
+ * result is iterated. If there are more than MAX_MERGE_RUNS runs, they are merged to larger
+ * runs in intermediate passes first, so that the number of open files stays bounded.
+ * The temporary directory is deleted when the iteration completes or fails
+ * (an iteration which is not completed leaves it behind)
+ * @author René Bergelt
+ */
+class ExternalSort {
+
+	// the maximum number of runs which are merged at once
+	static final int MAX_MERGE_RUNS = 64;
+
+	private ExternalSort() {
+		// static class
+	}
+
+	/**
+	 * Sort the elements of the given ordered iterable
+	 * @param ordered The ordered iterable (defines the source and the order)
+	 * @param serializer The serializer which is used to write the runs
+	 * @param maxElementsInMemory The maximum number of elements of a run
+	 * @param directory The directory for the temporary files or null for the default temp directory
+	 * @return Iterator which returns the sorted elements
+	 */
+	public static <T> Iterator<T> sort(LazyOrderIterable<T, ?> ordered, ElementSerializer<T> serializer, int maxElementsInMemory, File directory) {
+		TempDirectory tempDirectory = null;
+		List<File> runFiles = new ArrayList<File>();
+		List<Long> runSizes = new ArrayList<Long>();
+		List<SortEntry<T>> entries = new ArrayList<SortEntry<T>>();
+		List<SortEntry<T>> lastRun;
+
+		try {
+			for (T element : ordered.wrapped) {
+				if (entries.size() == maxElementsInMemory) {
+					// the directory is only created if the elements do not fit into memory
+					if (tempDirectory == null)
+						tempDirectory = TempDirectory.create(directory, "quiterables-sort");
+
+					List<SortEntry<T>> run = ordered.sortEntries(entries);
+					runFiles.add(writeRun(run.stream().map(entry -> entry.element).iterator(), serializer, tempDirectory));
+					runSizes.add((long) run.size());
+					entries.clear();
+				}
+
+				entries.add(ordered.createEntry(element, 0));
+			}
+
+			// the last run is kept in memory
+			lastRun = ordered.sortEntries(entries);
+			if (runFiles.isEmpty()) {
+				// everything fit into memory
+				List<T> sortedList = new ArrayList<T>(lastRun.size());
+				for (SortEntry<T> entry : lastRun)
+					sortedList.add(entry.element);
+				return sortedList.iterator();
+			}
+
+			// merge the runs until all of them (and the run in memory) can be merged at once
+			while (runFiles.size() >= MAX_MERGE_RUNS)
+				mergePass(ordered, serializer, runFiles, runSizes, tempDirectory);
+		} catch (RuntimeException e) {
+			if (tempDirectory != null)
+				tempDirectory.delete();
+			throw e;
+		}
+
+		List<SortRun<T>> runs = openRuns(ordered, serializer, runFiles, runSizes, tempDirectory);
+		runs.add(new MemorySortRun<T>(runFiles.size(), lastRun));
+		return new ExternalMergeIterator<T>(ordered, runs, tempDirectory);
+	}
+
+	/**
+	 * Merge each MAX_MERGE_RUNS consecutive runs to a single run
+	 * (consecutive runs are merged so that the sort stays stable)
+	 */
+	private static <T> void mergePass(LazyOrderIterable<T, ?> ordered, ElementSerializer<T> serializer, List<File> runFiles, List<Long> runSizes, TempDirectory tempDirectory) {
+		List<File> mergedFiles = new ArrayList<File>();
+		List<Long> mergedSizes = new ArrayList<Long>();
+
+		for (int start = 0; start < runFiles.size(); start += MAX_MERGE_RUNS) {
+			int end = Math.min(runFiles.size(), start + MAX_MERGE_RUNS);
+			if (end - start == 1) {
+				// nothing to merge
+				mergedFiles.add(runFiles.get(start));
+				mergedSizes.add(runSizes.get(start));
+				continue;
+			}
+
+			long size = 0;
+			for (int i = start; i < end; i++)
+				size += runSizes.get(i);
+
+			// the merged runs are deleted when they have been read
+			List<SortRun<T>> runs = openRuns(ordered, serializer, runFiles.subList(start, end), runSizes.subList(start, end), null);
+			try {
+				mergedFiles.add(writeRun(new ExternalMergeIterator<T>(ordered, runs, null), serializer, tempDirectory));
+			} finally {
+				// the runs have to be closed before their directory can be deleted if the merge fails
+				for (SortRun<T> run : runs)
+					run.close();
+			}
+			mergedSizes.add(size);
+		}
+
+		runFiles.clear();
+		runFiles.addAll(mergedFiles);
+		runSizes.clear();
+		runSizes.addAll(mergedSizes);
+	}
+
+	private static <T> List<SortRun<T>> openRuns(LazyOrderIterable<T, ?> ordered, ElementSerializer<T> serializer, List<File> runFiles, List<Long> runSizes, TempDirectory tempDirectory) {
+		List<SortRun<T>> runs = new ArrayList<SortRun<T>>();
+		try {
+			for (int i = 0; i < runFiles.size(); i++)
+				runs.add(new FileSortRun<T>(i, ordered, serializer, runFiles.get(i), runSizes.get(i)));
+		} catch (RuntimeException e) {
+			for (SortRun<T> run : runs)
+				run.close();
+			if (tempDirectory != null)
+				tempDirectory.delete();
+			throw e;
+		}
+		return runs;
+	}
+
+	private static <T> File writeRun(Iterator<T> elements, ElementSerializer<T> serializer, TempDirectory tempDirectory) {
+		try {
+			File file = tempDirectory.createFile("run", ".run");
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+				while (elements.hasNext())
+					serializer.write(elements.next(), out);
+			}
+			return file;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
+
+/**
+ * A sorted run which is read while merging
+ */
+abstract class SortRun<T> {
+	// the number of the run, runs with a lower number contain elements which came first in the source
+	int number;
+	SortEntry<T> current;
+
+	/**
+	 * Move to the next element of the run
+	 * @return False if the run is exhausted
+	 */
+	abstract boolean advance();
+
+	abstract void close();
+}
+
+class FileSortRun<T> extends SortRun<T> {
+	LazyOrderIterable<T, ?> ordered;
+	ElementSerializer<T> serializer;
+	File file;
+	DataInputStream in;
+	long remaining;
+
+	public FileSortRun(int _number, LazyOrderIterable<T, ?> _ordered, ElementSerializer<T> _serializer, File _file, long size) {
+		number = _number;
+		ordered = _ordered;
+		serializer = _serializer;
+		file = _file;
+		remaining = size;
+
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	boolean advance() {
+		if (remaining == 0) {
+			close();
+			return false;
+		}
+
+		remaining--;
+		try {
+			// the keys are computed again for the merge
+			current = ordered.createEntry(serializer.read(in), 0);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return true;
+	}
+
+	@Override
+	void close() {
+		try {
+			in.close();
+		} catch (IOException e) {
+			// ignore, the file is deleted anyway
+		}
+		file.delete();
+	}
+}
+
+class MemorySortRun<T> extends SortRun<T> {
+	Iterator<SortEntry<T>> entries;
+
+	public MemorySortRun(int _number, List<SortEntry<T>> _entries) {
+		number = _number;
+		entries = _entries.iterator();
+	}
+
+	@Override
+	boolean advance() {
+		if (!entries.hasNext())
+			return false;
+
+		current = entries.next();
+		return true;
+	}
+
+	@Override
+	void close() {
+		// --
+	}
+}
+
+/**
+ * Merges the sorted runs (the runs are read in parallel, so only one element per run is in memory)
+ */
+class ExternalMergeIterator<T> extends LazyIterator<T> {
+
+	PriorityQueue<SortRun<T>> queue;
+	List<SortRun<T>> runs;
+	// the directory which is deleted after the merge (null if the caller deletes it)
+	TempDirectory tempDirectory;
+
+	public ExternalMergeIterator(LazyOrderIterable<T, ?> ordered, List<SortRun<T>> _runs, TempDirectory _tempDirectory) {
+		runs = _runs;
+		tempDirectory = _tempDirectory;
+
+		final Comparator<SortEntry<T>> comparator = ordered.getEntryComparator();
+		// equal elements are taken from the run which came first in the source to keep the sort stable
+		queue = new PriorityQueue<SortRun<T>>(runs.size(), new Comparator<SortRun<T>>() {
+			@Override
+			public int compare(SortRun<T> r1, SortRun<T> r2) {
+				int result = comparator.compare(r1.current, r2.current);
+				return result != 0 ? result : Integer.compare(r1.number, r2.number);
+			}
+		});
+
+		try {
+			for (SortRun<T> run : runs)
+				if (run.advance())
+					queue.add(run);
+		} catch (RuntimeException e) {
+			cleanUp();
+			throw e;
+		}
+	}
+
+	@Override
+	protected T findNextElement() {
+		SortRun<T> run = queue.poll();
+		if (run == null) {
+			// all runs have been read
+			cleanUp();
+			return null;
+		}
+
+		T element = run.current.element;
+		try {
+			if (run.advance())
+				queue.add(run);
+		} catch (RuntimeException e) {
+			cleanUp();
+			throw e;
+		}
+		return element;
+	}
+
+	private void cleanUp() {
+		for (SortRun<T> run : runs)
+			run.close();
+		queue.clear();
+		if (tempDirectory != null) {
+			tempDirectory.delete();
+			tempDirectory = null;
+		}
+	}
+}
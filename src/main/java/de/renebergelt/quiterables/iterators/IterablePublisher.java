@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Reactive Streams publisher which emits the elements of an iterable
+ * Each subscription enumerates the iterable anew and only retrieves as many elements
+ * as the subscriber has requested (the elements are emitted on the thread which calls request())
+ * @param <T> Type of the elements
+ * @author René Bergelt
+ */
+public class IterablePublisher<T> implements Publisher<T> {
+
+	Iterable<T> source;
+
+	/**
+	 * Create a new publisher for the given iterable
+	 * @param _source The iterable whose elements are published
+	 */
+	public IterablePublisher(Iterable<T> _source) {
+		source = _source;
+	}
+
+	/**
+	 * Return a publisher for the given iterable
+	 * @param source The iterable whose elements are published
+	 * @param <T> Type of the elements
+	 * @return The publisher
+	 */
+	public static <T> Publisher<T> of(Iterable<T> source) {
+		return new IterablePublisher<T>(source);
+	}
+
+	@Override
+	public void subscribe(Subscriber<? super T> subscriber) {
+		if (subscriber == null)
+			throw new NullPointerException("The subscriber must not be null.");
+
+		subscriber.onSubscribe(new IterableSubscription<T>(source, subscriber));
+	}
+}
+
+class IterableSubscription<T> implements Subscription {
+
+	Iterable<T> source;
+	Subscriber<? super T> subscriber;
+	Iterator<T> iterator;
+
+	// the number of requested but not yet emitted elements (Long.MAX_VALUE is unbounded)
+	AtomicLong requested = new AtomicLong();
+	// the number of drain() calls which have not been handled yet (only one thread emits at a time)
+	AtomicInteger pendingDrains = new AtomicInteger();
+	volatile boolean cancelled = false;
+	volatile boolean invalidRequest = false;
+
+	public IterableSubscription(Iterable<T> _source, Subscriber<? super T> _subscriber) {
+		source = _source;
+		subscriber = _subscriber;
+	}
+
+	@Override
+	public void request(long n) {
+		if (n <= 0)
+			invalidRequest = true;
+		else {
+			long current, next;
+			do {
+				current = requested.get();
+				next = current + n;
+				if (next < 0)
+					next = Long.MAX_VALUE;
+			} while (!requested.compareAndSet(current, next));
+		}
+
+		drain();
+	}
+
+	@Override
+	public void cancel() {
+		cancelled = true;
+	}
+
+	/**
+	 * Emit the requested elements
+	 * (a request() from within onNext() is handled by the loop of the emitting call,
+	 * so that the recursion is bounded)
+	 */
+	private void drain() {
+		if (pendingDrains.getAndIncrement() != 0)
+			return;
+
+		int missed = 1;
+		do {
+			if (!cancelled)
+				emit();
+			missed = pendingDrains.addAndGet(-missed);
+		} while (missed != 0);
+	}
+
+	private void emit() {
+		if (invalidRequest) {
+			cancelled = true;
+			subscriber.onError(new IllegalArgumentException("The number of requested elements must be positive (rule 3.9)."));
+			return;
+		}
+
+		try {
+			if (iterator == null)
+				iterator = source.iterator();
+
+			long demand = requested.get();
+			long emitted = 0;
+			while (!cancelled) {
+				if (emitted == demand) {
+					// check if more elements have been requested in the meantime
+					demand = requested.addAndGet(-emitted);
+					emitted = 0;
+					if (demand == 0)
+						// hasNext() is not called before the next request, since it may already
+						// compute the next element (the completion is signaled by a later request)
+						return;
+				}
+
+				if (!iterator.hasNext()) {
+					cancelled = true;
+					subscriber.onComplete();
+					return;
+				}
+
+				T element = iterator.next();
+				if (element == null)
+					throw new NullPointerException("Null elements cannot be published (rule 2.13).");
+
+				subscriber.onNext(element);
+				if (demand != Long.MAX_VALUE)
+					emitted++;
+			}
+		} catch (RuntimeException e) {
+			if (!cancelled) {
+				cancelled = true;
+				subscriber.onError(e);
+			}
+		}
+	}
+}
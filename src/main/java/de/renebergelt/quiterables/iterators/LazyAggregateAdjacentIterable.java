@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+import de.renebergelt.quiterables.Aggregator;
+import de.renebergelt.quiterables.ItemFunc;
+
+/**
+ * Iterable which aggregates each run of consecutive elements with the same key
+ * of the wrapped iterable using lazy evaluation
+ * (the elements of a run are not kept, only the accumulator of the current run)
+ * @param <T> Type of the aggregated elements
+ * @param <TKey> Type of the keys
+ * @param <TAcc> Type of the accumulator
+ * @param <TResult> Type of the aggregation result
+ * @author René Bergelt
+ */
+public class LazyAggregateAdjacentIterable<T, TKey, TAcc, TResult> implements Iterable<Map.Entry<TKey, TResult>> {
+
+	Iterable<T> wrapped;
+	ItemFunc<T, TKey> keyFunc;
+	Aggregator<? super T, TAcc, TResult> aggregator;
+
+	/**
+	 * Create a new lazy adjacent aggregation iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _keyFunc Function which returns the key of an element
+	 * @param _aggregator The aggregator which is applied to the elements of each run
+	 */
+	public LazyAggregateAdjacentIterable(Iterable<T> _wrapped, ItemFunc<T, TKey> _keyFunc, Aggregator<? super T, TAcc, TResult> _aggregator) {
+		wrapped = _wrapped;
+		keyFunc = _keyFunc;
+		aggregator = _aggregator;
+	}
+
+	@Override
+	public Iterator<Map.Entry<TKey, TResult>> iterator() {
+		return new LazyAggregateAdjacentIterator<T, TKey, TAcc, TResult>(wrapped.iterator(), keyFunc, aggregator);
+	}
+}
+
+class LazyAggregateAdjacentIterator<T, TKey, TAcc, TResult> extends LazyIterator<Map.Entry<TKey, TResult>> {
+
+	Iterator<T> wrapped;
+	ItemFunc<T, TKey> keyFunc;
+	Aggregator<? super T, TAcc, TResult> aggregator;
+
+	// the first element of the next run which has already been read
+	T pending;
+	TKey pendingKey;
+	boolean hasPending = false;
+
+	public LazyAggregateAdjacentIterator(Iterator<T> _wrapped, ItemFunc<T, TKey> _keyFunc, Aggregator<? super T, TAcc, TResult> _aggregator) {
+		wrapped = _wrapped;
+		keyFunc = _keyFunc;
+		aggregator = _aggregator;
+	}
+
+	@Override
+	protected Map.Entry<TKey, TResult> findNextElement() {
+		if (!hasPending) {
+			if (!wrapped.hasNext())
+				return null;
+
+			pending = wrapped.next();
+			pendingKey = keyFunc.exec(pending);
+		}
+
+		TKey runKey = pendingKey;
+		TAcc accumulator = aggregator.accumulate(aggregator.seed(), pending);
+		hasPending = false;
+		pending = null;
+
+		while (wrapped.hasNext()) {
+			T element = wrapped.next();
+			TKey key = keyFunc.exec(element);
+			if (!Objects.equals(key, runKey)) {
+				// this element starts the next run
+				pending = element;
+				pendingKey = key;
+				hasPending = true;
+				break;
+			}
+
+			accumulator = aggregator.accumulate(accumulator, element);
+		}
+
+		return new AbstractMap.SimpleImmutableEntry<TKey, TResult>(runKey, aggregator.finish(accumulator));
+	}
+}
@@ -26,6 +26,9 @@
 package de.renebergelt.quiterables.iterators;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Iterable which concatenates two other iterables
@@ -33,7 +36,7 @@ import java.util.Iterator;
  * @author René Bergelt
  *
  */
-public class LazyConcatIterable<T> implements Iterable<T> {
+public class LazyConcatIterable<T> implements PushIterable<T> {
 
 	Iterable<T> it1;
 	Iterable<T> it2;
@@ -52,6 +55,28 @@ public class LazyConcatIterable<T> implements Iterable<T> {
 	public Iterator<T> iterator() {
 		return new LazyConcatIterator<T>(it1.iterator(), it2.iterator());
 	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		// sized if both iterables are sized
+		return Stream.concat(StreamSupport.stream(it1.spliterator(), false), StreamSupport.stream(it2.spliterator(), false)).spliterator();
+	}
+	
+	@Override
+	public boolean push(Sink<? super T> sink) {
+		StageSink<T, T> stage = new StageSink<T, T>(sink) {
+			@Override
+			public boolean accept(T element) {
+				return emit(element);
+			}
+		};
+		
+		if (!stage.pushFrom(it1))
+			return false;
+		
+		// a null element in the first iterable ends the whole sequence
+		return stage.ended || stage.pushFrom(it2);
+	}
 }
 
 class LazyConcatIterator<T> extends LazyIterator<T> {
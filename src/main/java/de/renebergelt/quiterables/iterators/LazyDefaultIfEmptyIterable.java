@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * Iterable which returns the elements of the wrapped iterable or
+ * the default value if the wrapped iterable is empty
+ * @param <T> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+public class LazyDefaultIfEmptyIterable<T> implements Iterable<T> {
+
+	Iterable<T> wrapped;
+	T defaultValue;
+
+	/**
+	 * Create a new iterable which returns defaultValue if the wrapped iterable is empty
+	 * @param _wrapped The wrapped iterable
+	 * @param _defaultValue The element to return if the wrapped iterable is empty
+	 */
+	public LazyDefaultIfEmptyIterable(Iterable<T> _wrapped, T _defaultValue) {
+		wrapped = _wrapped;
+		defaultValue = _defaultValue;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		Iterator<T> it = wrapped.iterator();
+		if (!it.hasNext()) {
+			// a list iterator also returns a default value of null
+			// (which would end the sequence of a LazyIterator)
+			return Collections.singletonList(defaultValue).iterator();
+		}
+
+		return it;
+	}
+}
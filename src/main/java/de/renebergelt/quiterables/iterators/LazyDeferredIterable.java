@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+
+/**
+ * Iterable which creates the iterable to enumerate each time an iterator is requested
+ * (used to defer operators which need to see all elements of the source, like grouping,
+ * until the result is enumerated)
+ * @param <T> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+public class LazyDeferredIterable<T> implements Iterable<T> {
+
+	Supplier<? extends Iterable<T>> factory;
+
+	/**
+	 * Create a new deferred iterable
+	 * @param _factory Function which creates the iterable to enumerate
+	 */
+	public LazyDeferredIterable(Supplier<? extends Iterable<T>> _factory) {
+		factory = _factory;
+	}
+
+	/**
+	 * Evaluate the deferred operation now
+	 * @return The (newly created) iterable
+	 */
+	public Iterable<T> evaluate() {
+		return factory.get();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return evaluate().iterator();
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		// do not evaluate before the spliterator is used
+		return new DeferredSpliterator<T>(() -> evaluate().spliterator(), Spliterator.ORDERED);
+	}
+}
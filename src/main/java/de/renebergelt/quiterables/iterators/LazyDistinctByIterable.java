@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import de.renebergelt.quiterables.ItemFunc;
+import de.renebergelt.quiterables.Predicate;
+
+/**
+ * Iterable which returns the first element of a source iterable for each key
+ * returned by a key selector using lazy evaluation
+ * (only the keys are kept in a hash set)
+ * @param <T> Type of the elements in this Iterable
+ * @param <TKey> Type of the keys
+ * @author René Bergelt
+ */
+public class LazyDistinctByIterable<T, TKey> implements PushIterable<T> {
+
+	Iterable<T> wrapped;
+	ItemFunc<T, TKey> keySelector;
+
+	/**
+	 * Create a new lazy distinctBy iterable which wraps the given iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _keySelector Function to retrieve the key of an element
+	 */
+	public LazyDistinctByIterable(Iterable<T> _wrapped, ItemFunc<T, TKey> _keySelector) {
+		wrapped = _wrapped;
+		keySelector = _keySelector;
+	}
+
+	/**
+	 * Return the condition to include an element
+	 * (the condition keeps track of the keys seen so far, so a new one has to be used
+	 * for each enumeration)
+	 */
+	private Predicate<T> createCondition() {
+		final Set<TKey> usedKeys = new HashSet<TKey>();
+		return x -> usedKeys.add(keySelector.exec(x));
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new LazyWhereIterator<T>(wrapped.iterator(), createCondition());
+	}
+
+	@Override
+	public boolean push(Sink<? super T> sink) {
+		return new LazyWhereIterable<T>(wrapped, createCondition()).push(sink);
+	}
+}
@@ -31,6 +31,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import de.renebergelt.quiterables.Equivalence;
+import de.renebergelt.quiterables.HashingEquivalence;
 import de.renebergelt.quiterables.Predicate;
 import de.renebergelt.quiterables.Queriable;
 import de.renebergelt.quiterables.Query;
@@ -39,6 +40,8 @@ import de.renebergelt.quiterables.Query;
  * Iterable which returns the elements of a source iterable
  * but filters duplicates either by using the equals() method of
  * the objects or a custom equality comparer
+ * (a HashingEquivalence is used to hash the elements, a plain Equivalence
+ * requires to compare each element with all elements returned before)
  * @param <T> Type of the elements in this Iterable
  * @author René Bergelt 
  */
@@ -66,10 +69,14 @@ public class LazyDistinctIterable<T> implements Iterable<T> {
 		equalityComparer = _equalityComparer;
 	}
 	
+	@SuppressWarnings("unchecked")
 	@Override
 	public Iterator<T> iterator() {
 		if (equalityComparer == null)
-			return new LazyDistinctIterator<T>(wrapped.iterator());
+			return new LazyDistinctIterator<T>(wrapped.iterator(), null);
+		else if (equalityComparer instanceof HashingEquivalence)
+			// the elements can be hashed using the equivalence
+			return new LazyDistinctIterator<T>(wrapped.iterator(), (HashingEquivalence<T>)equalityComparer);
 		else
 			return new LazyDistinctWithEquivalenceIterator<T>(wrapped.iterator(), equalityComparer);
 	}
@@ -79,12 +86,15 @@ public class LazyDistinctIterable<T> implements Iterable<T> {
 class LazyDistinctIterator<T> extends LazyIterator<T> {
 
 	Iterator<T> wrapped;	
+	// if set, the elements are hashed using this equivalence
+	HashingEquivalence<T> equalityComparer;
 	
 	// keep track of already used items
-	HashSet<T> usedItems = new HashSet<T>();
+	HashSet<Object> usedItems = new HashSet<Object>();
 	
-	public LazyDistinctIterator(Iterator<T> _wrapped) {
+	public LazyDistinctIterator(Iterator<T> _wrapped, HashingEquivalence<T> _equalityComparer) {
 		wrapped = _wrapped;		
+		equalityComparer = _equalityComparer;
 	}
 	
 	@Override
@@ -92,10 +102,8 @@ class LazyDistinctIterator<T> extends LazyIterator<T> {
 		
 		while (wrapped.hasNext()) {
 			T element = wrapped.next();
-			if (!usedItems.contains(element)) {
-				usedItems.add(element);
+			if (usedItems.add(EquivalenceKey.of(element, equalityComparer)))
 				return element;
-			}
 		}
 		
 		// iteration ended
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Iterator;
+
+import de.renebergelt.quiterables.Equivalence;
+import de.renebergelt.quiterables.Predicate;
+
+/**
+ * Iterable which returns the elements of a source iterable which are
+ * not contained in a second iterable using lazy evaluation
+ * (the elements of the second iterable are put into a hash set once per enumeration,
+ * unless a plain Equivalence is used which does not provide hash codes)
+ * @param <T> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+public class LazyExceptIterable<T> implements PushIterable<T> {
+
+	Iterable<T> wrapped;
+	Iterable<T> elementsToSubtract;
+	Equivalence<T> equalityComparer;
+
+	/**
+	 * Create a new lazy except iterable which wraps the given iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _elementsToSubtract The elements to remove
+	 */
+	public LazyExceptIterable(Iterable<T> _wrapped, Iterable<T> _elementsToSubtract) {
+		wrapped = _wrapped;
+		elementsToSubtract = _elementsToSubtract;
+	}
+
+	/**
+	 * Create a new lazy except iterable which wraps the given iterable
+	 * using the given equality comparer
+	 * @param _wrapped The wrapped iterable
+	 * @param _elementsToSubtract The elements to remove
+	 * @param _equalityComparer Comparer to decide if two elements are equal
+	 */
+	public LazyExceptIterable(Iterable<T> _wrapped, Iterable<T> _elementsToSubtract, Equivalence<T> _equalityComparer) {
+		this(_wrapped, _elementsToSubtract);
+		equalityComparer = _equalityComparer;
+	}
+
+	/**
+	 * Return the condition for elements to be included in the result
+	 */
+	private Predicate<T> createCondition() {
+		final Predicate<T> contained = LazyIntersectIterable.containedIn(elementsToSubtract, equalityComparer);
+		return x -> !contained.evaluate(x);
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new LazyWhereIterator<T>(wrapped.iterator(), createCondition());
+	}
+
+	@Override
+	public boolean push(Sink<? super T> sink) {
+		return new LazyWhereIterable<T>(wrapped, createCondition()).push(sink);
+	}
+}
@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+import de.renebergelt.quiterables.Predicate;
+import de.renebergelt.quiterables.Selector;
+
+/**
+ * Iterable which applies a chain of adjacent where, select, take and skip stages
+ * in a single loop instead of nesting one lazy iterator per stage
+ * (Use the static methods to add a stage, they decide whether the stage can be fused
+ * with the given source iterable)
+ * @param <TIn> Type of the elements of the source iterable
+ * @param <T> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class LazyFusedIterable<TIn, T> implements PushIterable<T> {
+
+	static final int WHERE = 0;
+	static final int SELECT = 1;
+	static final int TAKE = 2;
+	static final int TAKE_WHILE = 3;
+	static final int SKIP = 4;
+	static final int SKIP_WHILE = 5;
+
+	Iterable<TIn> wrapped;
+	Stage[] stages;
+
+	LazyFusedIterable(Iterable<TIn> _wrapped, Stage[] _stages) {
+		wrapped = _wrapped;
+		stages = _stages;
+	}
+
+	/**
+	 * Return a new fused iterable which additionally applies the given stage
+	 * (this instance is not modified since it may be shared by several queries)
+	 */
+	<TOut> LazyFusedIterable<TIn, TOut> append(Stage stage) {
+		Stage[] newStages = Arrays.copyOf(stages, stages.length + 1);
+		newStages[stages.length] = stage;
+		return new LazyFusedIterable<TIn, TOut>(wrapped, newStages);
+	}
+
+	/**
+	 * Return the given iterable as a fused iterable if it is a stage which can be fused
+	 * or null otherwise
+	 */
+	static <T> LazyFusedIterable<?, T> asFused(Iterable<T> source) {
+		if (source instanceof LazyFusedIterable)
+			return (LazyFusedIterable<?, T>)source;
+
+		Stage stage = null;
+		Iterable wrapped = null;
+
+		if (source instanceof LazyWhereIterable) {
+			LazyWhereIterable w = (LazyWhereIterable)source;
+			wrapped = w.wrapped;
+			stage = new Stage(WHERE, w.predicate, null, 0);
+		} else if (source instanceof LazySelectIterable) {
+			LazySelectIterable s = (LazySelectIterable)source;
+			wrapped = s.wrapped;
+			stage = new Stage(SELECT, null, s.selectorFunc, 0);
+		} else if (source instanceof LazyTakeIterable) {
+			LazyTakeIterable t = (LazyTakeIterable)source;
+			wrapped = t.wrapped;
+			stage = t.takeWhileCondition == null ? new Stage(TAKE, null, null, t.amount) : new Stage(TAKE_WHILE, t.takeWhileCondition, null, 0);
+		} else if (source instanceof LazySkipIterable) {
+			LazySkipIterable s = (LazySkipIterable)source;
+			wrapped = s.wrapped;
+			stage = s.skipWhileCondition == null ? new Stage(SKIP, null, null, s.amount) : new Stage(SKIP_WHILE, s.skipWhileCondition, null, 0);
+		}
+
+		return stage == null ? null : new LazyFusedIterable(wrapped, new Stage[] { stage });
+	}
+
+	/**
+	 * Return an iterable which contains the elements of source which satisfy the predicate
+	 * @param source The source iterable
+	 * @param predicate Condition to include an element
+	 * @param <T> Type of the elements
+	 * @return The (fused) iterable
+	 */
+	public static <T> Iterable<T> where(Iterable<T> source, Predicate<T> predicate) {
+		LazyFusedIterable<?, T> fused = asFused(source);
+		return fused == null ? new LazyWhereIterable<T>(source, predicate) : fused.<T>append(new Stage(WHERE, predicate, null, 0));
+	}
+
+	/**
+	 * Return an iterable which contains the transformed elements of source
+	 * @param source The source iterable
+	 * @param selector Function to transform the elements
+	 * @param <TIn> Source type
+	 * @param <TOut> Target type
+	 * @return The (fused) iterable
+	 */
+	public static <TIn, TOut> Iterable<TOut> select(Iterable<TIn> source, Selector<TIn, TOut> selector) {
+		LazyFusedIterable<?, TIn> fused = asFused(source);
+		return fused == null ? new LazySelectIterable<TIn, TOut>(source, selector) : fused.<TOut>append(new Stage(SELECT, null, selector, 0));
+	}
+
+	/**
+	 * Return an iterable which contains the first amount elements of source
+	 * @param source The source iterable
+	 * @param amount Number of elements to take
+	 * @param <T> Type of the elements
+	 * @return The (fused) iterable
+	 */
+	public static <T> Iterable<T> take(Iterable<T> source, int amount) {
+		LazyFusedIterable<?, T> fused = asFused(source);
+		return fused == null ? new LazyTakeIterable<T>(source, amount) : fused.<T>append(new Stage(TAKE, null, null, amount));
+	}
+
+	/**
+	 * Return an iterable which contains the elements of source as long as they satisfy the condition
+	 * @param source The source iterable
+	 * @param condition Condition to take an element
+	 * @param <T> Type of the elements
+	 * @return The (fused) iterable
+	 */
+	public static <T> Iterable<T> takeWhile(Iterable<T> source, Predicate<T> condition) {
+		LazyFusedIterable<?, T> fused = asFused(source);
+		return fused == null ? new LazyTakeIterable<T>(source, condition) : fused.<T>append(new Stage(TAKE_WHILE, condition, null, 0));
+	}
+
+	/**
+	 * Return an iterable which skips the first amount elements of source
+	 * @param source The source iterable
+	 * @param amount Number of elements to skip
+	 * @param <T> Type of the elements
+	 * @return The (fused) iterable
+	 */
+	public static <T> Iterable<T> skip(Iterable<T> source, int amount) {
+		LazyFusedIterable<?, T> fused = asFused(source);
+		return fused == null ? new LazySkipIterable<T>(source, amount) : fused.<T>append(new Stage(SKIP, null, null, amount));
+	}
+
+	/**
+	 * Return an iterable which skips the elements of source as long as they satisfy the condition
+	 * @param source The source iterable
+	 * @param condition Condition to skip an element
+	 * @param <T> Type of the elements
+	 * @return The (fused) iterable
+	 */
+	public static <T> Iterable<T> skipWhile(Iterable<T> source, Predicate<T> condition) {
+		LazyFusedIterable<?, T> fused = asFused(source);
+		return fused == null ? new LazySkipIterable<T>(source, condition) : fused.<T>append(new Stage(SKIP_WHILE, condition, null, 0));
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new LazyFusedIterator<T>(wrapped.iterator(), new FusedState(stages));
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		// a selector may return null which ends the sequence, so that not even
+		// a chain of selects keeps the size of the source
+		return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+	}
+
+	@Override
+	public boolean push(Sink<? super T> sink) {
+		final FusedState state = new FusedState(stages);
+		if (state.finished)
+			return true;
+
+		return new StageSink<Object, T>(sink) {
+			@Override
+			public boolean accept(Object element) {
+				Object result = state.process(element);
+				if (result == FusedState.DROPPED)
+					return !state.finished || end();
+
+				return emit((T)result) && (!state.finished || end());
+			}
+		}.pushFrom((Iterable<Object>)wrapped);
+	}
+}
+
+/**
+ * A single stage of a fused iterable
+ */
+class Stage {
+	int kind;
+	Predicate predicate;
+	Selector selector;
+	int amount;
+
+	public Stage(int _kind, Predicate _predicate, Selector _selector, int _amount) {
+		kind = _kind;
+		predicate = _predicate;
+		selector = _selector;
+		amount = _amount;
+	}
+}
+
+/**
+ * The state of one enumeration of a fused iterable
+ * Passes the elements through all stages
+ */
+@SuppressWarnings("unchecked")
+class FusedState {
+
+	/**
+	 * Returned by process() if the element has been filtered by a stage
+	 */
+	static final Object DROPPED = new Object();
+
+	Stage[] stages;
+	// number of elements taken/skipped per stage
+	int[] counters;
+	// indicates if a stage requested to end the sequence
+	boolean finished = false;
+
+	public FusedState(Stage[] _stages) {
+		stages = _stages;
+		counters = new int[stages.length];
+
+		// a take stage with nothing to take ends the sequence before
+		// any element is requested from the source
+		for (Stage stage : stages)
+			if (stage.kind == LazyFusedIterable.TAKE && stage.amount <= 0)
+				finished = true;
+	}
+
+	/**
+	 * Pass the given element through all stages
+	 * Returns the resulting element or DROPPED
+	 * (the result may be null which, as with the LazyIterator, ends the sequence)
+	 */
+	public Object process(Object element) {
+		for (int i = 0; i < stages.length; i++) {
+			Stage stage = stages[i];
+
+			switch (stage.kind) {
+				case LazyFusedIterable.WHERE:
+					if (!stage.predicate.evaluate(element))
+						return DROPPED;
+					break;
+				case LazyFusedIterable.SELECT:
+					element = stage.selector.select(element);
+					break;
+				case LazyFusedIterable.TAKE:
+					counters[i]++;
+					// do not request more elements from the source once we have taken enough
+					if (counters[i] >= stage.amount)
+						finished = true;
+					break;
+				case LazyFusedIterable.TAKE_WHILE:
+					if (!stage.predicate.evaluate(element)) {
+						finished = true;
+						return DROPPED;
+					}
+					break;
+				case LazyFusedIterable.SKIP:
+					if (counters[i] < stage.amount) {
+						counters[i]++;
+						return DROPPED;
+					}
+					break;
+				case LazyFusedIterable.SKIP_WHILE:
+					if (counters[i] == 0) {
+						if (stage.predicate.evaluate(element))
+							return DROPPED;
+						// skipping is done
+						counters[i] = 1;
+					}
+					break;
+			}
+
+			// a null element ends the sequence (the following stages
+			// would never have been asked for another element)
+			if (element == null) {
+				finished = true;
+				return null;
+			}
+		}
+
+		return element;
+	}
+}
+
+class LazyFusedIterator<T> extends LazyIterator<T> {
+
+	Iterator<?> wrapped;
+	FusedState state;
+
+	public LazyFusedIterator(Iterator<?> _wrapped, FusedState _state) {
+		wrapped = _wrapped;
+		state = _state;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	protected T findNextElement() {
+		while (!state.finished && wrapped.hasNext()) {
+			Object element = state.process(wrapped.next());
+			if (element != FusedState.DROPPED)
+				return (T)element;
+		}
+
+		return null;
+	}
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.function.Function;
+
+import de.renebergelt.quiterables.grouping.Group;
+import de.renebergelt.quiterables.grouping.GroupFunction;
+import de.renebergelt.quiterables.grouping.GroupKey;
+
+/**
+ * Iterable which returns each run of consecutive elements with the same group key
+ * of the wrapped iterable as a group using lazy evaluation
+ * (only the current run is kept in memory, so for a source which is ordered by the key
+ * this returns the same groups as a hash-based grouping)
+ * @param <T> Type of the grouped elements
+ * @author René Bergelt
+ */
+public class LazyGroupAdjacentIterable<T> implements Iterable<Group<T>> {
+
+	Iterable<T> wrapped;
+	GroupFunction<T> func;
+	Function<GroupKey, Group<T>> groupFactory;
+
+	/**
+	 * Create a new lazy adjacent grouping iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _func Function to group elements by
+	 * @param _groupFactory Function which creates an empty group for a key
+	 */
+	public LazyGroupAdjacentIterable(Iterable<T> _wrapped, GroupFunction<T> _func, Function<GroupKey, Group<T>> _groupFactory) {
+		wrapped = _wrapped;
+		func = _func;
+		groupFactory = _groupFactory;
+	}
+
+	@Override
+	public Iterator<Group<T>> iterator() {
+		return new LazyGroupAdjacentIterator<T>(wrapped.iterator(), func, groupFactory);
+	}
+}
+
+class LazyGroupAdjacentIterator<T> extends LazyIterator<Group<T>> {
+
+	Iterator<T> wrapped;
+	GroupFunction<T> func;
+	Function<GroupKey, Group<T>> groupFactory;
+
+	// the first element of the next run which has already been read
+	T pending;
+	GroupKey pendingKey;
+	boolean hasPending = false;
+
+	public LazyGroupAdjacentIterator(Iterator<T> _wrapped, GroupFunction<T> _func, Function<GroupKey, Group<T>> _groupFactory) {
+		wrapped = _wrapped;
+		func = _func;
+		groupFactory = _groupFactory;
+	}
+
+	@Override
+	protected Group<T> findNextElement() {
+		if (!hasPending) {
+			if (!wrapped.hasNext())
+				return null;
+
+			pending = wrapped.next();
+			pendingKey = func.getKeyFor(pending);
+		}
+
+		Group<T> group = groupFactory.apply(pendingKey);
+		group.add(pending);
+		hasPending = false;
+		pending = null;
+
+		while (wrapped.hasNext()) {
+			T element = wrapped.next();
+			GroupKey key = func.getKeyFor(element);
+			if (!Objects.equals(key, group.getKey())) {
+				// this element starts the next run
+				pending = element;
+				pendingKey = key;
+				hasPending = true;
+				break;
+			}
+
+			group.add(element);
+		}
+
+		return group;
+	}
+}
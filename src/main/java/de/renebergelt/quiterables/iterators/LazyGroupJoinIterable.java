@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import de.renebergelt.quiterables.ItemFunc;
+import de.renebergelt.quiterables.JoinSelector;
+import de.renebergelt.quiterables.Queriable;
+import de.renebergelt.quiterables.Query;
+import de.renebergelt.quiterables.Selector;
+
+/**
+ * Iterable which combines each element of an outer iterable with all elements
+ * of an inner iterable with a matching key using lazy evaluation
+ * (the inner iterable is put into a hash table once per enumeration)
+ * @param <TOuter> Type of the elements of the outer iterable
+ * @param <TInner> Type of the elements of the inner iterable
+ * @param <TKey> Type of the keys
+ * @param <TResult> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+public class LazyGroupJoinIterable<TOuter, TInner, TKey, TResult> implements PushIterable<TResult> {
+
+	Iterable<TOuter> outer;
+	Iterable<TInner> inner;
+	ItemFunc<TOuter, TKey> outerKeySelector;
+	ItemFunc<TInner, TKey> innerKeySelector;
+	JoinSelector<TOuter, Queriable<TInner>, TResult> resultSelector;
+
+	/**
+	 * Create a new lazy group join iterable
+	 * @param _outer The outer iterable
+	 * @param _inner The inner iterable (which is hashed)
+	 * @param _outerKeySelector Function to retrieve the key of an outer element
+	 * @param _innerKeySelector Function to retrieve the key of an inner element
+	 * @param _resultSelector Function to combine an outer element with its (possibly empty) group of matching inner elements
+	 */
+	public LazyGroupJoinIterable(Iterable<TOuter> _outer, Iterable<TInner> _inner, ItemFunc<TOuter, TKey> _outerKeySelector,
+			ItemFunc<TInner, TKey> _innerKeySelector, JoinSelector<TOuter, Queriable<TInner>, TResult> _resultSelector) {
+		outer = _outer;
+		inner = _inner;
+		outerKeySelector = _outerKeySelector;
+		innerKeySelector = _innerKeySelector;
+		resultSelector = _resultSelector;
+	}
+
+	/**
+	 * Return the selector which combines an outer element with its group
+	 */
+	private Selector<TOuter, TResult> createSelector() {
+		final Map<TKey, List<TInner>> lookup = LazyJoinIterable.buildLookup(inner, innerKeySelector);
+
+		return x -> {
+			TKey key = outerKeySelector.exec(x);
+			List<TInner> matches = key == null ? null : lookup.get(key);
+			return resultSelector.select(x, Query.list(matches == null ? new ArrayList<TInner>(0) : matches));
+		};
+	}
+
+	@Override
+	public Iterator<TResult> iterator() {
+		return new LazySelectIterator<TOuter, TResult>(outer.iterator(), createSelector());
+	}
+
+	@Override
+	public boolean push(Sink<? super TResult> sink) {
+		return new LazySelectIterable<TOuter, TResult>(outer, createSelector()).push(sink);
+	}
+}
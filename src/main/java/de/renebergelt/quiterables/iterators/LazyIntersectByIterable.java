@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import de.renebergelt.quiterables.ItemFunc;
+import de.renebergelt.quiterables.Predicate;
+
+/**
+ * Iterable which returns the elements of a source iterable whose key
+ * is (or is not) contained in a given set of keys using lazy evaluation
+ * (the keys are put into a hash set once per enumeration)
+ * @param <T> Type of the elements in this Iterable
+ * @param <TKey> Type of the keys
+ * @author René Bergelt
+ */
+public class LazyIntersectByIterable<T, TKey> implements PushIterable<T> {
+
+	Iterable<T> wrapped;
+	Iterable<TKey> keys;
+	ItemFunc<T, TKey> keySelector;
+	// if true, the elements whose key is not contained are returned
+	boolean except;
+
+	/**
+	 * Create a new lazy intersectBy iterable which wraps the given iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _keys The keys to intersect with
+	 * @param _keySelector Function to retrieve the key of an element
+	 */
+	public LazyIntersectByIterable(Iterable<T> _wrapped, Iterable<TKey> _keys, ItemFunc<T, TKey> _keySelector) {
+		this(_wrapped, _keys, _keySelector, false);
+	}
+
+	/**
+	 * Create a new lazy intersectBy or exceptBy iterable which wraps the given iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _keys The keys to intersect with or to remove
+	 * @param _keySelector Function to retrieve the key of an element
+	 * @param _except True to return the elements whose key is not contained in keys
+	 */
+	public LazyIntersectByIterable(Iterable<T> _wrapped, Iterable<TKey> _keys, ItemFunc<T, TKey> _keySelector, boolean _except) {
+		wrapped = _wrapped;
+		keys = _keys;
+		keySelector = _keySelector;
+		except = _except;
+	}
+
+	/**
+	 * Return the condition to include an element
+	 */
+	private Predicate<T> createCondition() {
+		final Set<TKey> keySet = new HashSet<TKey>();
+		for(TKey key: keys)
+			keySet.add(key);
+
+		return x -> keySet.contains(keySelector.exec(x)) != except;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new LazyWhereIterator<T>(wrapped.iterator(), createCondition());
+	}
+
+	@Override
+	public boolean push(Sink<? super T> sink) {
+		return new LazyWhereIterable<T>(wrapped, createCondition()).push(sink);
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import de.renebergelt.quiterables.Equivalence;
+import de.renebergelt.quiterables.HashingEquivalence;
+import de.renebergelt.quiterables.Predicate;
+
+/**
+ * Iterable which returns the elements of a source iterable which are
+ * also contained in a second iterable using lazy evaluation
+ * (the elements of the second iterable are put into a hash set once per enumeration,
+ * unless a plain Equivalence is used which does not provide hash codes)
+ * @param <T> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+public class LazyIntersectIterable<T> implements PushIterable<T> {
+
+	Iterable<T> wrapped;
+	Iterable<T> intersectWith;
+	Equivalence<T> equalityComparer;
+
+	/**
+	 * Create a new lazy intersect iterable which wraps the given iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _intersectWith The elements to intersect with
+	 */
+	public LazyIntersectIterable(Iterable<T> _wrapped, Iterable<T> _intersectWith) {
+		wrapped = _wrapped;
+		intersectWith = _intersectWith;
+	}
+
+	/**
+	 * Create a new lazy intersect iterable which wraps the given iterable
+	 * using the given equality comparer
+	 * @param _wrapped The wrapped iterable
+	 * @param _intersectWith The elements to intersect with
+	 * @param _equalityComparer Comparer to decide if two elements are equal
+	 */
+	public LazyIntersectIterable(Iterable<T> _wrapped, Iterable<T> _intersectWith, Equivalence<T> _equalityComparer) {
+		this(_wrapped, _intersectWith);
+		equalityComparer = _equalityComparer;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new LazyWhereIterator<T>(wrapped.iterator(), containedIn(intersectWith, equalityComparer));
+	}
+
+	@Override
+	public boolean push(Sink<? super T> sink) {
+		return new LazyWhereIterable<T>(wrapped, containedIn(intersectWith, equalityComparer)).push(sink);
+	}
+
+	/**
+	 * Return a predicate which tests if an element is contained in the given elements
+	 * @param elements The elements to test against
+	 * @param equalityComparer Comparer to decide if two elements are equal or null to use equals()
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> Predicate<T> containedIn(Iterable<T> elements, final Equivalence<T> equalityComparer) {
+		if (equalityComparer == null || equalityComparer instanceof HashingEquivalence) {
+			final HashingEquivalence<T> hashing = (HashingEquivalence<T>)equalityComparer;
+			final Set<Object> set = new HashSet<Object>();
+			for(T element: elements)
+				set.add(EquivalenceKey.of(element, hashing));
+			return x -> set.contains(EquivalenceKey.of(x, hashing));
+		}
+
+		// we cannot hash elements using a plain equivalence
+		final List<T> list = new ArrayList<T>();
+		for(T element: elements)
+			list.add(element);
+
+		return x -> {
+			for(T item: list)
+				if (equalityComparer.areEqual(x, item))
+					return true;
+			return false;
+		};
+	}
+}
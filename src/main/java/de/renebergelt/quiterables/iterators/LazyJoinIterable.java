@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import de.renebergelt.quiterables.ItemFunc;
+import de.renebergelt.quiterables.JoinSelector;
+
+/**
+ * Iterable which returns the combination of all elements of an outer and an inner iterable
+ * with matching keys (hash join) using lazy evaluation
+ * (the inner iterable is put into a hash table once per enumeration, the outer iterable
+ * is streamed so that the result has the order of the outer iterable)
+ * @param <TOuter> Type of the elements of the outer iterable
+ * @param <TInner> Type of the elements of the inner iterable
+ * @param <TKey> Type of the keys
+ * @param <TResult> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+public class LazyJoinIterable<TOuter, TInner, TKey, TResult> implements PushIterable<TResult> {
+
+	Iterable<TOuter> outer;
+	Iterable<TInner> inner;
+	ItemFunc<TOuter, TKey> outerKeySelector;
+	ItemFunc<TInner, TKey> innerKeySelector;
+	JoinSelector<TOuter, TInner, TResult> resultSelector;
+
+	/**
+	 * Create a new lazy join iterable
+	 * @param _outer The outer iterable
+	 * @param _inner The inner iterable (which is hashed)
+	 * @param _outerKeySelector Function to retrieve the key of an outer element
+	 * @param _innerKeySelector Function to retrieve the key of an inner element
+	 * @param _resultSelector Function to combine two matching elements
+	 */
+	public LazyJoinIterable(Iterable<TOuter> _outer, Iterable<TInner> _inner, ItemFunc<TOuter, TKey> _outerKeySelector,
+			ItemFunc<TInner, TKey> _innerKeySelector, JoinSelector<TOuter, TInner, TResult> _resultSelector) {
+		outer = _outer;
+		inner = _inner;
+		outerKeySelector = _outerKeySelector;
+		innerKeySelector = _innerKeySelector;
+		resultSelector = _resultSelector;
+	}
+
+	/**
+	 * Put the given elements into a hash table by their key
+	 * (elements with a null key are left out since they never match)
+	 */
+	static <T, TKey> Map<TKey, List<T>> buildLookup(Iterable<T> elements, ItemFunc<T, TKey> keySelector) {
+		Map<TKey, List<T>> lookup = new HashMap<TKey, List<T>>();
+		for(T element: elements) {
+			TKey key = keySelector.exec(element);
+			if (key == null)
+				continue;
+
+			List<T> list = lookup.get(key);
+			if (list == null) {
+				list = new ArrayList<T>(1);
+				lookup.put(key, list);
+			}
+			list.add(element);
+		}
+		return lookup;
+	}
+
+	@Override
+	public Iterator<TResult> iterator() {
+		return new LazyJoinIterator<TOuter, TInner, TKey, TResult>(outer.iterator(), buildLookup(inner, innerKeySelector), outerKeySelector, resultSelector);
+	}
+
+	@Override
+	public boolean push(Sink<? super TResult> sink) {
+		final Map<TKey, List<TInner>> lookup = buildLookup(inner, innerKeySelector);
+
+		return new StageSink<TOuter, TResult>(sink) {
+			@Override
+			public boolean accept(TOuter element) {
+				TKey key = outerKeySelector.exec(element);
+				List<TInner> matches = key == null ? null : lookup.get(key);
+				if (matches != null)
+					for(TInner match: matches)
+						if (!emit(resultSelector.select(element, match)))
+							return false;
+				return true;
+			}
+		}.pushFrom(outer);
+	}
+}
+
+class LazyJoinIterator<TOuter, TInner, TKey, TResult> extends LazyIterator<TResult> {
+
+	Iterator<TOuter> outer;
+	Map<TKey, List<TInner>> lookup;
+	ItemFunc<TOuter, TKey> outerKeySelector;
+	JoinSelector<TOuter, TInner, TResult> resultSelector;
+
+	// the current outer element and its matches
+	TOuter currentOuter;
+	List<TInner> currentMatches;
+	int matchIndex;
+
+	public LazyJoinIterator(Iterator<TOuter> _outer, Map<TKey, List<TInner>> _lookup, ItemFunc<TOuter, TKey> _outerKeySelector,
+			JoinSelector<TOuter, TInner, TResult> _resultSelector) {
+		outer = _outer;
+		lookup = _lookup;
+		outerKeySelector = _outerKeySelector;
+		resultSelector = _resultSelector;
+	}
+
+	@Override
+	protected TResult findNextElement() {
+		while (currentMatches == null || matchIndex >= currentMatches.size()) {
+			if (!outer.hasNext())
+				return null;
+
+			currentOuter = outer.next();
+			TKey key = outerKeySelector.exec(currentOuter);
+			currentMatches = key == null ? null : lookup.get(key);
+			matchIndex = 0;
+		}
+
+		return resultSelector.select(currentOuter, currentMatches.get(matchIndex++));
+	}
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+import de.renebergelt.quiterables.ItemFunc;
+import de.renebergelt.quiterables.JoinSelector;
+
+/**
+ * Iterable which returns the combination of all elements of an outer and an inner iterable
+ * with matching keys using lazy evaluation
+ * Both iterables have to be ordered by their keys (sort-merge join), so that
+ * only the inner elements of the current key have to be kept in memory
+ * @param <TOuter> Type of the elements of the outer iterable
+ * @param <TInner> Type of the elements of the inner iterable
+ * @param <TKey> Type of the keys
+ * @param <TResult> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+public class LazyMergeJoinIterable<TOuter, TInner, TKey, TResult> implements Iterable<TResult> {
+
+	Iterable<TOuter> outer;
+	Iterable<TInner> inner;
+	ItemFunc<TOuter, TKey> outerKeySelector;
+	ItemFunc<TInner, TKey> innerKeySelector;
+	Comparator<? super TKey> keyComparator;
+	JoinSelector<TOuter, TInner, TResult> resultSelector;
+
+	/**
+	 * Create a new lazy merge join iterable
+	 * @param _outer The outer iterable (ordered by its keys)
+	 * @param _inner The inner iterable (ordered by its keys)
+	 * @param _outerKeySelector Function to retrieve the key of an outer element
+	 * @param _innerKeySelector Function to retrieve the key of an inner element
+	 * @param _keyComparator The comparator the keys are ordered by
+	 * @param _resultSelector Function to combine two matching elements
+	 */
+	public LazyMergeJoinIterable(Iterable<TOuter> _outer, Iterable<TInner> _inner, ItemFunc<TOuter, TKey> _outerKeySelector,
+			ItemFunc<TInner, TKey> _innerKeySelector, Comparator<? super TKey> _keyComparator, JoinSelector<TOuter, TInner, TResult> _resultSelector) {
+		outer = _outer;
+		inner = _inner;
+		outerKeySelector = _outerKeySelector;
+		innerKeySelector = _innerKeySelector;
+		keyComparator = _keyComparator;
+		resultSelector = _resultSelector;
+	}
+
+	@Override
+	public Iterator<TResult> iterator() {
+		return new LazyMergeJoinIterator<TOuter, TInner, TKey, TResult>(this);
+	}
+}
+
+class LazyMergeJoinIterator<TOuter, TInner, TKey, TResult> extends LazyIterator<TResult> {
+
+	LazyMergeJoinIterable<TOuter, TInner, TKey, TResult> join;
+	Iterator<TOuter> outer;
+	Iterator<TInner> inner;
+
+	// the next inner element which has not been added to the current run yet
+	TInner nextInner;
+	TKey nextInnerKey;
+	boolean hasNextInner;
+
+	// the inner elements with the key of the current run
+	List<TInner> run = new ArrayList<TInner>();
+	TKey runKey;
+
+	TOuter currentOuter;
+	TKey lastOuterKey;
+	boolean hasLastOuterKey = false;
+	int runIndex;
+
+	public LazyMergeJoinIterator(LazyMergeJoinIterable<TOuter, TInner, TKey, TResult> _join) {
+		join = _join;
+		outer = join.outer.iterator();
+		inner = join.inner.iterator();
+		advanceInner();
+	}
+
+	/**
+	 * Move to the next inner element
+	 * (elements with a null key are skipped since they never match)
+	 */
+	private void advanceInner() {
+		TKey previousKey = nextInnerKey;
+		boolean hadPrevious = hasNextInner;
+
+		hasNextInner = false;
+		while (inner.hasNext()) {
+			TInner element = inner.next();
+			TKey key = join.innerKeySelector.exec(element);
+			if (key == null)
+				continue;
+
+			if (hadPrevious && join.keyComparator.compare(previousKey, key) > 0)
+				throw new IllegalStateException("The inner sequence of a merge join is not ordered by its key.");
+
+			nextInner = element;
+			nextInnerKey = key;
+			hasNextInner = true;
+			return;
+		}
+	}
+
+	/**
+	 * Fill the run with all inner elements with the given key
+	 * (skipping all inner elements with lower keys)
+	 */
+	private void seekRun(TKey key) {
+		if (!run.isEmpty() && join.keyComparator.compare(runKey, key) == 0)
+			// the run can be reused for consecutive outer elements with the same key
+			return;
+
+		run.clear();
+		runKey = key;
+
+		while (hasNextInner && join.keyComparator.compare(nextInnerKey, key) < 0)
+			advanceInner();
+
+		while (hasNextInner && join.keyComparator.compare(nextInnerKey, key) == 0) {
+			run.add(nextInner);
+			advanceInner();
+		}
+	}
+
+	@Override
+	protected TResult findNextElement() {
+		while (runIndex >= run.size() || currentOuter == null) {
+			if (!outer.hasNext())
+				return null;
+
+			currentOuter = outer.next();
+			TKey key = join.outerKeySelector.exec(currentOuter);
+			if (key == null)
+				// null keys never match
+				continue;
+
+			if (hasLastOuterKey && join.keyComparator.compare(lastOuterKey, key) > 0)
+				throw new IllegalStateException("The outer sequence of a merge join is not ordered by its key.");
+			lastOuterKey = key;
+			hasLastOuterKey = true;
+
+			seekRun(key);
+			runIndex = 0;
+		}
+
+		return join.resultSelector.select(currentOuter, run.get(runIndex++));
+	}
+}
@@ -25,12 +25,20 @@
  *******************************************************************************/
 package de.renebergelt.quiterables.iterators;
 
+import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
+import de.renebergelt.quiterables.ElementSerializer;
 import de.renebergelt.quiterables.ItemFunc;
 import de.renebergelt.quiterables.SortOrder;
 
@@ -46,7 +54,13 @@ public class LazyOrderIterable<T, TComparable> implements Iterable<T> {
 	Iterable<T> wrapped;		
 	List<OrderFunc> orderFuncs;
 
-	List<T> sortedList;
+	// if set, the elements are sorted in parallel using this pool
+	ForkJoinPool parallelSortPool;
+
+	// if set, runs of at most maxElementsInMemory elements are sorted and spilled to disk
+	ElementSerializer<T> externalSortSerializer;
+	int maxElementsInMemory;
+	File externalSortDirectory;
 	
 	static final NaturalComparator defaultComparator = new NaturalComparator();
 
@@ -73,6 +87,32 @@ public class LazyOrderIterable<T, TComparable> implements Iterable<T> {
 	public LazyOrderIterable(Iterable<T> _wrapped, ItemFunc<T, Comparable> valueFunc, SortOrder sortOrder) {
 		this(_wrapped, valueFunc, defaultComparator, sortOrder);
 	}		
+
+	/**
+	 * Creates a LazyOrderIterable which orders by a primitive long key
+	 * (if all order functions return primitive keys, the elements are sorted using a radix sort)
+	 * @param _wrapped The iterable which will be wrapped (and sorted)
+	 * @param keyFunc The function to retrieve the key of an element
+	 * @param sortOrder The sort order
+	 */
+	public LazyOrderIterable(Iterable<T> _wrapped, ToLongFunction<T> keyFunc, SortOrder sortOrder) {
+		wrapped = _wrapped;
+		orderFuncs = new ArrayList<OrderFunc>();
+		orderFuncs.add(PrimitiveOrderFunc.ofLong(keyFunc, sortOrder));
+	}
+
+	/**
+	 * Creates a LazyOrderIterable which orders by a primitive double key
+	 * (if all order functions return primitive keys, the elements are sorted using a radix sort)
+	 * @param _wrapped The iterable which will be wrapped (and sorted)
+	 * @param keyFunc The function to retrieve the key of an element
+	 * @param sortOrder The sort order
+	 */
+	public LazyOrderIterable(Iterable<T> _wrapped, ToDoubleFunction<T> keyFunc, SortOrder sortOrder) {
+		wrapped = _wrapped;
+		orderFuncs = new ArrayList<OrderFunc>();
+		orderFuncs.add(PrimitiveOrderFunc.ofDouble(keyFunc, sortOrder));
+	}
 	
 	/**
 	 * Adds a secondary ordering function which is used to compare elements
@@ -96,41 +136,223 @@ public class LazyOrderIterable<T, TComparable> implements Iterable<T> {
 		orderFuncs.add(new OrderFunc(func, comparator, sortOrder));
 	}	
 
+	/**
+	 * Add a secondary ordering function with a primitive long key
+	 * @param keyFunc The function to retrieve the key of an element
+	 * @param sortOrder The sort order
+	 */
+	public void addSecondaryLongOrderFunction(ToLongFunction<T> keyFunc, SortOrder sortOrder) {
+		orderFuncs.add(PrimitiveOrderFunc.ofLong(keyFunc, sortOrder));
+	}
+
+	/**
+	 * Add a secondary ordering function with a primitive double key
+	 * @param keyFunc The function to retrieve the key of an element
+	 * @param sortOrder The sort order
+	 */
+	public void addSecondaryDoubleOrderFunction(ToDoubleFunction<T> keyFunc, SortOrder sortOrder) {
+		orderFuncs.add(PrimitiveOrderFunc.ofDouble(keyFunc, sortOrder));
+	}
+
+	/**
+	 * Sort the elements in parallel using the given pool
+	 * @param pool The pool to use or null to sort sequentially
+	 */
+	public void setParallelSortPool(ForkJoinPool pool) {
+		parallelSortPool = pool;
+	}
+
+	/**
+	 * Sort the elements with an external merge sort which keeps at most
+	 * maxElementsInMemory elements in memory and writes the sorted runs to temporary files
+	 * @param serializer The serializer for the elements or null to sort in memory
+	 * @param _maxElementsInMemory The maximum number of elements which are sorted in memory at once
+	 * @param directory The directory for the temporary files or null for the default temp directory
+	 */
+	public void setExternalSort(ElementSerializer<T> serializer, int _maxElementsInMemory, File directory) {
+		if (serializer != null && _maxElementsInMemory <= 0)
+			throw new IllegalArgumentException("maxElementsInMemory must be greater than zero");
+
+		externalSortSerializer = serializer;
+		maxElementsInMemory = _maxElementsInMemory;
+		externalSortDirectory = directory;
+	}
+
+	/**
+	 * Return if the given number of elements may be kept in memory
+	 * (false if it exceeds the limit of the external sort)
+	 * @param count The number of elements
+	 * @return True if the elements may be kept in memory
+	 */
+	public boolean fitsInMemory(long count) {
+		return externalSortSerializer == null || count <= maxElementsInMemory;
+	}
+
+	/**
+	 * Return the comparator which compares two elements using all order functions
+	 * of this iterable
+	 * @return The comparator
+	 */
+	public Comparator<T> getComparator() {
+		return new Comparator<T>() {
+			
+			@Override
+			public int compare(T item1, T item2) {					
+				
+				int result = 0;
+				
+				for(OrderFunc f: orderFuncs) {
+					
+					result = f.compare(item1, item2);
+																
+					if (result != 0)
+						return result;
+
+					// if the to elements are considered equal
+					// continue with the next order func
+				}
+				
+				return result;
+			}
+		};
+	}
+
+	/**
+	 * Create a sort entry for the given element which holds the keys
+	 * of all order functions (so that each order function is only evaluated once per element)
+	 */
+	SortEntry<T> createEntry(T element, long index) {
+		Object[] keys = new Object[orderFuncs.size()];
+		for(int i = 0; i < keys.length; i++)
+			keys[i] = orderFuncs.get(i).key(element);
+		return new SortEntry<T>(element, keys, index);
+	}
+
+	/**
+	 * Return the comparator which compares two sort entries using
+	 * their cached keys
+	 */
+	Comparator<SortEntry<T>> getEntryComparator() {
+		final OrderFunc[] funcs = orderFuncs.toArray(new OrderFunc[orderFuncs.size()]);
+		
+		return new Comparator<SortEntry<T>>() {
+			
+			@Override
+			public int compare(SortEntry<T> entry1, SortEntry<T> entry2) {
+				for(int i = 0; i < funcs.length; i++) {
+					int result = funcs[i].compareKeys(entry1.keys[i], entry2.keys[i]);
+					if (result != 0)
+						return result;
+				}
+				return 0;
+			}
+		};
+	}
+
 	@Override
 	public Iterator<T> iterator() {
 		// sort the elements now
+		// (the elements are sorted again for each iterator, so that changes of the source are reflected)
 		// TODO: use a lazy-sorting Iterator
 
-		if (sortedList == null) {
-			sortedList = new ArrayList<T>();
-			for(T element: wrapped)
-				sortedList.add(element);
+		if (externalSortSerializer != null)
+			return ExternalSort.sort(this, externalSortSerializer, maxElementsInMemory, externalSortDirectory);
 
-			Collections.sort(sortedList, new Comparator<T>() {
-				
-				@Override
-				public int compare(T item1, T item2) {					
-					
-					int result = 0;
-					
-					for(OrderFunc f: orderFuncs) {
-						
-						result = f.compare(item1, item2);
-																	
-						if (result != 0)
-							return result;
-
-						// if the to elements are considered equal
-						// continue with the next order func
-					}
-					
-					return result;
-				}
-			});
-		}
+		return sortToList().iterator();
+	}
 
-		return sortedList.iterator();
+	@Override
+	public Spliterator<T> spliterator() {
+		if (externalSortSerializer != null)
+			return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+
+		// the elements are sorted when the spliterator is first used
+		return new DeferredSpliterator<T>(() -> sortToList().spliterator(), Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED);
+	}
+
+	/**
+	 * Sort the elements in memory and return them as a new list
+	 */
+	private List<T> sortToList() {
+		if (hasOnlyPrimitiveKeys())
+			return radixSort();
+
+		// decorate the elements with their keys, sort and undecorate them again
+		List<SortEntry<T>> entries = new ArrayList<SortEntry<T>>();
+		long index = 0;
+		for(T element: wrapped)
+			entries.add(createEntry(element, index++));
+
+		entries = sortEntries(entries);
+
+		List<T> sortedList = new ArrayList<T>(entries.size());
+		for(SortEntry<T> entry: entries)
+			sortedList.add(entry.element);
+
+		return sortedList;
 	}	
+
+	/**
+	 * Sort the given entries (sequentially or in parallel)
+	 * @return The sorted entries (may be the given list)
+	 */
+	List<SortEntry<T>> sortEntries(List<SortEntry<T>> entries) {
+		// the sort is stable so we do not need to compare the index
+		if (parallelSortPool == null) {
+			Collections.sort(entries, getEntryComparator());
+			return entries;
+		}
+
+		return parallelSort(entries);
+	}
+
+	/**
+	 * Return if all order functions return primitive keys
+	 */
+	private boolean hasOnlyPrimitiveKeys() {
+		for(OrderFunc f: orderFuncs)
+			if (!(f instanceof PrimitiveOrderFunc))
+				return false;
+		return true;
+	}
+
+	/**
+	 * Sort the elements by their primitive keys using a radix sort
+	 * (no comparisons and no boxing of the keys are necessary)
+	 */
+	private List<T> radixSort() {
+		List<T> elements = new ArrayList<T>();
+		for(T element: wrapped)
+			elements.add(element);
+
+		int count = elements.size();
+		long[][] keys = new long[orderFuncs.size()][];
+		for(int level = 0; level < keys.length; level++) {
+			PrimitiveOrderFunc<T> f = (PrimitiveOrderFunc<T>)orderFuncs.get(level);
+			long[] levelKeys = new long[count];
+			for(int i = 0; i < count; i++)
+				levelKeys[i] = f.sortableKey(elements.get(i));
+			keys[level] = levelKeys;
+		}
+
+		int[] indices = RadixSort.sortIndices(keys, count);
+
+		List<T> sorted = new ArrayList<T>(count);
+		for(int i = 0; i < count; i++)
+			sorted.add(elements.get(indices[i]));
+		return sorted;
+	}
+
+	/**
+	 * Sort the given entries using the parallel sort pool
+	 * (ParallelMergeSort is a stable merge sort as well)
+	 */
+	private List<SortEntry<T>> parallelSort(List<SortEntry<T>> entries) {
+		final SortEntry<T>[] array = entries.toArray(new SortEntry[entries.size()]);
+		ParallelMergeSort.sort(array, getEntryComparator(), parallelSortPool);
+
+		return Arrays.asList(array);
+	}
 }
 
 /**
@@ -156,11 +378,73 @@ class OrderFunc<T, TComparable> {
 	 * @return Result of comparison
 	 */
 	public int compare(T element1, T element2) {			
-		int result = comparator.compare(func.exec(element1), func.exec(element2));															
+		return compareKeys(key(element1), key(element2));
+	}
+
+	/**
+	 * Return the key of the given element
+	 * @param element The element
+	 * @return The value to compare
+	 */
+	public Object key(T element) {
+		return func.exec(element);
+	}
+
+	/**
+	 * Compare two keys which have been returned by key()
+	 * @param key1 First key
+	 * @param key2 Second key
+	 * @return Result of comparison
+	 */
+	public int compareKeys(Object key1, Object key2) {
+		int result = comparator.compare(key1, key2);
 		return sortOrder == SortOrder.Ascending ? result : -result;
 	}
 }
 
+/**
+ * An order function which returns a primitive key
+ * The key is mapped to a long which can be compared as signed long
+ * (already taking the sort order into account)
+ */
+class PrimitiveOrderFunc<T> extends OrderFunc<T, Long> {
+
+	ToLongFunction<T> sortableKeyFunc;
+
+	private PrimitiveOrderFunc(ToLongFunction<T> _sortableKeyFunc, SortOrder _sortOrder) {
+		super(null, null, _sortOrder);
+		sortableKeyFunc = _sortableKeyFunc;
+	}
+
+	public static <T> PrimitiveOrderFunc<T> ofLong(final ToLongFunction<T> keyFunc, SortOrder sortOrder) {
+		return new PrimitiveOrderFunc<T>(keyFunc, sortOrder);
+	}
+
+	public static <T> PrimitiveOrderFunc<T> ofDouble(final ToDoubleFunction<T> keyFunc, SortOrder sortOrder) {
+		return new PrimitiveOrderFunc<T>(x -> RadixSort.sortableDouble(keyFunc.applyAsDouble(x)), sortOrder);
+	}
+
+	/**
+	 * Return the key of the given element as long
+	 * (the complement is used for descending order)
+	 */
+	public long sortableKey(T element) {
+		long key = sortableKeyFunc.applyAsLong(element);
+		return sortOrder == SortOrder.Ascending ? key : ~key;
+	}
+
+	@Override
+	public Object key(T element) {
+		return sortableKey(element);
+	}
+
+	@Override
+	public int compareKeys(Object key1, Object key2) {
+		// the sort order has already been applied to the keys
+		return Long.compare((Long)key1, (Long)key2);
+	}
+}
+
 /**
  * The default comparator used by the LazyOrderIterable	 
  */
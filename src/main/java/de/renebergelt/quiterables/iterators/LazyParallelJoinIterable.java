@@ -0,0 +1,329 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import de.renebergelt.quiterables.ItemFunc;
+import de.renebergelt.quiterables.JoinSelector;
+
+/**
+ * Iterable which returns the combination of all elements of an outer and an inner iterable
+ * with matching keys using a partitioned hash join which is executed in parallel
+ * Both sides are hash-partitioned by their keys, then the hash table of each partition is built
+ * and probed in its own task. The join is executed when the iterator is requested.
+ * @param <TOuter> Type of the elements of the outer iterable
+ * @param <TInner> Type of the elements of the inner iterable
+ * @param <TKey> Type of the keys
+ * @param <TResult> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+@SuppressWarnings("unchecked")
+public class LazyParallelJoinIterable<TOuter, TInner, TKey, TResult> implements Iterable<TResult> {
+
+	Iterable<TOuter> outer;
+	Iterable<TInner> inner;
+	ItemFunc<TOuter, TKey> outerKeySelector;
+	ItemFunc<TInner, TKey> innerKeySelector;
+	JoinSelector<TOuter, TInner, TResult> resultSelector;
+	ForkJoinPool pool;
+	boolean preserveOrder;
+
+	/**
+	 * Create a new lazy parallel join iterable
+	 * @param _outer The outer iterable
+	 * @param _inner The inner iterable
+	 * @param _outerKeySelector Function to retrieve the key of an outer element
+	 * @param _innerKeySelector Function to retrieve the key of an inner element
+	 * @param _resultSelector Function to combine two matching elements
+	 * @param _pool The pool to execute the join in
+	 * @param _preserveOrder If true, the result has the order of the outer iterable (as the sequential join)
+	 */
+	public LazyParallelJoinIterable(Iterable<TOuter> _outer, Iterable<TInner> _inner, ItemFunc<TOuter, TKey> _outerKeySelector,
+			ItemFunc<TInner, TKey> _innerKeySelector, JoinSelector<TOuter, TInner, TResult> _resultSelector,
+			ForkJoinPool _pool, boolean _preserveOrder) {
+		outer = _outer;
+		inner = _inner;
+		outerKeySelector = _outerKeySelector;
+		innerKeySelector = _innerKeySelector;
+		resultSelector = _resultSelector;
+		pool = _pool;
+		preserveOrder = _preserveOrder;
+	}
+
+	@Override
+	public Iterator<TResult> iterator() {
+		return execute().iterator();
+	}
+
+	/**
+	 * Execute the join and return the results
+	 */
+	public List<TResult> execute() {
+		final Object[] outerElements = toArray(outer);
+		final Object[] innerElements = toArray(inner);
+
+		int parallelism = Math.max(1, pool.getParallelism());
+		final int partitionCount = parallelism * 4;
+
+		final Partitioning outerPartitions = partition(outerElements, (ItemFunc<Object, Object>)outerKeySelector, partitionCount, parallelism);
+		final Partitioning innerPartitions = partition(innerElements, (ItemFunc<Object, Object>)innerKeySelector, partitionCount, parallelism);
+
+		// join each partition in its own task
+		// (the partitions access disjoint elements of innerNext)
+		final int[] innerNext = new int[innerElements.length];
+		final PartitionResult[] results = new PartitionResult[partitionCount];
+
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(int p = 0; p < partitionCount; p++) {
+			final int partition = p;
+			tasks.add(() -> {
+				results[partition] = joinPartition(partition, outerElements, outerPartitions, innerElements, innerPartitions, innerNext);
+				return null;
+			});
+		}
+		runAll(tasks);
+
+		return preserveOrder ? combineOrdered(results, outerElements.length) : combine(results);
+	}
+
+	/**
+	 * Build the hash table of the inner elements of the given partition and probe it
+	 * with the outer elements of the partition
+	 */
+	private PartitionResult joinPartition(int partition, Object[] outerElements, Partitioning outerPartitions,
+			Object[] innerElements, Partitioning innerPartitions, int[] innerNext) {
+		PartitionResult result = new PartitionResult();
+
+		int innerStart = innerPartitions.partitionStart[partition];
+		int innerEnd = innerPartitions.partitionStart[partition + 1];
+		int outerStart = outerPartitions.partitionStart[partition];
+		int outerEnd = outerPartitions.partitionStart[partition + 1];
+
+		if (innerStart == innerEnd || outerStart == outerEnd)
+			return result;
+
+		// the matching inner elements of a key are chained using innerNext
+		// (inserting them in reverse order keeps the order of the inner sequence)
+		Map<Object, Integer> table = new HashMap<Object, Integer>();
+		for(int k = innerEnd - 1; k >= innerStart; k--) {
+			int index = innerPartitions.order[k];
+			Integer head = table.put(innerPartitions.keys[index], index);
+			innerNext[index] = head == null ? -1 : head;
+		}
+
+		for(int k = outerStart; k < outerEnd; k++) {
+			int index = outerPartitions.order[k];
+			Integer head = table.get(outerPartitions.keys[index]);
+			if (head == null)
+				continue;
+
+			for(int j = head; j != -1; j = innerNext[j])
+				result.add(index, resultSelector.select((TOuter)outerElements[index], (TInner)innerElements[j]));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Hash-partition the given elements by their keys
+	 * (the elements of a partition stay in the order of the source; elements with a null key
+	 * are left out since they never match)
+	 */
+	private Partitioning partition(final Object[] elements, final ItemFunc<Object, Object> keySelector, final int partitionCount, int parallelism) {
+		final Partitioning partitioning = new Partitioning();
+		final int count = elements.length;
+		partitioning.keys = new Object[count];
+		partitioning.order = new int[count];
+
+		final int[] partitionOf = new int[count];
+		final int chunkCount = Math.max(1, Math.min(count, parallelism * 4));
+		final int chunkSize = (count + chunkCount - 1) / Math.max(1, chunkCount);
+		final int[][] chunkCounts = new int[chunkCount][partitionCount];
+
+		// compute the keys and the size of each partition per chunk
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(int c = 0; c < chunkCount; c++) {
+			final int chunk = c;
+			tasks.add(() -> {
+				int[] counts = chunkCounts[chunk];
+				for(int i = chunk * chunkSize; i < Math.min(count, (chunk + 1) * chunkSize); i++) {
+					Object key = keySelector.exec(elements[i]);
+					partitioning.keys[i] = key;
+					if (key == null)
+						partitionOf[i] = -1;
+					else {
+						int h = key.hashCode();
+						h ^= (h >>> 16);
+						partitionOf[i] = (h & Integer.MAX_VALUE) % partitionCount;
+						counts[partitionOf[i]]++;
+					}
+				}
+				return null;
+			});
+		}
+		runAll(tasks);
+
+		// compute where each chunk writes the elements of each partition
+		partitioning.partitionStart = new int[partitionCount + 1];
+		int position = 0;
+		for(int p = 0; p < partitionCount; p++) {
+			partitioning.partitionStart[p] = position;
+			for(int c = 0; c < chunkCount; c++) {
+				int size = chunkCounts[c][p];
+				chunkCounts[c][p] = position;
+				position += size;
+			}
+		}
+		partitioning.partitionStart[partitionCount] = position;
+
+		tasks.clear();
+		for(int c = 0; c < chunkCount; c++) {
+			final int chunk = c;
+			tasks.add(() -> {
+				int[] positions = chunkCounts[chunk];
+				for(int i = chunk * chunkSize; i < Math.min(count, (chunk + 1) * chunkSize); i++)
+					if (partitionOf[i] >= 0)
+						partitioning.order[positions[partitionOf[i]]++] = i;
+				return null;
+			});
+		}
+		runAll(tasks);
+
+		return partitioning;
+	}
+
+	/**
+	 * Concatenate the results of all partitions
+	 */
+	private List<TResult> combine(PartitionResult[] results) {
+		int size = 0;
+		for(PartitionResult r: results)
+			size += r.size;
+
+		List<TResult> list = new ArrayList<TResult>(size);
+		for(PartitionResult r: results)
+			for(int i = 0; i < r.size; i++)
+				list.add((TResult)r.results[i]);
+		return list;
+	}
+
+	/**
+	 * Combine the results of all partitions in the order of the outer elements
+	 * (each outer element belongs to exactly one partition, so the partitions can
+	 * write their results concurrently)
+	 */
+	private List<TResult> combineOrdered(final PartitionResult[] results, int outerCount) {
+		// number of results per outer element, turned into the position of its first result
+		final int[] positions = new int[outerCount + 1];
+		for(PartitionResult r: results)
+			for(int i = 0; i < r.size; i++)
+				positions[r.outerIndices[i] + 1]++;
+		for(int i = 0; i < outerCount; i++)
+			positions[i + 1] += positions[i];
+
+		final Object[] ordered = new Object[positions[outerCount]];
+
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for(final PartitionResult r: results) {
+			if (r.size == 0)
+				continue;
+			tasks.add(() -> {
+				for(int i = 0; i < r.size; i++)
+					ordered[positions[r.outerIndices[i]]++] = r.results[i];
+				return null;
+			});
+		}
+		runAll(tasks);
+
+		return (List<TResult>)Arrays.asList(ordered);
+	}
+
+	/**
+	 * Execute the given tasks in the pool and wait for their completion
+	 */
+	private void runAll(List<Callable<Void>> tasks) {
+		for(Future<Void> future: pool.invokeAll(tasks)) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("The join has been interrupted.", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException)e.getCause();
+				throw new IllegalStateException(e.getCause());
+			}
+		}
+	}
+
+	private static Object[] toArray(Iterable<?> iterable) {
+		List<Object> list = new ArrayList<Object>();
+		for(Object element: iterable)
+			list.add(element);
+		return list.toArray();
+	}
+
+	/**
+	 * The elements of one side of the join ordered by their partition
+	 */
+	static class Partitioning {
+		// the key of each element
+		Object[] keys;
+		// the indices of the elements ordered by partition
+		int[] order;
+		// the start of each partition in order
+		int[] partitionStart;
+	}
+
+	/**
+	 * The results of one partition together with the index of their outer element
+	 */
+	static class PartitionResult {
+		int[] outerIndices = new int[16];
+		Object[] results = new Object[16];
+		int size = 0;
+
+		public void add(int outerIndex, Object result) {
+			if (size == results.length) {
+				outerIndices = Arrays.copyOf(outerIndices, size * 2);
+				results = Arrays.copyOf(results, size * 2);
+			}
+			outerIndices[size] = outerIndex;
+			results[size] = result;
+			size++;
+		}
+	}
+}
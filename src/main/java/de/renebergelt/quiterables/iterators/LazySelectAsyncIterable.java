@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import de.renebergelt.quiterables.Selector;
+
+/**
+ * Iterable which converts the elements of a source iterable of type TIn to
+ * elements of type TOut by running the Selector function concurrently on an executor
+ * (at most maxConcurrency selector calls are pending at any time, the source is enumerated
+ * by the thread which enumerates this iterable)
+ *
+ * @param <TIn> Source type
+ * @param <TOut> Target type
+ * @author René Bergelt
+ */
+public class LazySelectAsyncIterable<TIn, TOut> implements Iterable<TOut> {
+
+	Iterable<TIn> wrapped;
+	Selector<TIn, TOut> selectorFunc;
+	int maxConcurrency;
+	boolean preserveOrder;
+	Executor executor;
+
+	/**
+	 * Create a new lazy async select iterable which wraps the given iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _selectorFunc Function to transform elements of the original iterable
+	 * @param _maxConcurrency The maximum number of pending selector calls
+	 * @param _preserveOrder If true, the results are returned in source order, otherwise in the order they complete
+	 * @param _executor The executor which runs the selector calls
+	 */
+	public LazySelectAsyncIterable(Iterable<TIn> _wrapped, Selector<TIn, TOut> _selectorFunc, int _maxConcurrency, boolean _preserveOrder, Executor _executor) {
+		if (_maxConcurrency < 1)
+			throw new IllegalArgumentException("maxConcurrency must be at least 1");
+
+		wrapped = _wrapped;
+		selectorFunc = _selectorFunc;
+		maxConcurrency = _maxConcurrency;
+		preserveOrder = _preserveOrder;
+		executor = _executor;
+	}
+
+	/**
+	 * Return the executor which is used if no executor is given
+	 * (an executor which starts a virtual thread per task if the JVM supports them,
+	 * otherwise a cached pool of daemon threads)
+	 * @return The default executor
+	 */
+	public static Executor defaultExecutor() {
+		return DefaultExecutorHolder.INSTANCE;
+	}
+
+	@Override
+	public Iterator<TOut> iterator() {
+		return new LazySelectAsyncIterator<TIn, TOut>(wrapped.iterator(), selectorFunc, maxConcurrency, preserveOrder, executor);
+	}
+
+	static class DefaultExecutorHolder {
+		static final Executor INSTANCE = createDefaultExecutor();
+
+		private static Executor createDefaultExecutor() {
+			try {
+				// virtual threads are available beginning with Java 21
+				Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (Executor) factory.invoke(null);
+			} catch (ReflectiveOperationException e) {
+				return Executors.newCachedThreadPool(runnable -> {
+					Thread thread = new Thread(runnable, "quiterables-select-async");
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+		}
+	}
+}
+
+class LazySelectAsyncIterator<TIn, TOut> extends LazyIterator<TOut> {
+
+	Iterator<TIn> wrapped;
+	Selector<TIn, TOut> selectorFunc;
+	int maxConcurrency;
+	boolean preserveOrder;
+	Executor executor;
+
+	// the pending selector calls (in source order)
+	Deque<Future<TOut>> pending = new ArrayDeque<Future<TOut>>();
+	// receives the completed calls if the order is not preserved
+	ExecutorCompletionService<TOut> completion;
+
+	public LazySelectAsyncIterator(Iterator<TIn> _wrapped, Selector<TIn, TOut> _selectorFunc, int _maxConcurrency, boolean _preserveOrder, Executor _executor) {
+		wrapped = _wrapped;
+		selectorFunc = _selectorFunc;
+		maxConcurrency = _maxConcurrency;
+		preserveOrder = _preserveOrder;
+		executor = _executor;
+
+		if (!preserveOrder)
+			completion = new ExecutorCompletionService<TOut>(executor);
+	}
+
+	@Override
+	protected TOut findNextElement() {
+		// start the next selector calls
+		while (pending.size() < maxConcurrency && wrapped.hasNext()) {
+			final TIn element = wrapped.next();
+			if (preserveOrder) {
+				FutureTask<TOut> task = new FutureTask<TOut>(() -> selectorFunc.select(element));
+				executor.execute(task);
+				pending.add(task);
+			} else
+				pending.add(completion.submit(() -> selectorFunc.select(element)));
+		}
+
+		if (pending.isEmpty())
+			return null;
+
+		try {
+			if (preserveOrder)
+				return pending.poll().get();
+
+			Future<TOut> future = completion.take();
+			pending.remove(future);
+			return future.get();
+		} catch (InterruptedException e) {
+			cancelPending();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("The selection has been interrupted.", e);
+		} catch (ExecutionException e) {
+			cancelPending();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			if (e.getCause() instanceof Error)
+				throw (Error) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private void cancelPending() {
+		for (Future<TOut> future : pending)
+			future.cancel(true);
+		pending.clear();
+	}
+}
@@ -26,6 +26,8 @@
 package de.renebergelt.quiterables.iterators;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 import de.renebergelt.quiterables.Selector;
 
@@ -36,7 +38,7 @@ import de.renebergelt.quiterables.Selector;
  * @param <TIn> Source type
  * @param <TOut> Target type
  */
-public class LazySelectIterable<TIn, TOut> implements Iterable<TOut> {
+public class LazySelectIterable<TIn, TOut> implements PushIterable<TOut> {
 
 	Iterable<TIn> wrapped;		
 	Selector<TIn, TOut> selectorFunc;
@@ -56,24 +58,20 @@ public class LazySelectIterable<TIn, TOut> implements Iterable<TOut> {
 		return new LazySelectIterator<TIn, TOut>(wrapped.iterator(), selectorFunc);
 	}
 
-}
-
-class LazySelectIterator<TIn, TOut> extends LazyIterator<TOut> {
-
-	Iterator<TIn> wrapped;		
-	Selector<TIn, TOut> selectorFunc;
-	
-	public LazySelectIterator(Iterator<TIn> _wrapped, Selector<TIn, TOut> _selectorFunc) {
-		wrapped = _wrapped;
-		selectorFunc = _selectorFunc;
+	@Override
+	public Spliterator<TOut> spliterator() {
+		// the selector may return null which ends the sequence, so that the size is unknown
+		return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
 	}
 	
 	@Override
-	protected TOut findNextElement() {
-		if (!wrapped.hasNext())
-			return null;
-		
-		return selectorFunc.select(wrapped.next());
+	public boolean push(Sink<? super TOut> sink) {
+		return new StageSink<TIn, TOut>(sink) {
+			@Override
+			public boolean accept(TIn element) {
+				return emit(selectorFunc.select(element));
+			}
+		}.pushFrom(wrapped);
 	}
-	
-}
\ No newline at end of file
+
+}
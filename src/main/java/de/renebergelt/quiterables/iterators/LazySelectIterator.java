@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Iterator;
+
+import de.renebergelt.quiterables.Selector;
+
+/**
+ * Iterator which converts the elements of the wrapped iterator using a selector function
+ * @param <TIn> Type of the source elements
+ * @param <TOut> Type of the converted elements
+ * @author René Bergelt
+ */
+class LazySelectIterator<TIn, TOut> extends LazyIterator<TOut> {
+
+	Iterator<TIn> wrapped;		
+	Selector<TIn, TOut> selectorFunc;
+	
+	public LazySelectIterator(Iterator<TIn> _wrapped, Selector<TIn, TOut> _selectorFunc) {
+		wrapped = _wrapped;
+		selectorFunc = _selectorFunc;
+	}
+	
+	@Override
+	protected TOut findNextElement() {
+		if (!wrapped.hasNext())
+			return null;
+		
+		return selectorFunc.select(wrapped.next());
+	}
+	
+}
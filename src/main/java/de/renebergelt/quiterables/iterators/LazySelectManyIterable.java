@@ -37,7 +37,7 @@ import de.renebergelt.quiterables.Selector;
  * @param <TIn> Source type
  * @param <TOut> Target type
  */
-public class LazySelectManyIterable<TIn, TOut> implements Iterable<TOut> {
+public class LazySelectManyIterable<TIn, TOut> implements PushIterable<TOut> {
 
 	Iterable<TIn> wrapped;
 	Selector<TIn, Iterable<TOut>> selectorFunc;
@@ -56,6 +56,32 @@ public class LazySelectManyIterable<TIn, TOut> implements Iterable<TOut> {
 	public Iterator<TOut> iterator() {
 		return new LazySelectManyIterator<TIn, TOut>(wrapped.iterator(), selectorFunc);
 	}
+	
+	@Override
+	public boolean push(Sink<? super TOut> sink) {
+		return new StageSink<TIn, TOut>(sink) {
+			
+			// passes the elements of the sub iterables on
+			StageSink<TOut, TOut> subSink = new StageSink<TOut, TOut>(sink) {
+				@Override
+				public boolean accept(TOut element) {
+					return emit(element);
+				}
+			};
+			
+			@Override
+			public boolean accept(TIn element) {
+				subSink.pushFrom(selectorFunc.select(element));
+				if (subSink.stopped) {
+					stopped = true;
+					return false;
+				}
+				
+				// a null element ends the whole sequence
+				return !subSink.ended || end();
+			}
+		}.pushFrom(wrapped);
+	}
 
 }
 
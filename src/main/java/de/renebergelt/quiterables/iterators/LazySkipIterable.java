@@ -35,7 +35,7 @@ import de.renebergelt.quiterables.Predicate;
  * @param <T> Type of the elements in this Iterable
  * @author René Bergelt
  */
-public class LazySkipIterable<T> implements Iterable<T> {
+public class LazySkipIterable<T> implements PushIterable<T> {
 
 	Iterable<T> wrapped;	
 	int amount;	
@@ -68,6 +68,38 @@ public class LazySkipIterable<T> implements Iterable<T> {
 		else
 			return new LazySkipWhileIterator<T>(wrapped.iterator(), skipWhileCondition);
 	}
+	
+	@Override
+	public boolean push(Sink<? super T> sink) {
+		if (skipWhileCondition == null) {
+			return new StageSink<T, T>(sink) {
+				int skipped = 0;
+				
+				@Override
+				public boolean accept(T element) {
+					if (skipped < amount) {
+						skipped++;
+						return true;
+					}
+					return emit(element);
+				}
+			}.pushFrom(wrapped);
+		} else {
+			return new StageSink<T, T>(sink) {
+				boolean skippingDone = false;
+				
+				@Override
+				public boolean accept(T element) {
+					if (!skippingDone) {
+						if (skipWhileCondition.evaluate(element))
+							return true;
+						skippingDone = true;
+					}
+					return emit(element);
+				}
+			}.pushFrom(wrapped);
+		}
+	}
 }
 
 class LazySkipIterator<T> extends LazyIterator<T>
@@ -0,0 +1,367 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+import de.renebergelt.quiterables.ElementSerializer;
+import de.renebergelt.quiterables.grouping.Group;
+import de.renebergelt.quiterables.grouping.GroupFunction;
+import de.renebergelt.quiterables.grouping.GroupKey;
+
+/**
+ * Iterable which groups the elements of the wrapped iterable with a limited number
+ * of elements in memory:
+ * If more than maxElementsInMemory elements have been grouped, all elements are distributed
+ * to partition files by the hash of their group key and the partitions are grouped
+ * one after another while the result is iterated (a partition which is still too large is
+ * partitioned again). As all elements of a group end up in the same partition the
+ * result contains the same groups as a grouping in memory.
+ * The partition files are written to a temporary directory which is deleted when the iteration
+ * completes or fails (an iteration which is not completed leaves it behind)
+ * @param <T> Type of the grouped elements
+ * @author René Bergelt
+ */
+public class LazySpillingGroupIterable<T> implements Iterable<Group<T>> {
+
+	static final int PARTITION_COUNT = 32;
+
+	// partitions are only partitioned again up to this level
+	// (if there are too many elements with the same key more partitions do not help)
+	static final int MAX_LEVEL = 3;
+
+	Iterable<T> wrapped;
+	GroupFunction<T> func;
+	Function<GroupKey, Group<T>> groupFactory;
+	ElementSerializer<T> serializer;
+	int maxElementsInMemory;
+	File directory;
+
+	/**
+	 * Create a new spilling group iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _func Function to group elements by
+	 * @param _groupFactory Function which creates an empty group for a key
+	 * @param _serializer The serializer used to write the elements to the partition files
+	 * @param _maxElementsInMemory The maximum number of elements which are grouped in memory
+	 * @param _directory The directory for the partition files or null for the default temp directory
+	 */
+	public LazySpillingGroupIterable(Iterable<T> _wrapped, GroupFunction<T> _func, Function<GroupKey, Group<T>> _groupFactory,
+			ElementSerializer<T> _serializer, int _maxElementsInMemory, File _directory) {
+		if (_maxElementsInMemory <= 0)
+			throw new IllegalArgumentException("maxElementsInMemory must be greater than zero");
+
+		wrapped = _wrapped;
+		func = _func;
+		groupFactory = _groupFactory;
+		serializer = _serializer;
+		maxElementsInMemory = _maxElementsInMemory;
+		directory = _directory;
+	}
+
+	@Override
+	public Iterator<Group<T>> iterator() {
+		return new LazySpillingGroupIterator<T>(this, wrapped.iterator());
+	}
+
+	/**
+	 * Return the partition for the given key on the given level
+	 * (a different hash is used on every level so that a partition is split up
+	 * when it is partitioned again)
+	 */
+	static int partitionOf(GroupKey key, int level) {
+		int h = (key == null ? 0 : key.hashCode()) + level * 0x9E3779B9;
+		h ^= h >>> 16;
+		h *= 0x85ebca6b;
+		h ^= h >>> 13;
+		return (h & 0x7FFFFFFF) % PARTITION_COUNT;
+	}
+}
+
+/**
+ * A partition file which has to be grouped
+ */
+class SpillPartition {
+	File file;
+	int size;
+	// the level on which this partition has been created
+	int level;
+
+	public SpillPartition(File _file, int _size, int _level) {
+		file = _file;
+		size = _size;
+		level = _level;
+	}
+}
+
+class LazySpillingGroupIterator<T> extends LazyIterator<Group<T>> {
+
+	LazySpillingGroupIterable<T> grouping;
+	// the source, null once it has been read
+	Iterator<T> source;
+	// the groups of the current partition
+	Iterator<Group<T>> groups = Collections.emptyIterator();
+	Deque<SpillPartition> partitions = new ArrayDeque<SpillPartition>();
+	// holds the partition files, created when the first partition is written
+	TempDirectory tempDirectory;
+
+	public LazySpillingGroupIterator(LazySpillingGroupIterable<T> _grouping, Iterator<T> _source) {
+		grouping = _grouping;
+		source = _source;
+	}
+
+	@Override
+	protected Group<T> findNextElement() {
+		try {
+			while (!groups.hasNext()) {
+				if (source != null) {
+					Iterator<T> elements = source;
+					source = null;
+					groups = groupElements(elements, 0);
+				} else if (!partitions.isEmpty()) {
+					SpillPartition partition = partitions.pop();
+					groups = groupElements(new SpillPartitionReader<T>(partition, grouping.serializer), partition.level + 1);
+				} else {
+					// all partitions have been grouped
+					deleteTempDirectory();
+					return null;
+				}
+			}
+		} catch (RuntimeException e) {
+			// delete the partitions which have not been read yet
+			partitions.clear();
+			deleteTempDirectory();
+			throw e;
+		}
+
+		return groups.next();
+	}
+
+	private void deleteTempDirectory() {
+		if (tempDirectory != null) {
+			tempDirectory.delete();
+			tempDirectory = null;
+		}
+	}
+
+	/**
+	 * Group the given elements in memory or, if there are too many elements,
+	 * write them to new partitions
+	 */
+	private Iterator<Group<T>> groupElements(Iterator<T> elements, int level) {
+		HashMap<GroupKey, Group<T>> map = new HashMap<GroupKey, Group<T>>();
+		SpillWriter<T> writer = null;
+		int count = 0;
+
+		try {
+			while (elements.hasNext()) {
+				T element = elements.next();
+				GroupKey key = grouping.func.getKeyFor(element);
+
+				if (writer != null) {
+					writer.write(LazySpillingGroupIterable.partitionOf(key, level), element);
+					continue;
+				}
+
+				Group<T> group = map.get(key);
+				if (group == null) {
+					group = grouping.groupFactory.apply(key);
+					map.put(key, group);
+				}
+				group.add(element);
+				count++;
+
+				if (count > grouping.maxElementsInMemory && level <= LazySpillingGroupIterable.MAX_LEVEL) {
+					// move all elements to the partitions
+					// (the elements of a group keep their order)
+					if (tempDirectory == null)
+						tempDirectory = TempDirectory.create(grouping.directory, "quiterables-group");
+					writer = new SpillWriter<T>(grouping.serializer, tempDirectory);
+					for (Group<T> g : map.values())
+						for (T e : g)
+							writer.write(LazySpillingGroupIterable.partitionOf(g.getKey(), level), e);
+					map = null;
+				}
+			}
+		} catch (RuntimeException e) {
+			if (writer != null)
+				writer.delete();
+			if (elements instanceof SpillPartitionReader)
+				((SpillPartitionReader<T>)elements).close();
+			throw e;
+		}
+
+		if (writer == null)
+			return map.values().iterator();
+
+		// the new partitions are grouped before the remaining ones
+		// so that the number of files stays small
+		SpillPartition[] newPartitions = writer.close(level);
+		for (int i = newPartitions.length - 1; i >= 0; i--)
+			if (newPartitions[i] != null)
+				partitions.push(newPartitions[i]);
+
+		return Collections.emptyIterator();
+	}
+}
+
+/**
+ * Writes elements to the partition files
+ */
+class SpillWriter<T> {
+
+	ElementSerializer<T> serializer;
+	TempDirectory directory;
+	File[] files = new File[LazySpillingGroupIterable.PARTITION_COUNT];
+	DataOutputStream[] outputs = new DataOutputStream[LazySpillingGroupIterable.PARTITION_COUNT];
+	int[] sizes = new int[LazySpillingGroupIterable.PARTITION_COUNT];
+
+	public SpillWriter(ElementSerializer<T> _serializer, TempDirectory _directory) {
+		serializer = _serializer;
+		directory = _directory;
+	}
+
+	public void write(int partition, T element) {
+		try {
+			if (outputs[partition] == null) {
+				// the files are created when the first element of a partition is written
+				files[partition] = directory.createFile("partition", ".part");
+				outputs[partition] = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(files[partition]), 1 << 15));
+			}
+
+			serializer.write(element, outputs[partition]);
+			sizes[partition]++;
+		} catch (IOException e) {
+			delete();
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Close all files and return the partitions (null for empty partitions)
+	 */
+	public SpillPartition[] close(int level) {
+		SpillPartition[] partitions = new SpillPartition[files.length];
+		try {
+			for (int i = 0; i < files.length; i++) {
+				if (outputs[i] != null) {
+					outputs[i].close();
+					outputs[i] = null;
+					partitions[i] = new SpillPartition(files[i], sizes[i], level);
+				}
+			}
+		} catch (IOException e) {
+			delete();
+			throw new UncheckedIOException(e);
+		}
+		return partitions;
+	}
+
+	public void delete() {
+		for (int i = 0; i < files.length; i++) {
+			if (outputs[i] != null) {
+				try {
+					outputs[i].close();
+				} catch (IOException e) {
+					// ignore, the file is deleted anyway
+				}
+			}
+			if (files[i] != null)
+				files[i].delete();
+		}
+	}
+}
+
+/**
+ * Reads the elements of a partition file and deletes the file afterwards
+ */
+class SpillPartitionReader<T> implements Iterator<T> {
+
+	SpillPartition partition;
+	ElementSerializer<T> serializer;
+	DataInputStream in;
+	int remaining;
+
+	public SpillPartitionReader(SpillPartition _partition, ElementSerializer<T> _serializer) {
+		partition = _partition;
+		serializer = _serializer;
+		remaining = partition.size;
+
+		try {
+			in = new DataInputStream(new BufferedInputStream(new FileInputStream(partition.file), 1 << 16));
+		} catch (IOException e) {
+			partition.file.delete();
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if (remaining > 0)
+			return true;
+
+		close();
+		return false;
+	}
+
+	@Override
+	public T next() {
+		if (remaining == 0)
+			throw new NoSuchElementException();
+
+		remaining--;
+		try {
+			return serializer.read(in);
+		} catch (IOException e) {
+			close();
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	void close() {
+		try {
+			in.close();
+		} catch (IOException e) {
+			// ignore, the file is deleted anyway
+		}
+		partition.file.delete();
+	}
+}
@@ -36,7 +36,7 @@ import de.renebergelt.quiterables.Predicate;
  *
  * @author René Bergelt
  */
-public class LazyTakeIterable<T> implements Iterable<T> {
+public class LazyTakeIterable<T> implements PushIterable<T> {
 
 	Iterable<T> wrapped;	
 	int amount;	
@@ -69,6 +69,32 @@ public class LazyTakeIterable<T> implements Iterable<T> {
 		else
 			return new LazyTakeWhileIterator<T>(wrapped.iterator(), takeWhileCondition);
 	}
+	
+	@Override
+	public boolean push(Sink<? super T> sink) {
+		if (takeWhileCondition == null) {
+			if (amount <= 0)
+				return true;
+			
+			return new StageSink<T, T>(sink) {
+				int current = 0;
+				
+				@Override
+				public boolean accept(T element) {
+					current++;
+					// stop the source as soon as we have taken enough elements
+					return emit(element) && (current < amount || end());
+				}
+			}.pushFrom(wrapped);
+		} else {
+			return new StageSink<T, T>(sink) {
+				@Override
+				public boolean accept(T element) {
+					return takeWhileCondition.evaluate(element) ? emit(element) : end();
+				}
+			}.pushFrom(wrapped);
+		}
+	}
 }
 
 class LazyTakeIterator<T> extends LazyIterator<T>
@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Iterable which returns the first k elements of an ordered iterable
+ * without sorting all elements of the source
+ * (a bounded heap is used so this needs O(n log k) time and O(k) memory)
+ * @param <T> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+public class LazyTopKIterable<T> implements Iterable<T> {
+
+	LazyOrderIterable<T, ?> ordered;
+	int k;
+
+	/**
+	 * Create a new iterable which returns the first k elements of the given ordered iterable
+	 * @param _ordered The ordered iterable
+	 * @param _k The number of elements to return
+	 */
+	public LazyTopKIterable(LazyOrderIterable<T, ?> _ordered, int _k) {
+		ordered = _ordered;
+		k = _k;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		if (!ordered.fitsInMemory(k)) {
+			// the heap would exceed the memory limit of the external sort,
+			// so take the first k elements of the externally sorted sequence instead
+			return new LazyTakeIterable<T>(ordered, k).iterator();
+		}
+
+		return selectTopK().iterator();
+	}
+
+	/**
+	 * Return the first k elements of the ordered iterable in order
+	 * @return List of the first k elements
+	 */
+	public List<T> selectTopK() {
+		if (k <= 0)
+			return new ArrayList<T>();
+
+		// the keys of each element are computed once when the element is read
+		final Comparator<SortEntry<T>> comparator = ordered.getEntryComparator();
+
+		if (k == 1) {
+			// no heap necessary, just find the first minimal element
+			SortEntry<T> first = null;
+			for(T element: ordered.wrapped) {
+				SortEntry<T> entry = ordered.createEntry(element, 0);
+				if (first == null || comparator.compare(entry, first) < 0)
+					first = entry;
+			}
+
+			List<T> result = new ArrayList<T>(1);
+			if (first != null)
+				result.add(first.element);
+			return result;
+		}
+
+		// the sort is stable, so of two equal elements the one which came first in the source wins
+		// the top of the heap is the element which will be dropped next
+		PriorityQueue<SortEntry<T>> heap = new PriorityQueue<SortEntry<T>>(Math.min(k, 1024), new Comparator<SortEntry<T>>() {
+			@Override
+			public int compare(SortEntry<T> e1, SortEntry<T> e2) {
+				int result = comparator.compare(e2, e1);
+				return result != 0 ? result : Long.compare(e2.index, e1.index);
+			}
+		});
+
+		long index = 0;
+		for(T element: ordered.wrapped) {
+			SortEntry<T> entry = ordered.createEntry(element, index++);
+			if (heap.size() < k)
+				heap.add(entry);
+			else if (comparator.compare(entry, heap.peek()) < 0) {
+				// elements which compare equal to the current last one come later in
+				// the source and are therefore not taken
+				heap.poll();
+				heap.add(entry);
+			}
+		}
+
+		// the heap returns the elements from the last to the first
+		List<T> result = new ArrayList<T>(heap.size());
+		while (!heap.isEmpty())
+			result.add(heap.poll().element);
+		Collections.reverse(result);
+
+		return result;
+	}
+}
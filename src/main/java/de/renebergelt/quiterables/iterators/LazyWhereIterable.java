@@ -36,7 +36,7 @@ import de.renebergelt.quiterables.Predicate;
  *
  * @author René Bergelt
  */
-public class LazyWhereIterable<T> implements Iterable<T> {
+public class LazyWhereIterable<T> implements PushIterable<T> {
 
 	Iterable<T> wrapped;	
 	Predicate<T> predicate;
@@ -55,31 +55,14 @@ public class LazyWhereIterable<T> implements Iterable<T> {
 	public Iterator<T> iterator() {
 		return new LazyWhereIterator<T>(wrapped.iterator(), predicate);
 	}
-}
-
-class LazyWhereIterator<T> extends LazyIterator<T>
-{
-	Iterator<T> wrapped;
-	T nextElement = null;
-	Predicate<T> predicate;	
 	
-	public LazyWhereIterator(Iterator<T> _wrapped, Predicate<T> _predicate) {
-		wrapped = _wrapped;
-		predicate = _predicate;		
-	}
-		
-	// find the next element which satisfies the predicate if any
 	@Override
-	protected T findNextElement()
-	{
-		// find the next element in the base iterable which satisfies the condition
-		while (wrapped.hasNext()) {
-			T element = wrapped.next();
-			if (predicate.evaluate(element))			
-				return element;							
-		}
-		
-		return null;
+	public boolean push(Sink<? super T> sink) {
+		return new StageSink<T, T>(sink) {
+			@Override
+			public boolean accept(T element) {
+				return !predicate.evaluate(element) || emit(element);
+			}
+		}.pushFrom(wrapped);
 	}
-	
 }
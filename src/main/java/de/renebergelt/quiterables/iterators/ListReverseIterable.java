@@ -28,6 +28,10 @@ package de.renebergelt.quiterables.iterators;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
 
 /**
  * Iterable which iterates a list in reverse
@@ -48,7 +52,17 @@ public class ListReverseIterable<T> implements Iterable<T> {
 	
 	@Override
 	public Iterator<T> iterator() {
-		return new ListReverseIterator<T>(list.listIterator());
+		// start behind the last element
+		return new ListReverseIterator<T>(list.listIterator(list.size()));
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		if (!(list instanceof RandomAccess))
+			return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.ORDERED);
+
+		final int size = list.size();
+		return IntStream.range(0, size).mapToObj(i -> list.get(size - 1 - i)).spliterator();
 	}
 }
 
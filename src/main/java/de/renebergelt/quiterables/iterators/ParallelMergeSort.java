@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Stable parallel merge sort which is used by the LazyOrderIterable if the elements
+ * shall be sorted in parallel: The array is split into chunks which are sorted and merged
+ * by the tasks of the given pool, so that the parallelism of the pool determines the
+ * number of threads (unlike Arrays.parallelSort which takes its granularity from the common pool)
+ * @author René Bergelt
+ */
+class ParallelMergeSort {
+
+	// arrays with fewer elements are sorted sequentially
+	static final int MIN_GRANULARITY = 1 << 13;
+
+	private ParallelMergeSort() {
+		// static class
+	}
+
+	/**
+	 * Sort the given array using the tasks of the given pool
+	 * (the sort is stable)
+	 * @param array The array to sort
+	 * @param comparator The comparator which defines the order
+	 * @param pool The pool which executes the sort
+	 */
+	public static <T> void sort(T[] array, Comparator<? super T> comparator, ForkJoinPool pool) {
+		int parallelism = pool.getParallelism();
+		// about four chunks per thread balance the load
+		int granularity = Math.max(MIN_GRANULARITY, array.length / (parallelism << 2));
+		if (parallelism == 1 || array.length <= granularity) {
+			Arrays.sort(array, comparator);
+			return;
+		}
+
+		T[] buffer = Arrays.copyOf(array, array.length);
+		pool.invoke(new SortTask<T>(array, buffer, 0, array.length, comparator, granularity));
+	}
+
+	/**
+	 * Sorts the range [from, to) of the array by sorting both halves in parallel and merging them
+	 */
+	static class SortTask<T> extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		T[] array;
+		// holds the sorted halves while they are merged
+		T[] buffer;
+		int from;
+		int to;
+		Comparator<? super T> comparator;
+		int granularity;
+
+		public SortTask(T[] _array, T[] _buffer, int _from, int _to, Comparator<? super T> _comparator, int _granularity) {
+			array = _array;
+			buffer = _buffer;
+			from = _from;
+			to = _to;
+			comparator = _comparator;
+			granularity = _granularity;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= granularity) {
+				Arrays.sort(array, from, to, comparator);
+				return;
+			}
+
+			int mid = (from + to) >>> 1;
+			invokeAll(new SortTask<T>(array, buffer, from, mid, comparator, granularity),
+					new SortTask<T>(array, buffer, mid, to, comparator, granularity));
+
+			if (comparator.compare(array[mid - 1], array[mid]) <= 0)
+				// the halves are already in order
+				return;
+
+			merge(mid);
+		}
+
+		/**
+		 * Merge the sorted ranges [from, mid) and [mid, to)
+		 * (of two equal elements the one of the left range is taken first to keep the sort stable)
+		 */
+		private void merge(int mid) {
+			System.arraycopy(array, from, buffer, from, to - from);
+
+			int left = from;
+			int right = mid;
+			int target = from;
+			while (left < mid && right < to) {
+				if (comparator.compare(buffer[right], buffer[left]) < 0)
+					array[target++] = buffer[right++];
+				else
+					array[target++] = buffer[left++];
+			}
+
+			System.arraycopy(buffer, left, array, target, mid - left);
+			System.arraycopy(buffer, right, array, target + mid - left, to - right);
+		}
+	}
+}
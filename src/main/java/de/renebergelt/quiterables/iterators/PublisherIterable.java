@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Iterable which subscribes to a Reactive Streams publisher for each iterator
+ * The iterator requests at most prefetch elements in advance and blocks until the
+ * next element has been published
+ * @param <T> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+public class PublisherIterable<T> implements Iterable<T> {
+
+	Publisher<T> publisher;
+	int prefetch;
+
+	/**
+	 * Create a new iterable for the given publisher
+	 * @param _publisher The publisher to subscribe to
+	 * @param _prefetch The maximum number of elements which are requested in advance
+	 */
+	public PublisherIterable(Publisher<T> _publisher, int _prefetch) {
+		if (_prefetch < 1)
+			throw new IllegalArgumentException("prefetch must be at least 1");
+
+		publisher = _publisher;
+		prefetch = _prefetch;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		PublisherIterator<T> iterator = new PublisherIterator<T>(prefetch);
+		publisher.subscribe(iterator);
+		return iterator;
+	}
+}
+
+@SuppressWarnings("unchecked")
+class PublisherIterator<T> extends LazyIterator<T> implements Subscriber<T> {
+
+	static final Object COMPLETE = new Object();
+
+	int prefetch;
+	// request more elements when this many elements have been consumed
+	int replenishAt;
+	int consumed = 0;
+	boolean done = false;
+
+	AtomicReference<Subscription> subscription = new AtomicReference<Subscription>();
+	// holds the received elements and the terminal signal
+	// (there is never more demand than free space)
+	BlockingQueue<Object> queue;
+
+	public PublisherIterator(int _prefetch) {
+		prefetch = _prefetch;
+		replenishAt = Math.max(1, prefetch - (prefetch >> 2));
+		queue = new ArrayBlockingQueue<Object>(prefetch + 1);
+	}
+
+	@Override
+	public void onSubscribe(Subscription s) {
+		if (!subscription.compareAndSet(null, s)) {
+			// only one subscription is allowed (rule 2.5)
+			s.cancel();
+			return;
+		}
+
+		s.request(prefetch);
+	}
+
+	@Override
+	public void onNext(T element) {
+		if (!queue.offer(element)) {
+			subscription.get().cancel();
+			queue.clear();
+			queue.offer(new ErrorSignal(new IllegalStateException("The publisher emitted more elements than requested.")));
+		}
+	}
+
+	@Override
+	public void onError(Throwable t) {
+		queue.offer(new ErrorSignal(t));
+	}
+
+	@Override
+	public void onComplete() {
+		queue.offer(COMPLETE);
+	}
+
+	@Override
+	protected T findNextElement() {
+		if (done)
+			return null;
+
+		Object signal;
+		try {
+			signal = queue.take();
+		} catch (InterruptedException e) {
+			done = true;
+			Subscription s = subscription.get();
+			if (s != null)
+				s.cancel();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("The enumeration of the publisher has been interrupted.", e);
+		}
+
+		if (signal == COMPLETE) {
+			done = true;
+			return null;
+		}
+
+		if (signal instanceof ErrorSignal) {
+			done = true;
+			Throwable t = ((ErrorSignal) signal).error;
+			if (t instanceof RuntimeException)
+				throw (RuntimeException) t;
+			if (t instanceof Error)
+				throw (Error) t;
+			throw new IllegalStateException(t);
+		}
+
+		consumed++;
+		if (consumed == replenishAt) {
+			// make room for the next batch
+			consumed = 0;
+			subscription.get().request(replenishAt);
+		}
+		return (T) signal;
+	}
+
+	static class ErrorSignal {
+		Throwable error;
+
+		public ErrorSignal(Throwable _error) {
+			error = _error;
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Helper methods for push-based iteration
+ * @author René Bergelt
+ */
+public class PushIterables {
+
+	/**
+	 * "static" class
+	 */
+	private PushIterables() {
+		// --
+	}
+
+	/**
+	 * Push all elements of the given Iterable to the given sink until
+	 * the sequence ends or the sink requests to stop
+	 * (Iterables which do not implement PushIterable are enumerated using their iterator)
+	 * @param source The Iterable whose elements to push
+	 * @param sink The sink to pass the elements to
+	 * @param <T> Type of the elements
+	 * @return False if the sink requested to stop, true otherwise
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> boolean push(Iterable<T> source, Sink<? super T> sink) {
+		if (source instanceof PushIterable) {
+			return ((PushIterable<T>)source).push(sink);
+		}
+
+		if (source instanceof List && source instanceof RandomAccess) {
+			// use the index-based access to avoid the iterator
+			List<T> list = (List<T>)source;
+			int size = list.size();
+			for (int i = 0; i < size; i++)
+				if (!sink.accept(list.get(i)))
+					return false;
+			return true;
+		}
+
+		for (T element : source)
+			if (!sink.accept(element))
+				return false;
+		return true;
+	}
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Arrays;
+
+/**
+ * LSD radix sort for primitive long keys which is used by the LazyOrderIterable
+ * if all order functions return primitive keys
+ * @author René Bergelt
+ */
+class RadixSort {
+
+	private RadixSort() {
+		// static class
+	}
+
+	/**
+	 * Return the indices of the elements in sorted order
+	 * (the sort is stable)
+	 * @param keys The keys per order level (keys[0] is the primary key), ascending signed order
+	 * @param count The number of elements
+	 * @return The sorted indices
+	 */
+	public static int[] sortIndices(long[][] keys, int count) {
+		int[] indices = new int[count];
+		for(int i = 0; i < count; i++)
+			indices[i] = i;
+
+		int[] buffer = new int[count];
+		int[] counts = new int[8 * 256];
+
+		// sort by the least significant order level first
+		// as each pass is stable, the order of the previous passes is kept for equal keys
+		for(int level = keys.length - 1; level >= 0; level--) {
+			long[] levelKeys = keys[level];
+
+			// compute the histograms of all bytes at once
+			Arrays.fill(counts, 0);
+			for(int i = 0; i < count; i++) {
+				long key = levelKeys[i] ^ Long.MIN_VALUE;
+				for(int b = 0; b < 8; b++)
+					counts[(b << 8) + (int)((key >>> (b << 3)) & 0xFF)]++;
+			}
+
+			for(int b = 0; b < 8; b++) {
+				int offset = b << 8;
+				int shift = b << 3;
+
+				// a pass is not necessary if all elements have the same byte
+				// (e.g. the high bytes of timestamps)
+				if (count == 0 || counts[offset + (int)(((levelKeys[0] ^ Long.MIN_VALUE) >>> shift) & 0xFF)] == count)
+					continue;
+
+				// turn the counts into start positions
+				int pos = 0;
+				for(int i = 0; i < 256; i++) {
+					int c = counts[offset + i];
+					counts[offset + i] = pos;
+					pos += c;
+				}
+
+				for(int i = 0; i < count; i++) {
+					int index = indices[i];
+					int bucket = (int)(((levelKeys[index] ^ Long.MIN_VALUE) >>> shift) & 0xFF);
+					buffer[counts[offset + bucket]++] = index;
+				}
+
+				int[] tmp = indices;
+				indices = buffer;
+				buffer = tmp;
+			}
+		}
+
+		return indices;
+	}
+
+	/**
+	 * Map the given double to a long which has the same order
+	 * as the double values when compared with Double.compare
+	 * @param value The double value
+	 * @return The sortable long
+	 */
+	public static long sortableDouble(double value) {
+		long bits = Double.doubleToLongBits(value);
+		// negative values have to be ordered reversely
+		return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+	}
+}
@@ -27,6 +27,8 @@ package de.renebergelt.quiterables.iterators;
 
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.IntStream;
 
 /**
  * An Iterable implementation which returns a range of integer numbers
@@ -54,6 +56,11 @@ public class RangeIterable implements Iterable<Integer> {
 	public Iterator<Integer> iterator() {
 		return new RangeIterator(start, end);
 	}	
+
+	@Override
+	public Spliterator.OfInt spliterator() {
+		return IntStream.rangeClosed(start, end).spliterator();
+	}
 }
 
 class RangeIterator implements Iterator<Integer> {
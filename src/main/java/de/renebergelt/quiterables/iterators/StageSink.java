@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+/**
+ * Base class for the sinks of the push-based implementation of the lazy iterables
+ * Passes the elements of one stage to the sink of the next stage and keeps track
+ * of why the enumeration ended
+ * @param <TIn> Type of the elements this stage receives
+ * @param <TOut> Type of the elements this stage passes on
+ * @author René Bergelt
+ */
+abstract class StageSink<TIn, TOut> implements Sink<TIn> {
+
+	Sink<? super TOut> downstream;
+
+	/**
+	 * Indicates if the downstream sink requested to stop
+	 */
+	boolean stopped = false;
+
+	/**
+	 * Indicates if this stage ended the sequence
+	 */
+	boolean ended = false;
+
+	public StageSink(Sink<? super TOut> _downstream) {
+		downstream = _downstream;
+	}
+
+	/**
+	 * Pass the given element to the downstream sink
+	 * (as with the LazyIterator a null element ends the sequence)
+	 * @return True if the enumeration shall continue
+	 */
+	protected boolean emit(TOut element) {
+		if (element == null)
+			return end();
+
+		if (!downstream.accept(element)) {
+			stopped = true;
+			return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * End the sequence of this stage
+	 * @return Always false (i.e. the upstream enumeration has to stop)
+	 */
+	protected boolean end() {
+		ended = true;
+		return false;
+	}
+
+	/**
+	 * Push the elements of the given source through this stage
+	 * @return False if the downstream sink requested to stop, true otherwise
+	 */
+	public boolean pushFrom(Iterable<TIn> source) {
+		PushIterables.push(source, this);
+		return !stopped;
+	}
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+
+/**
+ * Iterable wrapper for a java.util.stream.Stream
+ * (as a stream can only be consumed once, this iterable can only be enumerated once)
+ * @param <T> Type of the elements in this Iterable
+ * @author René Bergelt
+ */
+public class StreamIterable<T> implements Iterable<T> {
+
+	Stream<T> stream;
+	boolean consumed = false;
+
+	/**
+	 * Create a new iterable wrapper for the given stream
+	 * @param _stream The stream to wrap
+	 */
+	public StreamIterable(Stream<T> _stream) {
+		stream = _stream;
+	}
+
+	private synchronized Stream<T> consume() {
+		if (consumed)
+			throw new IllegalStateException("The stream has already been enumerated.");
+
+		consumed = true;
+		return stream;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return consume().iterator();
+	}
+
+	@Override
+	public Spliterator<T> spliterator() {
+		return consume().spliterator();
+	}
+}
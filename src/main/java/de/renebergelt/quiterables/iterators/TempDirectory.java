@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+
+/**
+ * A temporary directory which holds the files of one external sort or grouping
+ * The directory is deleted together with its files when the operation completes or fails
+ * (no files are registered for deletion on exit, so an enumeration which is not
+ * completed leaves the directory behind)
+ * @author René Bergelt
+ */
+class TempDirectory {
+
+	File directory;
+
+	private TempDirectory(File _directory) {
+		directory = _directory;
+	}
+
+	/**
+	 * Create a new temporary directory
+	 * @param parent The parent directory or null for the default temp directory
+	 * @param prefix The prefix of the name of the directory
+	 * @return The created directory
+	 */
+	public static TempDirectory create(File parent, String prefix) {
+		try {
+			return new TempDirectory(parent == null
+					? Files.createTempDirectory(prefix).toFile()
+					: Files.createTempDirectory(parent.toPath(), prefix).toFile());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Create a new empty file in this directory
+	 */
+	public File createFile(String prefix, String suffix) throws IOException {
+		return File.createTempFile(prefix, suffix, directory);
+	}
+
+	/**
+	 * Delete the directory and all files in it
+	 * (the files have to be closed before)
+	 */
+	public void delete() {
+		File[] files = directory.listFiles();
+		if (files != null)
+			for (File file : files)
+				file.delete();
+		directory.delete();
+	}
+}
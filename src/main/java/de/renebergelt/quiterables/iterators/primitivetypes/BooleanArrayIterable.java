@@ -26,6 +26,9 @@
 package de.renebergelt.quiterables.iterators.primitivetypes;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
 
 import de.renebergelt.quiterables.iterators.LazyIterator;
 
@@ -50,6 +53,15 @@ public class BooleanArrayIterable implements Iterable<Boolean> {
 	public Iterator<Boolean> iterator() {
 		return new BooleanArrayIterator(wrapped);
 	}
+
+	@Override
+	public Spliterator<Boolean> spliterator() {
+		if (wrapped == null)
+			return Spliterators.emptySpliterator();
+
+		final boolean[] array = wrapped;
+		return IntStream.range(0, array.length).mapToObj(i -> (Boolean)array[i]).spliterator();
+	}
 }
 
 class BooleanArrayIterator extends LazyIterator<Boolean>
@@ -26,6 +26,9 @@
 package de.renebergelt.quiterables.iterators.primitivetypes;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
 
 import de.renebergelt.quiterables.iterators.LazyIterator;
 
@@ -50,6 +53,15 @@ public class ByteArrayIterable implements Iterable<Byte> {
 	public Iterator<Byte> iterator() {
 		return new ByteArrayIterator(wrapped);
 	}
+
+	@Override
+	public Spliterator<Byte> spliterator() {
+		if (wrapped == null)
+			return Spliterators.emptySpliterator();
+
+		final byte[] array = wrapped;
+		return IntStream.range(0, array.length).mapToObj(i -> (Byte)array[i]).spliterator();
+	}
 }
 
 class ByteArrayIterator extends LazyIterator<Byte>
@@ -26,6 +26,9 @@
 package de.renebergelt.quiterables.iterators.primitivetypes;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
 
 import de.renebergelt.quiterables.iterators.LazyIterator;
 
@@ -50,6 +53,15 @@ public class CharArrayIterable implements Iterable<Character> {
 	public Iterator<Character> iterator() {
 		return new CharArrayIterator(wrapped);
 	}
+
+	@Override
+	public Spliterator<Character> spliterator() {
+		if (wrapped == null)
+			return Spliterators.emptySpliterator();
+
+		final char[] array = wrapped;
+		return IntStream.range(0, array.length).mapToObj(i -> (Character)array[i]).spliterator();
+	}
 }
 
 class CharArrayIterator extends LazyIterator<Character>
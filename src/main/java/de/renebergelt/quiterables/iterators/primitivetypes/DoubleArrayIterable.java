@@ -25,16 +25,17 @@
  *******************************************************************************/
 package de.renebergelt.quiterables.iterators.primitivetypes;
 
-import java.util.Iterator;
-
-import de.renebergelt.quiterables.iterators.LazyIterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * An Iterable wrapper for primitive-type double-arrays
  * @author René Bergelt
  *
  */
-public class DoubleArrayIterable implements Iterable<Double> {
+public class DoubleArrayIterable implements DoubleIterable {
 
 	double[] wrapped;
 
@@ -47,12 +48,20 @@ public class DoubleArrayIterable implements Iterable<Double> {
 	}
 	
 	@Override
-	public Iterator<Double> iterator() {
+	public PrimitiveIterator.OfDouble iterator() {
 		return new DoubleArrayIterator(wrapped);
 	}
+
+	@Override
+	public Spliterator.OfDouble spliterator() {
+		if (wrapped == null)
+			return Spliterators.emptyDoubleSpliterator();
+
+		return Spliterators.spliterator(wrapped, Spliterator.ORDERED);
+	}
 }
 
-class DoubleArrayIterator extends LazyIterator<Double>
+class DoubleArrayIterator implements PrimitiveIterator.OfDouble
 {
 	double[] wrapped;
 	int currentIndex = 0;
@@ -62,13 +71,17 @@ class DoubleArrayIterator extends LazyIterator<Double>
 	}
 	
 	@Override
-	protected Double findNextElement() {
-		if (wrapped == null || currentIndex >= wrapped.length)
-			return null;
+	public boolean hasNext() {
+		return wrapped != null && currentIndex < wrapped.length;
+	}
+	
+	@Override
+	public double nextDouble() {
+		if (!hasNext())
+			throw new NoSuchElementException("No more elements in iterator. Use hasNext() to check before calling next().");
 		
-		Double element = wrapped[currentIndex];
+		double element = wrapped[currentIndex];
 		currentIndex++;
 		return element;
 	}	
 }
-
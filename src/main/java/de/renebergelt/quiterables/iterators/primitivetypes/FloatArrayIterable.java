@@ -26,6 +26,9 @@
 package de.renebergelt.quiterables.iterators.primitivetypes;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
 
 import de.renebergelt.quiterables.iterators.LazyIterator;
 
@@ -50,6 +53,15 @@ public class FloatArrayIterable implements Iterable<Float> {
 	public Iterator<Float> iterator() {
 		return new FloatArrayIterator(wrapped);
 	}
+
+	@Override
+	public Spliterator<Float> spliterator() {
+		if (wrapped == null)
+			return Spliterators.emptySpliterator();
+
+		final float[] array = wrapped;
+		return IntStream.range(0, array.length).mapToObj(i -> (Float)array[i]).spliterator();
+	}
 }
 
 class FloatArrayIterator extends LazyIterator<Float>
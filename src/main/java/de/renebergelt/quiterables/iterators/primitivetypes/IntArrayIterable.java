@@ -25,16 +25,17 @@
  *******************************************************************************/
 package de.renebergelt.quiterables.iterators.primitivetypes;
 
-import java.util.Iterator;
-
-import de.renebergelt.quiterables.iterators.LazyIterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * An Iterable wrapper for primitive-type int-arrays
  * @author René Bergelt
  *
  */
-public class IntArrayIterable implements Iterable<Integer> {
+public class IntArrayIterable implements IntIterable {
 
 	int[] wrapped;
 
@@ -47,12 +48,20 @@ public class IntArrayIterable implements Iterable<Integer> {
 	}
 	
 	@Override
-	public Iterator<Integer> iterator() {
+	public PrimitiveIterator.OfInt iterator() {
 		return new IntArrayIterator(wrapped);
 	}
+
+	@Override
+	public Spliterator.OfInt spliterator() {
+		if (wrapped == null)
+			return Spliterators.emptyIntSpliterator();
+
+		return Spliterators.spliterator(wrapped, Spliterator.ORDERED);
+	}
 }
 
-class IntArrayIterator extends LazyIterator<Integer>
+class IntArrayIterator implements PrimitiveIterator.OfInt
 {
 	int[] wrapped;
 	int currentIndex = 0;
@@ -62,9 +71,14 @@ class IntArrayIterator extends LazyIterator<Integer>
 	}
 	
 	@Override
-	protected Integer findNextElement() {
-		if (wrapped == null || currentIndex >= wrapped.length)
-			return null;
+	public boolean hasNext() {
+		return wrapped != null && currentIndex < wrapped.length;
+	}
+	
+	@Override
+	public int nextInt() {
+		if (!hasNext())
+			throw new NoSuchElementException("No more elements in iterator. Use hasNext() to check before calling next().");
 		
 		int element = wrapped[currentIndex];
 		currentIndex++;
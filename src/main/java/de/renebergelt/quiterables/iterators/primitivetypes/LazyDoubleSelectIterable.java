@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators.primitivetypes;
+
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.StreamSupport;
+
+/**
+ * DoubleIterable which transforms the values of a source DoubleIterable
+ * using lazy evaluation (without boxing)
+ * @author René Bergelt
+ */
+public class LazyDoubleSelectIterable implements DoubleIterable {
+
+	DoubleIterable wrapped;
+	DoubleUnaryOperator selectorFunc;
+
+	/**
+	 * Create a new lazy select iterable which wraps the given iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _selectorFunc Function to transform the values of the original iterable
+	 */
+	public LazyDoubleSelectIterable(DoubleIterable _wrapped, DoubleUnaryOperator _selectorFunc) {
+		wrapped = _wrapped;
+		selectorFunc = _selectorFunc;
+	}
+	
+	@Override
+	public PrimitiveIterator.OfDouble iterator() {
+		return new LazyDoubleSelectIterator(wrapped.iterator(), selectorFunc);
+	}
+
+	@Override
+	public Spliterator.OfDouble spliterator() {
+		// keeps the size and the splitting of the source
+		return StreamSupport.doubleStream(wrapped.spliterator(), false).map(selectorFunc).spliterator();
+	}
+}
+
+class LazyDoubleSelectIterator implements PrimitiveIterator.OfDouble
+{
+	PrimitiveIterator.OfDouble wrapped;
+	DoubleUnaryOperator selectorFunc;
+	
+	public LazyDoubleSelectIterator(PrimitiveIterator.OfDouble _wrapped, DoubleUnaryOperator _selectorFunc) {
+		wrapped = _wrapped;
+		selectorFunc = _selectorFunc;
+	}
+	
+	@Override
+	public boolean hasNext() {
+		return wrapped.hasNext();
+	}
+	
+	@Override
+	public double nextDouble() {
+		return selectorFunc.applyAsDouble(wrapped.nextDouble());
+	}
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators.primitivetypes;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.DoublePredicate;
+
+/**
+ * DoubleIterable which returns the values matching a predicate
+ * using lazy evaluation (without boxing)
+ * @author René Bergelt
+ */
+public class LazyDoubleWhereIterable implements DoubleIterable {
+
+	DoubleIterable wrapped;
+	DoublePredicate predicate;
+
+	/**
+	 * Create a new lazy where iterable which wraps the given iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _predicate Condition to include a value
+	 */
+	public LazyDoubleWhereIterable(DoubleIterable _wrapped, DoublePredicate _predicate) {
+		wrapped = _wrapped;
+		predicate = _predicate;
+	}
+	
+	@Override
+	public PrimitiveIterator.OfDouble iterator() {
+		return new LazyDoubleWhereIterator(wrapped.iterator(), predicate);
+	}
+}
+
+class LazyDoubleWhereIterator implements PrimitiveIterator.OfDouble
+{
+	PrimitiveIterator.OfDouble wrapped;
+	DoublePredicate predicate;
+	
+	// the cached next value (only valid if hasNextElement is true)
+	double nextElement;
+	boolean hasNextElement = false;
+	
+	public LazyDoubleWhereIterator(PrimitiveIterator.OfDouble _wrapped, DoublePredicate _predicate) {
+		wrapped = _wrapped;
+		predicate = _predicate;
+	}
+	
+	@Override
+	public boolean hasNext() {
+		// find the next value in the base iterable which satisfies the condition
+		while (!hasNextElement && wrapped.hasNext()) {
+			double element = wrapped.nextDouble();
+			if (predicate.test(element)) {
+				nextElement = element;
+				hasNextElement = true;
+			}
+		}
+		
+		return hasNextElement;
+	}
+	
+	@Override
+	public double nextDouble() {
+		if (!hasNext())
+			throw new NoSuchElementException("No more elements in iterator. Use hasNext() to check before calling next().");
+		
+		hasNextElement = false;
+		return nextElement;
+	}
+}
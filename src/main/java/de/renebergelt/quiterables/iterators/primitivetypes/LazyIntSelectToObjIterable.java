@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * This file is part of the Java QuIterables Library
+ *
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2015-2016 René Bergelt
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ *******************************************************************************/
+package de.renebergelt.quiterables.iterators.primitivetypes;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntFunction;
+import java.util.stream.StreamSupport;
+
+import de.renebergelt.quiterables.iterators.LazyIterator;
+
+/**
+ * Iterable which converts the values of a source IntIterable to
+ * elements of type TOut using a selector function
+ * @param <TOut> Target type
+ * @author René Bergelt
+ */
+public class LazyIntSelectToObjIterable<TOut> implements Iterable<TOut> {
+
+	IntIterable wrapped;
+	IntFunction<TOut> selectorFunc;
+
+	/**
+	 * Create a new lazy select iterable which wraps the given iterable
+	 * @param _wrapped The wrapped iterable
+	 * @param _selectorFunc Function to transform the values of the original iterable
+	 */
+	public LazyIntSelectToObjIterable(IntIterable _wrapped, IntFunction<TOut> _selectorFunc) {
+		wrapped = _wrapped;
+		selectorFunc = _selectorFunc;
+	}
+	
+	@Override
+	public Iterator<TOut> iterator() {
+		return new LazyIntSelectToObjIterator<TOut>(wrapped.iterator(), selectorFunc);
+	}
+
+	@Override
+	public Spliterator<TOut> spliterator() {
+		// keeps the size and the splitting of the source
+		return StreamSupport.intStream(wrapped.spliterator(), false).mapToObj(selectorFunc).spliterator();
+	}
+}
+
+class LazyIntSelectToObjIterator<TOut> extends LazyIterator<TOut> {
+
+	PrimitiveIterator.OfInt wrapped;
+	IntFunction<TOut> selectorFunc;
+	
+	public LazyIntSelectToObjIterator(PrimitiveIterator.OfInt _wrapped, IntFunction<TOut> _selectorFunc) {
+		wrapped = _wrapped;
+		selectorFunc = _selectorFunc;
+	}
+	
+	@Override
+	protected TOut findNextElement() {
+		if (!wrapped.hasNext())
+			return null;
+		
+		return selectorFunc.apply(wrapped.nextInt());
+	}
+}
@@ -25,16 +25,17 @@
  *******************************************************************************/
 package de.renebergelt.quiterables.iterators.primitivetypes;
 
-import java.util.Iterator;
-
-import de.renebergelt.quiterables.iterators.LazyIterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 /**
  * An Iterable wrapper for primitive-type long-arrays
  * @author René Bergelt
  *
  */
-public class LongArrayIterable implements Iterable<Long> {
+public class LongArrayIterable implements LongIterable {
 
 	long[] wrapped;
 
@@ -47,12 +48,20 @@ public class LongArrayIterable implements Iterable<Long> {
 	}
 	
 	@Override
-	public Iterator<Long> iterator() {
+	public PrimitiveIterator.OfLong iterator() {
 		return new LongArrayIterator(wrapped);
 	}
+
+	@Override
+	public Spliterator.OfLong spliterator() {
+		if (wrapped == null)
+			return Spliterators.emptyLongSpliterator();
+
+		return Spliterators.spliterator(wrapped, Spliterator.ORDERED);
+	}
 }
 
-class LongArrayIterator extends LazyIterator<Long>
+class LongArrayIterator implements PrimitiveIterator.OfLong
 {
 	long[] wrapped;
 	int currentIndex = 0;
@@ -62,13 +71,17 @@ class LongArrayIterator extends LazyIterator<Long>
 	}
 	
 	@Override
-	protected Long findNextElement() {
-		if (wrapped == null || currentIndex >= wrapped.length)
-			return null;
+	public boolean hasNext() {
+		return wrapped != null && currentIndex < wrapped.length;
+	}
+	
+	@Override
+	public long nextLong() {
+		if (!hasNext())
+			throw new NoSuchElementException("No more elements in iterator. Use hasNext() to check before calling next().");
 		
-		Long element = wrapped[currentIndex];
+		long element = wrapped[currentIndex];
 		currentIndex++;
 		return element;
 	}	
 }
-
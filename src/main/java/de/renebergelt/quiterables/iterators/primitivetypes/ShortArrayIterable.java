@@ -26,6 +26,9 @@
 package de.renebergelt.quiterables.iterators.primitivetypes;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.IntStream;
 
 import de.renebergelt.quiterables.iterators.LazyIterator;
 
@@ -50,6 +53,15 @@ public class ShortArrayIterable implements Iterable<Short> {
 	public Iterator<Short> iterator() {
 		return new ShortArrayIterator(wrapped);
 	}
+
+	@Override
+	public Spliterator<Short> spliterator() {
+		if (wrapped == null)
+			return Spliterators.emptySpliterator();
+
+		final short[] array = wrapped;
+		return IntStream.range(0, array.length).mapToObj(i -> (Short)array[i]).spliterator();
+	}
 }
 
 class ShortArrayIterator extends LazyIterator<Short>
@@ -0,0 +1,131 @@
+package de.renebergelt.quiterables.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.renebergelt.quiterables.Queriable;
+import de.renebergelt.quiterables.Query;
+import de.renebergelt.quiterables.grouping.GroupKey;
+import de.renebergelt.quiterables.grouping.GroupedList;
+import de.renebergelt.quiterables.grouping.GroupedQueriable;
+
+public class DeferredExecutionTest {
+
+	/**
+	 * Iterable which counts how often it has been enumerated
+	 */
+	private static class CountingIterable<T> implements Iterable<T> {
+		List<T> elements;
+		int enumerations = 0;
+
+		public CountingIterable(List<T> _elements) {
+			elements = _elements;
+		}
+
+		@Override
+		public java.util.Iterator<T> iterator() {
+			enumerations++;
+			return elements.iterator();
+		}
+	}
+
+	@Test
+	public void test_operators_do_not_enumerate_the_source() {
+		CountingIterable<Integer> source = new CountingIterable<Integer>(new ArrayList<Integer>(Arrays.asList(3, 1, 2, 3)));
+		Queriable<Integer> q = Query.iterable(source);
+
+		q.group(x -> new GroupKey(x));
+		q.groupSingle(x -> x);
+		q.groupCompact(x -> new GroupKey(x));
+		q.reverse();
+		q.defaultIfEmpty(0);
+		q.orderBy(x -> x);
+		q.intersect(Arrays.asList(1, 2));
+		q.except(Arrays.asList(1, 2));
+		q.distinct();
+
+		assertEquals(0, source.enumerations);
+	}
+
+	@Test
+	public void test_reenumeration_reflects_the_source() {
+		List<Integer> list = new ArrayList<Integer>(Arrays.asList(3, 1, 2, 3));
+		CountingIterable<Integer> source = new CountingIterable<Integer>(list);
+		Queriable<Integer> q = Query.iterable(source);
+
+		GroupedQueriable<Integer> groups = q.group(x -> new GroupKey(x));
+		Queriable<Integer> reversed = q.reverse();
+		Queriable<Integer> ordered = q.orderBy(x -> x);
+		Queriable<Integer> orDefault = q.where(x -> x > 5).defaultIfEmpty(0);
+
+		assertEquals(3, groups.count());
+		assertEquals(2, groups.get(new GroupKey(3)).count());
+		assertEquals(Arrays.asList(3, 2, 1, 3), reversed.toList());
+		assertEquals(Arrays.asList(1, 2, 3, 3), ordered.toList());
+		assertEquals(Arrays.asList(0), orDefault.toList());
+
+		list.add(7);
+		list.add(3);
+
+		assertEquals(4, groups.count());
+		assertEquals(3, groups.get(new GroupKey(3)).count());
+		assertEquals(Arrays.asList(3, 7, 3, 2, 1, 3), reversed.toList());
+		assertEquals(Arrays.asList(1, 2, 3, 3, 3, 7), ordered.toList());
+		assertEquals(Arrays.asList(7), orDefault.toList());
+		assertEquals(4, groups.toList().size());
+	}
+
+	@Test
+	public void test_group_lookups_enumerate_the_source_once() {
+		List<Integer> list = new ArrayList<Integer>(Arrays.asList(3, 1, 2, 3));
+		CountingIterable<Integer> source = new CountingIterable<Integer>(list);
+
+		// each lookup groups the current source once
+		GroupedQueriable<Integer> groups = Query.iterable(source).group(x -> new GroupKey(x));
+		assertEquals(2, groups.get(new GroupKey(3)).count());
+		assertEquals(1, source.enumerations);
+		list.add(3);
+		assertEquals(3, groups.get(new GroupKey(3)).count());
+		assertEquals(2, source.enumerations);
+		list.remove(list.size() - 1);
+
+		GroupedQueriable<Integer> compact = Query.iterable(source).groupCompact(x -> new GroupKey(x));
+		assertEquals(1, compact.get(new GroupKey(2)).count());
+		assertEquals(3, source.enumerations);
+
+		// toList returns the compact groups and does not enumerate twice,
+		// the lookups of the returned list use its index
+		GroupedList<Integer> compactList = compact.toList();
+		assertEquals(3, compactList.size());
+		assertEquals(4, source.enumerations);
+		for (int i = 0; i < 5; i++)
+			assertEquals(1, compactList.get(new GroupKey(2)).size());
+		assertEquals(4, source.enumerations);
+	}
+
+	@Test
+	public void test_reverse_list() {
+		List<Integer> list = new ArrayList<Integer>(Arrays.asList(1, 2, 3));
+		Queriable<Integer> reversed = Query.list(list).reverse();
+
+		assertEquals(Arrays.asList(3, 2, 1), reversed.toList());
+		list.add(4);
+		assertEquals(Arrays.asList(4, 3, 2, 1), reversed.toList());
+	}
+
+	@Test
+	public void test_defaultIfEmpty() {
+		assertEquals(Arrays.asList(5), Query.list(new ArrayList<Integer>()).defaultIfEmpty(5).toList());
+		assertEquals(Arrays.asList(1, 2), Query.list(Arrays.asList(1, 2)).defaultIfEmpty(5).toList());
+
+		// null is a valid default value
+		assertEquals(Arrays.asList((Integer) null), Query.list(new ArrayList<Integer>()).defaultIfEmpty(null).toList());
+		assertNull(Query.list(new ArrayList<Integer>()).defaultIfEmpty(null).firstOrDefault(5));
+		assertEquals(1, Query.list(new ArrayList<Integer>()).defaultIfEmpty(null).count());
+	}
+}
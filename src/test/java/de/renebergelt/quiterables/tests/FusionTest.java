@@ -0,0 +1,72 @@
+package de.renebergelt.quiterables.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.renebergelt.quiterables.Queriable;
+import de.renebergelt.quiterables.Query;
+
+public class FusionTest {
+
+	private <T> List<T> pull(Queriable<T> q) {
+		List<T> result = new ArrayList<T>();
+		for(T element: q)
+			result.add(element);
+		return result;
+	}
+
+	@Test
+	public void test_fused_chain() {
+		List<Integer> list = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+
+		Queriable<Integer> q = Query.list(list).where(x -> x > 2).select(x -> x * 10).where(x -> x % 20 == 0).skip(1).take(3);
+		assertEquals(Arrays.asList(60, 80, 100), pull(q));
+		assertEquals(pull(q), q.toList());
+		// enumerate twice to make sure the per-enumeration state is reset
+		assertEquals(pull(q), q.toList());
+
+		q = Query.list(list).skipWhile(x -> x < 5).select(x -> x + 1).takeWhile(x -> x < 10).take(10);
+		assertEquals(Arrays.asList(6, 7, 8, 9), pull(q));
+		assertEquals(pull(q), q.toList());
+	}
+
+	@Test
+	public void test_fused_branches_are_independent() {
+		Queriable<Integer> base = Query.list(Arrays.asList(1, 2, 3, 4, 5, 6)).where(x -> x > 1);
+
+		Queriable<Integer> even = base.where(x -> x % 2 == 0);
+		Queriable<Integer> odd = base.where(x -> x % 2 == 1);
+		Queriable<Integer> firstTwo = base.take(2);
+
+		assertEquals(Arrays.asList(2, 3, 4, 5, 6), base.toList());
+		assertEquals(Arrays.asList(2, 4, 6), even.toList());
+		assertEquals(Arrays.asList(3, 5), odd.toList());
+		assertEquals(Arrays.asList(2, 3), firstTwo.toList());
+	}
+
+	@Test
+	public void test_fused_take_is_lazy() {
+		List<LazyObject> sampleData = Arrays.asList(new LazyObject("One", 1), new LazyObject("Two", 2), new LazyObject("Three", 3), new LazyObject("Four", 4));
+
+		List<String> result = Query.list(sampleData).where(x -> x.getValue() > 0).select(x -> x.text).take(2).toList();
+		assertEquals(Arrays.asList("One", "Two"), result);
+		assertFalse(sampleData.get(2).wasQueried);
+		assertFalse(sampleData.get(3).wasQueried);
+
+		assertTrue(Query.list(sampleData).where(x -> x.getValue() > 10).take(0).isEmpty());
+	}
+
+	@Test
+	public void test_fused_null_ends_sequence() {
+		List<String> list = Arrays.asList("a", "b", "c", "d");
+
+		Queriable<String> q = Query.list(list).select(x -> "c".equals(x) ? null : x).where(x -> true).take(10);
+		assertEquals(Arrays.asList("a", "b"), pull(q));
+		assertEquals(pull(q), q.toList());
+	}
+}
@@ -0,0 +1,121 @@
+package de.renebergelt.quiterables.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import de.renebergelt.quiterables.Queriable;
+import de.renebergelt.quiterables.Query;
+
+public class JoinTest {
+
+	private List<TestPerson> customers = Arrays.asList(new TestPerson("Ann", "Smith"), new TestPerson("Bob", "Miller"),
+			new TestPerson("Carl", "Jones"));
+
+	// orders are represented by the first name of the customer and an amount
+	private List<String[]> orders = Arrays.asList(new String[] { "Bob", "10" }, new String[] { "Ann", "20" },
+			new String[] { "Dora", "30" }, new String[] { "Bob", "40" }, new String[] { null, "50" });
+
+	@Test
+	public void test_join() {
+		Queriable<String> q = Query.list(orders).join(customers, x -> x[0], x -> x.firstName, (o, c) -> c.lastName + ":" + o[1]);
+
+		// the result has the order of the outer sequence, unmatched elements and null keys are left out
+		assertEquals(Arrays.asList("Miller:10", "Smith:20", "Miller:40"), q.toList());
+
+		List<String> pulled = new ArrayList<String>();
+		for (String s : q)
+			pulled.add(s);
+		assertEquals(q.toList(), pulled);
+
+		// duplicates on the inner side
+		q = Query.list(Arrays.asList(1, 2)).join(Arrays.asList("a1", "b1", "a2", "c1"), x -> x, x -> Integer.parseInt(x.substring(1)), (o, i) -> o + i);
+		assertEquals(Arrays.asList("1a1", "1b1", "1c1", "2a2"), q.toList());
+	}
+
+	@Test
+	public void test_groupJoin() {
+		List<String> result = Query.list(customers)
+				.groupJoin(orders, x -> x.firstName, x -> x[0], (c, o) -> c.firstName + ":" + o.sum(x -> Integer.parseInt(x[1])))
+				.toList();
+
+		assertEquals(Arrays.asList("Ann:20", "Bob:50", "Carl:0"), result);
+	}
+
+	@Test
+	public void test_mergeJoin() {
+		Random random = new Random(5);
+		List<Integer> outer = new ArrayList<Integer>();
+		List<Integer> inner = new ArrayList<Integer>();
+		for (int i = 0; i < 500; i++) {
+			outer.add(random.nextInt(100));
+			inner.add(random.nextInt(100));
+		}
+
+		List<String> hashJoin = Query.list(outer).orderBy(x -> x).join(Query.list(inner).orderBy(x -> x).toList(), x -> x, x -> x, (o, i) -> o + "/" + i).toList();
+		List<String> mergeJoin = Query.list(outer).orderBy(x -> x).mergeJoin(Query.list(inner).orderBy(x -> x), x -> x, x -> x, (o, i) -> o + "/" + i).toList();
+
+		assertFalse(mergeJoin.isEmpty());
+		assertEquals(hashJoin, mergeJoin);
+
+		// descending order using a comparator
+		List<String> descending = Query.list(outer).orderByDescending(x -> x)
+				.mergeJoin(Query.list(inner).orderByDescending(x -> x), x -> x, x -> x, (x, y) -> y.compareTo(x), (o, i) -> o + "/" + i).toList();
+		List<String> expectedDescending = new ArrayList<String>(hashJoin);
+		Collections.reverse(expectedDescending);
+		assertEquals(expectedDescending, descending);
+	}
+
+	@Test
+	public void test_mergeJoin_null_keys() {
+		// elements with a null key are left out as with the hash join
+		List<TestPerson> inner = new ArrayList<TestPerson>(customers);
+		inner.add(0, new TestPerson(null, "Nobody"));
+
+		List<String> result = Query.list(orders).orderBy(x -> x[0], Comparator.<String>nullsFirst(Comparator.naturalOrder()))
+				.mergeJoin(inner, x -> x[0], x -> x.firstName, (o, c) -> c.lastName + ":" + o[1]).toList();
+		assertEquals(Arrays.asList("Smith:20", "Miller:10", "Miller:40"), result);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void test_mergeJoin_unordered() {
+		Query.list(Arrays.asList(1, 2, 3)).orderBy(x -> x).mergeJoin(Arrays.asList(3, 1, 2), x -> x, x -> x, (o, i) -> o).toList();
+	}
+
+	@Test
+	public void test_parallelJoin() {
+		Random random = new Random(9);
+		List<Integer> outer = new ArrayList<Integer>();
+		List<Integer> inner = new ArrayList<Integer>();
+		for (int i = 0; i < 20000; i++)
+			outer.add(random.nextInt(5000));
+		for (int i = 0; i < 8000; i++)
+			inner.add(random.nextInt(6000));
+
+		List<String> expected = Query.list(outer).join(inner, x -> x, x -> x, (o, i) -> o + "/" + i).toList();
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			assertEquals(expected, Query.list(outer).parallelJoin(inner, x -> x, x -> x, (o, i) -> o + "/" + i).toList());
+			assertEquals(expected, Query.list(outer).parallelJoin(inner, x -> x, x -> x, (o, i) -> o + "/" + i, pool, true).toList());
+
+			List<String> unordered = Query.list(outer).parallelJoin(inner, x -> x, x -> x, (o, i) -> o + "/" + i, pool, false).toList();
+			Collections.sort(unordered);
+			List<String> sortedExpected = new ArrayList<String>(expected);
+			Collections.sort(sortedExpected);
+			assertEquals(sortedExpected, unordered);
+
+			assertTrue(Query.list(new ArrayList<Integer>()).parallelJoin(inner, x -> x, x -> x, (o, i) -> o, pool, true).isEmpty());
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -2,13 +2,23 @@ package de.renebergelt.quiterables.tests;
 
 import static org.junit.Assert.*;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import de.renebergelt.quiterables.Aggregator;
+import de.renebergelt.quiterables.ElementSerializer;
 import de.renebergelt.quiterables.Query;
+import de.renebergelt.quiterables.grouping.Group;
 import de.renebergelt.quiterables.grouping.GroupKey;
 import de.renebergelt.quiterables.grouping.GroupedList;
 
@@ -75,4 +85,203 @@ public class ListGroupTest {
 		assertEquals("Item Four", result.textItem);				   
 	}
 
+
+	@Test
+	public void test_toLookup() {
+		GroupedList<TestPojo> lookup = Query.list(sampleData).toLookup(x -> x.numberItem);
+
+		assertEquals(4, lookup.size());
+		assertEquals(3, lookup.get(new GroupKey(2)).size());
+		assertEquals(2, lookup.get(new GroupKey(4)).size());
+		assertNull(lookup.get(new GroupKey(5)));
+		assertEquals(3, Query.list(sampleData).groupSingle(x -> x.numberItem).get(new GroupKey(2)).count());
+	}
+
+	@Test
+	public void test_grouped_list_index_follows_modifications() {
+		GroupedList<TestPojo> lookup = Query.list(sampleData).toLookup(x -> x.numberItem);
+		GroupedList<TestPojo> others = Query.list(sampleData).toLookup(x -> x.numberItem + 10);
+
+		lookup.add(others.get(new GroupKey(11)));
+		assertNotNull(lookup.get(new GroupKey(11)));
+
+		lookup.set(lookup.indexOf(lookup.get(new GroupKey(2))), others.get(new GroupKey(12)));
+		assertNull(lookup.get(new GroupKey(2)));
+		assertEquals(3, lookup.get(new GroupKey(12)).size());
+
+		lookup.remove(lookup.get(new GroupKey(12)));
+		assertNull(lookup.get(new GroupKey(12)));
+	}
+
+	@Test
+	public void test_groupKey_variants() {
+		// all variants are equal to the varargs key with the same (boxed) parts
+		assertKeysEqual(new GroupKey("a"), GroupKey.of("a"));
+		assertKeysEqual(new GroupKey("a", 1), GroupKey.of("a", 1));
+		assertKeysEqual(new GroupKey("a", 1, 2L), GroupKey.of("a", 1, 2L));
+		assertKeysEqual(new GroupKey(5), GroupKey.of(5));
+		assertKeysEqual(new GroupKey(5L), GroupKey.of(5L));
+		assertKeysEqual(new GroupKey(3, 4), GroupKey.of(3, 4));
+		assertKeysEqual(new GroupKey(3L, 4L), GroupKey.of(3L, 4L));
+		assertKeysEqual(GroupKey.of((Object)Integer.valueOf(7)), GroupKey.of(7));
+		assertKeysEqual(new GroupKey("a", null), GroupKey.of("a", null));
+
+		// the parts are compared positionally
+		assertNotEquals(GroupKey.of("a", "b"), GroupKey.of("b", "a"));
+		assertNotEquals(GroupKey.of("a", "b").hashCode(), GroupKey.of("b", "a").hashCode());
+		assertNotEquals(GroupKey.of(1, 2), GroupKey.of(2, 1));
+		assertNotEquals(GroupKey.of(1, 2), GroupKey.of(1L, 2L));
+		assertNotEquals(GroupKey.of("a"), GroupKey.of("a", "a"));
+
+		assertEquals(2, GroupKey.of(1L, 2L).partCount());
+		assertEquals(2L, GroupKey.of(1L, 2L).get(1));
+		assertEquals("x", GroupKey.of("x", "y", "z").first());
+	}
+
+	@Test
+	public void test_groupAggregate() {
+		// maximum text length per number
+		Map<Integer, Integer> maxLength = Query.list(sampleData).groupAggregate(x -> x.numberItem,
+				Aggregator.<TestPojo, Integer>of(() -> 0, (acc, x) -> Math.max(acc, x.textItem.length())));
+
+		assertEquals(Arrays.asList(1, 2, 3, 4), new ArrayList<>(maxLength.keySet()));
+		assertEquals(8, (int) maxLength.get(1));
+		assertEquals(10, (int) maxLength.get(2));
+		assertEquals(8, (int) maxLength.get(3));
+		assertEquals(9, (int) maxLength.get(4));
+
+		// mutable accumulator with a finishing step
+		Map<Integer, String> texts = Query.list(sampleData).groupAggregate(x -> x.numberItem,
+				Aggregator.<TestPojo, StringBuilder, String>of(StringBuilder::new, (sb, x) -> sb.append(x.textItem.charAt(5)), StringBuilder::toString));
+		assertEquals("OT", texts.get(1));
+		assertEquals("TFF", texts.get(2));
+
+		assertTrue(Query.list(new ArrayList<TestPojo>()).countBy(x -> x.numberItem).isEmpty());
+	}
+
+	@Test
+	public void test_countBy_sumBy() {
+		Map<Integer, Integer> counts = Query.list(sampleData).countBy(x -> x.numberItem);
+		assertEquals(4, counts.size());
+		assertEquals(2, (int) counts.get(1));
+		assertEquals(3, (int) counts.get(2));
+		assertEquals(1, (int) counts.get(3));
+		assertEquals(2, (int) counts.get(4));
+
+		Map<Integer, Long> childCount = Query.list(sampleData).sumLongBy(x -> x.numberItem, x -> x.subElements.size());
+		assertEquals(1L, (long) childCount.get(1));
+		assertEquals(2L, (long) childCount.get(2));
+		assertEquals(2L, (long) childCount.get(4));
+
+		Map<String, Double> sums = Query.list(sampleData).sumDoubleBy(x -> x.textItem.substring(0, 4), x -> x.numberItem / 2.0);
+		assertEquals(Arrays.asList("Item", "Demo"), new ArrayList<>(sums.keySet()));
+		assertEquals(5.5, sums.get("Item"), 0.0001);
+		assertEquals(4.0, sums.get("Demo"), 0.0001);
+	}
+
+	@Test
+	public void test_groupCompact() {
+		GroupedList<TestPojo> list = Query.list(sampleData).groupCompact(x -> new GroupKey(x.numberItem)).toList();
+
+		assertEquals(4, list.size());
+		assertEquals(3, list.get(new GroupKey(2)).size());
+		assertNull(list.get(new GroupKey(5)));
+
+		// the groups are in the order of their first occurrence and keep the element order
+		assertEquals(Arrays.asList(1, 2, 3, 4), Query.iterable(list).select(x -> x.getKey().first()).toList());
+		Group<TestPojo> group = list.get(new GroupKey(2));
+		assertEquals(Arrays.asList("Item Three", "Item Four", "Item Five"), Query.iterable(group).select(x -> x.textItem).toList());
+		assertEquals("Item Five", group.get(2).textItem);
+
+		// same groups as group()
+		GroupedList<TestPojo> expected = Query.list(sampleData).group(x -> new GroupKey(x.numberItem)).toList();
+		for (Group<TestPojo> g : expected)
+			assertEquals(g, list.get(g.getKey()));
+
+		assertEquals(2, Query.list(sampleData).groupCompact(x -> new GroupKey(x.numberItem)).get(new GroupKey(4)).count());
+		assertEquals(0, Query.list(new ArrayList<TestPojo>()).groupCompact(x -> new GroupKey(x.numberItem)).count());
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void test_groupCompact_groups_are_read_only() {
+		Query.list(sampleData).groupCompact(x -> new GroupKey(x.numberItem)).first().add(new TestPojo("New", 1));
+	}
+
+	@Test
+	public void test_groupAdjacent() {
+		// the sample data is ordered by numberItem
+		List<Group<TestPojo>> groups = Query.list(sampleData).groupAdjacent(x -> new GroupKey(x.numberItem)).toList();
+		assertEquals(4, groups.size());
+		assertEquals(Arrays.asList(1, 2, 3, 4), Query.iterable(groups).select(x -> x.getKey().first()).toList());
+		assertEquals(Arrays.asList("Item Three", "Item Four", "Item Five"), Query.iterable(groups.get(1)).select(x -> x.textItem).toList());
+
+		// each run is a separate group
+		List<Integer> numbers = Arrays.asList(1, 1, 2, 1, 3, 3, 3);
+		List<Group<Integer>> runs = Query.list(numbers).groupAdjacent(x -> GroupKey.of(x)).toList();
+		assertEquals(Arrays.asList(2, 1, 1, 3), Query.iterable(runs).select(x -> x.size()).toList());
+		assertEquals(Arrays.asList(1, 2, 1, 3), Query.iterable(runs).select(x -> x.getKey().first()).toList());
+
+		assertEquals(0, Query.list(new ArrayList<Integer>()).groupAdjacent(x -> GroupKey.of(x)).count());
+		// lazy: only the first run is read
+		assertEquals(2, Query.iterable(() -> numbers.iterator()).groupAdjacent(x -> GroupKey.of(x)).first().size());
+	}
+
+	@Test
+	public void test_groupAdjacentAggregate() {
+		List<Integer> numbers = Arrays.asList(1, 1, 2, 1, 3, 3, 3);
+		List<Map.Entry<Integer, Integer>> sums = Query.list(numbers).groupAdjacentAggregate(x -> x, Aggregator.<Integer, Integer>of(() -> 0, (acc, x) -> acc + x)).toList();
+
+		assertEquals(Arrays.asList(1, 2, 1, 3), Query.iterable(sums).select(x -> x.getKey()).toList());
+		assertEquals(Arrays.asList(2, 2, 1, 9), Query.iterable(sums).select(x -> x.getValue()).toList());
+
+		Map.Entry<Integer, Integer> counts = Query.list(sampleData).groupAdjacentAggregate(x -> x.numberItem,
+				Aggregator.<TestPojo, Integer>of(() -> 0, (acc, x) -> acc + 1)).elementAt(1);
+		assertEquals(2, (int) counts.getKey());
+		assertEquals(3, (int) counts.getValue());
+	}
+
+	@Test
+	public void test_groupSpilling() throws IOException {
+		List<Integer> numbers = new ArrayList<Integer>();
+		for (int i = 0; i < 2000; i++)
+			numbers.add(i % 10 == 0 ? 5 : i);
+
+		ElementSerializer<Integer> serializer = new ElementSerializer<Integer>() {
+			@Override
+			public void write(Integer element, DataOutput out) throws IOException {
+				out.writeInt(element);
+			}
+
+			@Override
+			public Integer read(DataInput in) throws IOException {
+				return in.readInt();
+			}
+		};
+
+		File directory = Files.createTempDirectory("quiterables-test").toFile();
+		try {
+			GroupedList<Integer> expected = Query.list(numbers).group(x -> GroupKey.of(x % 97)).toList();
+			// the group of key 5 does not fit into memory and cannot be split up by partitioning
+			GroupedList<Integer> spilled = Query.list(numbers).groupSpilling(x -> GroupKey.of(x % 97), serializer, 50, directory).toList();
+
+			assertEquals(expected.size(), spilled.size());
+			for (Group<Integer> g : expected)
+				assertEquals(g, spilled.get(g.getKey()));
+
+			// the temporary files are deleted after the iteration
+			assertEquals(0, directory.listFiles().length);
+
+			// no files are needed if the elements fit into memory
+			assertEquals(3, Query.list(Arrays.asList(1, 2, 3, 1)).groupSpilling(x -> GroupKey.of(x), serializer, 10, directory).count());
+			assertEquals(0, directory.listFiles().length);
+		} finally {
+			directory.delete();
+		}
+	}
+
+	private static void assertKeysEqual(GroupKey expected, GroupKey actual) {
+		assertEquals(expected, actual);
+		assertEquals(actual, expected);
+		assertEquals(expected.hashCode(), actual.hashCode());
+	}
 }
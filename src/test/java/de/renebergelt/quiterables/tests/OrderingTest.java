@@ -2,13 +2,28 @@ package de.renebergelt.quiterables.tests;
 
 import static org.junit.Assert.*;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 import org.junit.Test;
 
+import de.renebergelt.quiterables.OrderedQueriable;
+import de.renebergelt.quiterables.ElementSerializer;
 import de.renebergelt.quiterables.Query;
 import de.renebergelt.quiterables.grouping.Group;
 import de.renebergelt.quiterables.iterators.ListReverseIterable;
@@ -108,6 +123,7 @@ public class OrderingTest {
 				fail("Arrays do not match.");
 			idx++;
 		}
+		assertEquals(reversedArray.length, idx);
 	}
 
 	private Integer getRankOfTitle(String title) {
@@ -171,6 +187,250 @@ public class OrderingTest {
 		assertEquals("Group 2", ((ComplexValue)lst.get(1).getKey().first()).text);
 		assertEquals("Group 1", ((ComplexValue)lst.get(2).getKey().first()).text);
 	}
+
+	@Test
+	public void test_orderBy_take_top_k() {
+		Random random = new Random(42);
+		List<Integer> numbers = new ArrayList<Integer>();
+		for (int i = 0; i < 1000; i++)
+			numbers.add(random.nextInt(100));
+
+		List<Integer> sorted = new ArrayList<Integer>(numbers);
+		Collections.sort(sorted);
+
+		for (int k : new int[] { 0, 1, 2, 10, 999, 1000, 2000 })
+			assertEquals(sorted.subList(0, Math.min(k, sorted.size())), Query.list(numbers).orderBy(x -> x).take(k).toList());
+
+		assertEquals(sorted.get(0), Query.list(numbers).orderBy(x -> x).first());
+		assertEquals(sorted.get(17), Query.list(numbers).orderBy(x -> x).elementAt(17));
+		assertNull(Query.list(numbers).orderBy(x -> x).elementAtOrDefault(1000));
+		assertNull(Query.list(new ArrayList<Integer>()).orderBy(x -> x).firstOrDefault());
+	}
+
+	@Test
+	public void test_orderBy_take_is_stable() {
+		// elements with equal keys have to keep their source order
+		List<TestPerson> testList = Arrays.asList(new TestPerson[] { new TestPerson("Gamma", "Omega"),
+				new TestPerson("Beta", "Gamma"), new TestPerson("Delta", "Alpha"), new TestPerson("Delta", "Beta"),
+				new TestPerson("Alpha", "Omega"), new TestPerson("Iota", "Theta"), new TestPerson("Epsilon", "Omega") });
+
+		List<TestPerson> fullSort = Query.list(testList).orderByDescending(x -> x.lastName).toList();
+
+		for (int k = 1; k <= testList.size(); k++)
+			assertEquals(fullSort.subList(0, k), Query.list(testList).orderByDescending(x -> x.lastName).take(k).toList());
+
+		assertEquals(new TestPerson("Iota", "Theta"), Query.list(testList).orderByDescending(x -> x.lastName).first());
+		assertEquals(new TestPerson("Gamma", "Omega"), Query.list(testList).orderByDescending(x -> x.lastName).elementAt(1));
+		assertEquals(new TestPerson("Beta", "Gamma"), Query.list(testList).orderByDescending(x -> x.lastName).thenBy(x -> x.firstName).elementAt(4));
+	}
+
+	@Test
+	public void test_orderBy_evaluates_keys_once() {
+		Random random = new Random(7);
+		List<Integer> numbers = new ArrayList<Integer>();
+		for (int i = 0; i < 500; i++)
+			numbers.add(random.nextInt(50));
+
+		final int[] calls = new int[2];
+		List<Integer> result = Query.list(numbers).orderBy(x -> { calls[0]++; return x / 10; }).thenByDescending(x -> { calls[1]++; return x; }).toList();
+
+		assertEquals(numbers.size(), calls[0]);
+		assertEquals(numbers.size(), calls[1]);
+		for (int i = 1; i < result.size(); i++) {
+			int prev = result.get(i - 1), cur = result.get(i);
+			assertTrue(prev / 10 < cur / 10 || (prev / 10 == cur / 10 && prev >= cur));
+		}
+
+		calls[0] = 0;
+		Query.list(numbers).orderBy(x -> { calls[0]++; return x; }).take(5).toList();
+		assertEquals(numbers.size(), calls[0]);
+	}
+
+	@Test
+	public void test_parallelSort() {
+		Random random = new Random(3);
+		List<int[]> pairs = new ArrayList<int[]>();
+		for (int i = 0; i < 50000; i++)
+			pairs.add(new int[] { random.nextInt(1000), i });
+
+		List<int[]> sequential = Query.list(pairs).orderByDescending(x -> x[0]).toList();
+		List<int[]> parallel = Query.list(pairs).orderByDescending(x -> x[0]).parallelSort().toList();
+
+		ForkJoinPool pool = new ForkJoinPool(3);
+		List<int[]> parallelInPool = Query.list(pairs).orderByDescending(x -> x[0]).parallelSort(pool).toList();
+		pool.shutdown();
+
+		// the parallel sort has to be stable as well
+		assertEquals(sequential.size(), parallel.size());
+		for (int i = 0; i < sequential.size(); i++) {
+			assertSame(sequential.get(i), parallel.get(i));
+			assertSame(sequential.get(i), parallelInPool.get(i));
+		}
+	}
+
+	@Test
+	public void test_parallelSort_runs_in_pool() {
+		Random random = new Random(3);
+		List<Integer> numbers = new ArrayList<Integer>();
+		for (int i = 0; i < 100000; i++)
+			numbers.add(random.nextInt());
+
+		// the comparisons are done by the threads of the given pool
+		final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			List<Integer> sorted = Query.list(numbers).orderBy(x -> x, (Integer x, Integer y) -> {
+				threads.add(Thread.currentThread());
+				return x.compareTo(y);
+			}).parallelSort(pool).toList();
+
+			List<Integer> expected = new ArrayList<Integer>(numbers);
+			Collections.sort(expected);
+			assertEquals(expected, sorted);
+		} finally {
+			pool.shutdown();
+		}
+
+		assertFalse(threads.isEmpty());
+		for (Thread thread : threads)
+			assertTrue(thread instanceof ForkJoinWorkerThread && ((ForkJoinWorkerThread) thread).getPool() == pool);
+	}
+
+	@Test
+	public void test_externalSort() throws IOException {
+		Random random = new Random(5);
+		List<int[]> pairs = new ArrayList<int[]>();
+		for (int i = 0; i < 1000; i++)
+			pairs.add(new int[] { random.nextInt(50), random.nextInt(3), i });
+
+		ElementSerializer<int[]> serializer = new ElementSerializer<int[]>() {
+			@Override
+			public void write(int[] element, DataOutput out) throws IOException {
+				for (int value : element)
+					out.writeInt(value);
+			}
+
+			@Override
+			public int[] read(DataInput in) throws IOException {
+				return new int[] { in.readInt(), in.readInt(), in.readInt() };
+			}
+		};
+
+		File directory = Files.createTempDirectory("quiterables-test").toFile();
+		try {
+			List<int[]> expected = Query.list(pairs).orderBy(x -> x[0]).thenByDescending(x -> x[1]).toList();
+			OrderedQueriable<int[]> external = Query.list(pairs).orderBy(x -> x[0]).thenByDescending(x -> x[1]).externalSort(serializer, 64, directory);
+
+			// the sort is stable across runs
+			List<int[]> result = external.toList();
+			assertEquals(expected.size(), result.size());
+			for (int i = 0; i < expected.size(); i++)
+				assertArrayEquals(expected.get(i), result.get(i));
+
+			// the temporary files are deleted after the iteration
+			assertEquals(0, directory.listFiles().length);
+
+			// more runs than can be merged at once are merged in intermediate passes
+			result = Query.list(pairs).orderBy(x -> x[0]).thenByDescending(x -> x[1]).externalSort(serializer, 5, directory).toList();
+			for (int i = 0; i < expected.size(); i++)
+				assertArrayEquals(expected.get(i), result.get(i));
+			assertEquals(0, directory.listFiles().length);
+
+			// take and elementAt beyond the memory limit use the external sort as well
+			List<int[]> taken = external.take(500).toList();
+			assertEquals(500, taken.size());
+			for (int i = 0; i < taken.size(); i++)
+				assertArrayEquals(expected.get(i), taken.get(i));
+			assertArrayEquals(expected.get(700), external.elementAt(700));
+			assertArrayEquals(expected.get(10), external.elementAt(10));
+
+			// fewer elements than maxElementsInMemory do not need any files
+			assertArrayEquals(expected.get(0), Query.list(pairs).orderBy(x -> x[0]).thenByDescending(x -> x[1]).externalSort(serializer, 5000, directory).first());
+			assertEquals(0, Query.list(new ArrayList<int[]>()).orderBy(x -> x[0]).externalSort(serializer, 10, directory).count());
+
+			// a failing intermediate merge pass closes its runs and deletes the temporary files
+			// (the partial iterations of take and elementAt above leave their directories behind)
+			int leftBehind = directory.listFiles().length;
+			final int[] reads = new int[1];
+			ElementSerializer<int[]> failing = new ElementSerializer<int[]>() {
+				@Override
+				public void write(int[] element, DataOutput out) throws IOException {
+					serializer.write(element, out);
+				}
+
+				@Override
+				public int[] read(DataInput in) throws IOException {
+					if (++reads[0] > 100)
+						throw new IOException("failed");
+					return serializer.read(in);
+				}
+			};
+			try {
+				Query.list(pairs).orderBy(x -> x[0]).externalSort(failing, 5, directory).toList();
+				fail();
+			} catch (UncheckedIOException e) {
+				// expected
+			}
+			assertEquals(leftBehind, directory.listFiles().length);
+		} finally {
+			directory.delete();
+		}
+	}
+
+	@Test
+	public void test_orderByLong() {
+		Random random = new Random(11);
+		List<long[]> events = new ArrayList<long[]>();
+		for (int i = 0; i < 5000; i++)
+			events.add(new long[] { random.nextInt(200) - 100 + (random.nextBoolean() ? Long.MIN_VALUE / 2 : 1_500_000_000_000L), random.nextInt(5), i });
+
+		assertSameOrder(Query.list(events).orderBy(x -> x[0]).toList(), Query.list(events).orderByLong(x -> x[0]).toList());
+		assertSameOrder(Query.list(events).orderByDescending(x -> x[0]).toList(), Query.list(events).orderByLongDescending(x -> x[0]).toList());
+		assertSameOrder(Query.list(events).orderBy(x -> x[1]).thenByDescending(x -> x[0]).toList(),
+				Query.list(events).orderByLong(x -> x[1]).thenByLongDescending(x -> x[0]).toList());
+
+		// mixed primitive and object keys
+		assertSameOrder(Query.list(events).orderBy(x -> x[1]).thenBy(x -> String.valueOf(x[0])).toList(),
+				Query.list(events).orderByLong(x -> x[1]).thenBy(x -> String.valueOf(x[0])).toList());
+
+		// top-k with primitive keys
+		assertSameOrder(Query.list(events).orderBy(x -> x[1]).take(100).toList(), Query.list(events).orderByLong(x -> x[1]).take(100).toList());
+	}
+
+	@Test
+	public void test_orderByDouble() {
+		List<Double> numbers = Arrays.asList(3.5, -0.0, 0.0, Double.NaN, -12.25, Double.NEGATIVE_INFINITY, 1e300, -1e-300, 7.0, Double.POSITIVE_INFINITY, 3.5);
+
+		List<Double> sorted = new ArrayList<Double>(numbers);
+		Collections.sort(sorted);
+		assertEquals(sorted, Query.list(numbers).orderByDouble(x -> x).toList());
+
+		Collections.reverse(sorted);
+		assertEquals(sorted, Query.list(numbers).orderByDoubleDescending(x -> x).toList());
+
+		List<TestPerson> testList = Arrays.asList(new TestPerson[] { new TestPerson("Gamma", "Omega"),
+				new TestPerson("Beta", "Gamma"), new TestPerson("Delta", "Alpha"), new TestPerson("Delta", "Beta") });
+		assertEquals(Query.list(testList).orderBy(x -> x.firstName.length()).thenByDescending(x -> x.lastName.length() * 0.5).toList(),
+				Query.list(testList).orderByDouble(x -> x.firstName.length()).thenByDoubleDescending(x -> x.lastName.length() * 0.5).toList());
+	}
+
+	private <T> void assertSameOrder(List<T> expected, List<T> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertSame(expected.get(i), actual.get(i));
+	}
+
+	@Test
+	public void test_group_order_take() {
+		List<Integer> numbers = Arrays.asList(1, 2, 2, 3, 3, 3, 4, 4, 4, 4, 5);
+
+		List<Group<Integer>> groups = Query.list(numbers).groupSingle(x -> x).orderByDescending(x -> x.size()).take(2).toList();
+		assertEquals(2, groups.size());
+		assertEquals(4, groups.get(0).size());
+		assertEquals(3, groups.get(1).size());
+
+		assertEquals(1, Query.list(numbers).groupSingle(x -> x).orderBy(x -> x.size()).first().size());
+	}
 }
 
 class ComplexElement {
@@ -0,0 +1,154 @@
+package de.renebergelt.quiterables.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import de.renebergelt.quiterables.Queriable;
+import de.renebergelt.quiterables.Query;
+import de.renebergelt.quiterables.grouping.GroupKey;
+import de.renebergelt.quiterables.grouping.GroupedList;
+
+public class ParallelQueryTest {
+
+	private List<Integer> numbers(int count) {
+		List<Integer> list = new ArrayList<Integer>(count);
+		for (int i = 0; i < count; i++)
+			list.add((i * 7919) % 1000);
+		return list;
+	}
+
+	@Test
+	public void test_asParallel_toList() {
+		List<Integer> source = numbers(10000);
+
+		List<Integer> expected = Query.list(source).where(x -> x % 3 == 0).select(x -> x * 2).toList();
+		assertEquals(expected, Query.list(source).asParallel().where(x -> x % 3 == 0).select(x -> x * 2).asOrdered().toList());
+
+		// without asOrdered() only the elements are the same
+		List<Integer> unordered = Query.list(source).asParallel().where(x -> x % 3 == 0).select(x -> x * 2).toList();
+		Collections.sort(unordered);
+		List<Integer> sortedExpected = new ArrayList<Integer>(expected);
+		Collections.sort(sortedExpected);
+		assertEquals(sortedExpected, unordered);
+
+		// sources without random access are copied
+		assertEquals(expected, Query.iterable(new LinkedList<Integer>(source)).asParallel().where(x -> x % 3 == 0).select(x -> x * 2).asOrdered().toList());
+
+		assertEquals(Arrays.asList(1, 1, 2, 2, 3, 3), Query.list(Arrays.asList(1, 2, 3)).asParallel().selectMany(x -> Arrays.asList(x, x)).asOrdered().toList());
+		assertTrue(Query.list(new ArrayList<Integer>()).asParallel().toList().isEmpty());
+	}
+
+	@Test
+	public void test_asParallel_aggregates() {
+		List<Integer> source = numbers(5000);
+		Queriable<Integer> q = Query.list(source);
+
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			assertEquals(q.count(), q.asParallel(pool, 2).count());
+			assertEquals(q.count(x -> x > 500), q.asParallel(pool, 2).count(x -> x > 500));
+			assertEquals(q.sum(), q.asParallel(pool, 2).sum());
+			assertEquals(q.sum(x -> x * 0.5), q.asParallel(pool, 2).sum(x -> x * 0.5));
+			assertEquals(q.max(), q.asParallel(pool, 2).max());
+			assertEquals(q.min(), q.asParallel(pool, 2).min());
+			assertEquals(q.max(x -> -x), q.asParallel(pool, 2).max(x -> -x));
+			assertEquals(q.min(x -> x * 2L), q.asParallel(pool, 2).min(x -> x * 2L));
+		} finally {
+			pool.shutdown();
+		}
+
+		assertEquals(0, Query.list(new ArrayList<Integer>()).asParallel().sum());
+		try {
+			Query.list(new ArrayList<Integer>()).asParallel().max();
+			fail();
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void test_asParallel_group_and_sequential() {
+		List<Integer> source = numbers(3000);
+
+		GroupedList<Integer> expected = Query.list(source).group(x -> GroupKey.of(x % 13)).toList();
+		GroupedList<Integer> parallel = Query.list(source).asParallel().group(x -> GroupKey.of(x % 13)).toList();
+		assertEquals(expected.size(), parallel.size());
+		for (int i = 0; i < 13; i++)
+			assertEquals(expected.get(GroupKey.of(i)), parallel.get(GroupKey.of(i)));
+
+		// asSequential is evaluated when it is enumerated
+		List<Integer> list = new ArrayList<Integer>(Arrays.asList(1, 2, 3));
+		Queriable<Integer> sequential = Query.list(list).asParallel().select(x -> x * 10).asOrdered().asSequential();
+		list.add(4);
+		assertEquals(Arrays.asList(10, 20, 30, 40), sequential.toList());
+	}
+
+	@Test
+	public void test_asParallel_group_ordered() {
+		List<Integer> source = numbers(20000);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			// many keys, so that every chunk has its own partial groups of a key
+			List<Object> expectedKeys = new ArrayList<Object>();
+			for (Integer x : source)
+				if (!expectedKeys.contains(x % 500))
+					expectedKeys.add(x % 500);
+
+			GroupedList<Integer> expected = Query.list(source).group(x -> GroupKey.of(x % 500)).toList();
+			GroupedList<Integer> parallel = Query.list(source).asParallel(pool, 4).asOrdered().group(x -> GroupKey.of(x % 500)).toList();
+			assertEquals(500, parallel.size());
+			for (int i = 0; i < parallel.size(); i++) {
+				// the groups are ordered by the first occurrence of their key
+				assertEquals(expectedKeys.get(i), parallel.get(i).getKey().first());
+				assertEquals(expected.get(parallel.get(i).getKey()), parallel.get(i));
+			}
+
+			// a null key is a group as well
+			GroupedList<Integer> withNull = Query.list(source).asParallel(pool, 4).group(x -> x % 2 == 0 ? null : GroupKey.of(1)).toList();
+			assertEquals(2, withNull.size());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void test_asParallel_null_ends_sequence() {
+		assertEquals(Arrays.asList(1), Query.list(Arrays.asList(1, 2, 3, 4)).asParallel().select(x -> x == 2 ? null : x).toList());
+
+		List<Integer> source = new ArrayList<Integer>();
+		for (int i = 0; i < 10000; i++)
+			source.add(i);
+
+		// as with the sequential query a null element ends the sequence (in the order of the source)
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			Queriable<Integer> q = Query.list(source).select(x -> x == 5000 ? null : x);
+			assertEquals(q.toList(), Query.list(source).asParallel(pool, 4).select(x -> x == 5000 ? null : x).asOrdered().toList());
+			assertEquals(5000, Query.list(source).asParallel(pool, 4).select(x -> x == 5000 ? null : x).toList().size());
+			assertEquals(q.count(), Query.list(source).asParallel(pool, 4).select(x -> x == 5000 ? null : x).count());
+			assertEquals(q.sum(), Query.list(source).asParallel(pool, 4).select(x -> x == 5000 ? null : x).sum());
+			assertEquals(q.max(), Query.list(source).asParallel(pool, 4).select(x -> x == 5000 ? null : x).max());
+
+			// elements after the end are not evaluated by the sequential query, so their exceptions are not thrown either
+			assertEquals(3, Query.list(source).asParallel(pool, 4).select(x -> x == 3 ? null : 10 / (x - 7000)).count());
+
+			assertEquals(Arrays.asList(1, 1, 2), Query.list(Arrays.asList(1, 2, 3)).selectMany(x -> Arrays.asList(x, x == 2 ? null : x)).toList());
+			assertEquals(Arrays.asList(1, 1, 2), Query.list(Arrays.asList(1, 2, 3)).asParallel(pool, 4).selectMany(x -> Arrays.asList(x, x == 2 ? null : x)).asOrdered().toList());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void test_asParallel_exception() {
+		Query.list(numbers(1000)).asParallel().select(x -> 10 / (x - 500)).toList();
+	}
+}
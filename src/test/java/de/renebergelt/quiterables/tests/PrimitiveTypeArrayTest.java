@@ -2,6 +2,9 @@ package de.renebergelt.quiterables.tests;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
 
 import de.renebergelt.quiterables.Query;
@@ -76,6 +79,58 @@ public class PrimitiveTypeArrayTest {
 		char result = Query.array(d).firstOrDefault(x -> x == 'l');
 		
 		assertEquals(result, 'l');
-	}	
+	}
+	
+	@Test
+	public void test_int_queriable() {
+		int[] d = new int[] {5, 1, 8, 3, 10, 2};
+		
+		assertEquals(29, Query.intArray(d).sum());
+		assertEquals(1, Query.intArray(d).min());
+		assertEquals(10, Query.intArray(d).max());
+		assertEquals(29 / 6.0, Query.intArray(d).average(), 0.0001);
+		assertArrayEquals(new int[] {16, 20}, Query.intArray(d).where(x -> x > 5).select(x -> x * 2).toArray());
+		assertEquals(3, Query.intArray(d).count(x -> x % 2 == 0));
+		assertEquals(-1, Query.intArray(d).where(x -> x > 100).firstOrDefault(-1));
+	}
 	
+	@Test
+	public void test_int_queriable_sum_does_not_overflow() {
+		int[] d = new int[] {Integer.MAX_VALUE, Integer.MAX_VALUE};
+		
+		assertEquals(2L * Integer.MAX_VALUE, Query.intArray(d).sum());
+	}
+	
+	@Test
+	public void test_long_queriable() {
+		long[] d = new long[] {5, 1, 8, 3};
+		
+		assertEquals(17, Query.longArray(d).sum());
+		assertEquals(8, Query.longArray(d).max());
+		assertArrayEquals(new long[] {5, 8}, Query.longArray(d).where(x -> x > 4).toArray());
+		assertEquals("5;8", String.join(";", Query.longArray(d).where(x -> x > 4).selectToObj(x -> String.valueOf(x)).toList()));
+	}
+	
+	@Test
+	public void test_double_queriable() {
+		double[] d = new double[] {1.5d, 2.5d, 3.5d};
+		
+		assertEquals(7.5d, Query.doubleArray(d).sum(), 0.0001);
+		assertEquals(1.5d, Query.doubleArray(d).min(), 0.0001);
+		assertEquals(2.5d, Query.doubleArray(d).average(), 0.0001);
+		assertArrayEquals(new double[] {5d, 7d}, Query.doubleArray(d).where(x -> x > 2).select(x -> x * 2).toArray(), 0.0001);
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void test_int_queriable_min_empty() {
+		Query.intArray(new int[0]).min();
+	}
+	
+	@Test
+	public void test_selectInt() {
+		List<TestPojo> list = Arrays.asList(new TestPojo("One", 1), new TestPojo("Two", 2), new TestPojo("Three", 3));
+		
+		assertEquals(5, Query.list(list).selectInt(x -> x.numberItem).where(x -> x > 1).sum());
+		assertEquals(2.0, Query.list(list).selectDouble(x -> x.numberItem).average(), 0.0001);
+	}
 }
@@ -0,0 +1,169 @@
+package de.renebergelt.quiterables.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import de.renebergelt.quiterables.Query;
+
+public class PublisherTest {
+
+	/**
+	 * Subscriber which records all signals
+	 */
+	private static class RecordingSubscriber<T> implements Subscriber<T> {
+		Subscription subscription;
+		List<T> elements = new ArrayList<T>();
+		Throwable error;
+		boolean completed = false;
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			subscription = s;
+		}
+
+		@Override
+		public void onNext(T element) {
+			elements.add(element);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			error = t;
+		}
+
+		@Override
+		public void onComplete() {
+			completed = true;
+		}
+	}
+
+	@Test
+	public void test_toPublisher_honors_requests() {
+		final AtomicInteger evaluated = new AtomicInteger();
+		Publisher<Integer> publisher = Query.list(Arrays.asList(1, 2, 3, 4, 5)).select(x -> {
+			evaluated.incrementAndGet();
+			return x * 10;
+		}).toPublisher();
+
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<Integer>();
+		publisher.subscribe(subscriber);
+		assertTrue(subscriber.elements.isEmpty());
+
+		subscriber.subscription.request(2);
+		assertEquals(Arrays.asList(10, 20), subscriber.elements);
+		// no element is computed before it has been requested
+		assertEquals(2, evaluated.get());
+		assertFalse(subscriber.completed);
+
+		subscriber.subscription.request(10);
+		assertEquals(Arrays.asList(10, 20, 30, 40, 50), subscriber.elements);
+		assertEquals(5, evaluated.get());
+		assertTrue(subscriber.completed);
+		assertNull(subscriber.error);
+
+		// if exactly all elements have been requested, the completion is signaled by the next request
+		subscriber = new RecordingSubscriber<Integer>();
+		Query.list(Arrays.asList(1, 2, 3)).toPublisher().subscribe(subscriber);
+		subscriber.subscription.request(3);
+		assertEquals(Arrays.asList(1, 2, 3), subscriber.elements);
+		assertFalse(subscriber.completed);
+		subscriber.subscription.request(1);
+		assertEquals(Arrays.asList(1, 2, 3), subscriber.elements);
+		assertTrue(subscriber.completed);
+	}
+
+	@Test
+	public void test_toPublisher_cancel_and_invalid_request() {
+		RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<Integer>();
+		Query.list(Arrays.asList(1, 2, 3)).toPublisher().subscribe(subscriber);
+		subscriber.subscription.request(1);
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(1);
+		assertEquals(Arrays.asList(1), subscriber.elements);
+		assertFalse(subscriber.completed);
+
+		subscriber = new RecordingSubscriber<Integer>();
+		Query.list(Arrays.asList(1, 2, 3)).toPublisher().subscribe(subscriber);
+		subscriber.subscription.request(0);
+		assertTrue(subscriber.error instanceof IllegalArgumentException);
+	}
+
+	@Test
+	public void test_fromPublisher() {
+		List<Integer> source = new ArrayList<Integer>();
+		for (int i = 0; i < 1000; i++)
+			source.add(i);
+
+		// count the requested elements
+		final AtomicInteger maxOutstanding = new AtomicInteger();
+		final Publisher<Integer> inner = Query.list(source).toPublisher();
+		Publisher<Integer> publisher = subscriber -> inner.subscribe(new Subscriber<Integer>() {
+			long outstanding = 0;
+
+			@Override
+			public void onSubscribe(final Subscription s) {
+				subscriber.onSubscribe(new Subscription() {
+					@Override
+					public void request(long n) {
+						outstanding += n;
+						maxOutstanding.accumulateAndGet((int) outstanding, Math::max);
+						s.request(n);
+					}
+
+					@Override
+					public void cancel() {
+						s.cancel();
+					}
+				});
+			}
+
+			@Override
+			public void onNext(Integer element) {
+				outstanding--;
+				subscriber.onNext(element);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				subscriber.onError(t);
+			}
+
+			@Override
+			public void onComplete() {
+				subscriber.onComplete();
+			}
+		});
+
+		assertEquals(source, Query.fromPublisher(publisher, 16).toList());
+		assertTrue(maxOutstanding.get() <= 16);
+
+		assertEquals(Arrays.asList(0, 2, 4), Query.fromPublisher(inner).where(x -> x % 2 == 0).take(3).toList());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void test_fromPublisher_error() {
+		Publisher<Integer> publisher = subscriber -> {
+			subscriber.onSubscribe(new Subscription() {
+				@Override
+				public void request(long n) {
+					subscriber.onError(new IllegalStateException("failed"));
+				}
+
+				@Override
+				public void cancel() {
+					// --
+				}
+			});
+		};
+		Query.fromPublisher(publisher).toList();
+	}
+}
@@ -0,0 +1,68 @@
+package de.renebergelt.quiterables.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.renebergelt.quiterables.Queriable;
+import de.renebergelt.quiterables.Query;
+
+public class PushIterationTest {
+
+	/**
+	 * Enumerate the given queriable using its (pull-based) iterator
+	 */
+	private <T> List<T> pull(Queriable<T> q) {
+		List<T> result = new ArrayList<T>();
+		for(T element: q)
+			result.add(element);
+		return result;
+	}
+	
+	@Test
+	public void test_push_equals_pull() {
+		List<Integer> list = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+		
+		Queriable<Integer> q = Query.list(list).where(x -> x % 2 == 0).select(x -> x * 3).skip(1).take(3);
+		assertEquals(pull(q), q.toList());
+		assertEquals(3, q.count());
+		assertEquals(54, q.sum().intValue());
+		
+		q = Query.list(list).skipWhile(x -> x < 4).takeWhile(x -> x < 8).concat(Arrays.asList(20, 21));
+		assertEquals(pull(q), q.toList());
+		assertEquals(Arrays.asList(4, 5, 6, 7, 20, 21), q.toList());
+		
+		q = Query.list(list).take(3).selectMany(x -> Arrays.asList(x, x));
+		assertEquals(pull(q), q.toList());
+	}
+	
+	@Test
+	public void test_push_null_ends_sequence() {
+		// the lazy iterators end the sequence at a null element
+		// the push-based enumeration has to behave the same
+		List<String> list = Arrays.asList("a", "b", null, "c");
+		
+		Queriable<String> q = Query.list(list).where(x -> true);
+		assertEquals(pull(q), q.toList());
+		assertEquals(2, q.count());
+		
+		q = Query.list(list).take(2).concat(Arrays.asList("d")).select(x -> "b".equals(x) ? null : x);
+		assertEquals(pull(q), q.toList());
+	}
+	
+	@Test
+	public void test_push_short_circuit() {
+		List<LazyObject> sampleData = Arrays.asList(new LazyObject("One", 1), new LazyObject("Two", 2), new LazyObject("Three", 3));
+		
+		assertTrue(Query.list(sampleData).where(x -> x.getValue() > 0).exists(x -> x.getValue() == 2));
+		assertFalse(sampleData.get(2).wasQueried);
+		
+		final List<Integer> visited = new ArrayList<Integer>();
+		Query.list(sampleData).take(2).forEach(x -> visited.add(x.value));
+		assertEquals(Arrays.asList(1, 2), visited);
+	}
+}
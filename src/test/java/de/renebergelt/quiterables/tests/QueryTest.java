@@ -11,6 +11,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import de.renebergelt.quiterables.Equivalence;
+import de.renebergelt.quiterables.HashingEquivalence;
 import de.renebergelt.quiterables.QuIterables;
 import de.renebergelt.quiterables.Queriable;
 import de.renebergelt.quiterables.Query;
@@ -426,6 +427,78 @@ public class QueryTest {
 		assertEquals(1, q.count());
 	}
 
+	@Test
+	public void test_intersect_except_lazy() {
+		List<Integer> left = new ArrayList<Integer>();
+		List<Integer> right = new ArrayList<Integer>();
+		for (int i = 0; i < 20000; i++) {
+			left.add(i);
+			right.add(i * 2);
+		}
+
+		Queriable<Integer> intersection = Query.list(left).intersect(right);
+		Queriable<Integer> difference = Query.list(left).except(right);
+
+		// the other side is read when the result is enumerated
+		right.add(1);
+
+		assertEquals(10001, intersection.count());
+		assertEquals(Arrays.asList(0, 1, 2, 4), intersection.take(4).toList());
+		assertEquals(9999, difference.count());
+		assertEquals(Arrays.asList(3, 5, 7), difference.take(3).toList());
+
+		// duplicates of the left side are kept
+		assertEquals(Arrays.asList(2, 2, 3), Query.list(Arrays.asList(1, 2, 2, 3)).intersect(Arrays.asList(3, 2)).toList());
+	}
+
+	@Test
+	public void test_hashing_equivalence() {
+		HashingEquivalence<String> ignoreCase = new HashingEquivalence<String>() {
+			@Override
+			public boolean areEqual(String element1, String element2) {
+				return element1.equalsIgnoreCase(element2);
+			}
+
+			@Override
+			public int hashCodeOf(String element) {
+				return element.toLowerCase().hashCode();
+			}
+		};
+
+		List<String> words = new ArrayList<String>();
+		for (int i = 0; i < 200000; i++)
+			words.add((i % 2 == 0 ? "Word" : "WORD") + (i % 50000));
+
+		// would take ages with the linear comparison
+		Queriable<String> distinct = Query.list(words).distinct(ignoreCase);
+		assertEquals(50000, distinct.count());
+		assertEquals(Arrays.asList("Word0", "WORD1", "Word2"), distinct.take(3).toList());
+
+		List<String> listOne = Arrays.asList(new String[] { "One", "Two", "Three", "Four" });
+		List<String> listTwo = Arrays.asList(new String[] { "THREE", "four", "Five" });
+		assertEquals(Arrays.asList("Three", "Four"), Query.list(listOne).intersect(listTwo, ignoreCase).toList());
+		assertEquals(Arrays.asList("One", "Two"), Query.list(listOne).except(listTwo, ignoreCase).toList());
+		assertEquals(Arrays.asList("One", "Two", "Three", "Four", "Five"), Query.list(listOne).union(listTwo, ignoreCase).toList());
+	}
+
+	@Test
+	public void test_keyed_set_operators() {
+		List<TestPerson> persons = Arrays.asList(new TestPerson("Ann", "Smith"), new TestPerson("Bob", "Miller"),
+				new TestPerson("Carl", "Smith"), new TestPerson("Dora", "Jones"), new TestPerson("Eve", "Miller"));
+
+		assertEquals(Arrays.asList("Ann", "Bob", "Dora"), Query.list(persons).distinctBy(x -> x.lastName).select(x -> x.firstName).toList());
+		assertEquals(Arrays.asList("Bob", "Dora", "Eve"), Query.list(persons).intersectBy(Arrays.asList("Miller", "Jones"), x -> x.lastName).select(x -> x.firstName).toList());
+		assertEquals(Arrays.asList("Ann", "Carl"), Query.list(persons).exceptBy(Arrays.asList("Miller", "Jones"), x -> x.lastName).select(x -> x.firstName).toList());
+
+		List<TestPerson> others = Arrays.asList(new TestPerson("Fred", "Jones"), new TestPerson("Gina", "Brown"));
+		assertEquals(Arrays.asList("Ann", "Bob", "Dora", "Gina"), Query.list(persons).unionBy(others, x -> x.lastName).select(x -> x.firstName).toList());
+
+		// each enumeration starts with an empty set of keys
+		Queriable<TestPerson> q = Query.list(persons).distinctBy(x -> x.lastName);
+		assertEquals(3, q.count());
+		assertEquals(3, q.toList().size());
+	}
+
 	@Test
 	public void test_count() {
 		assertEquals(2, Query.list(sampleData).where(x -> x.textItem.endsWith("e")).count());
@@ -0,0 +1,80 @@
+package de.renebergelt.quiterables.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.renebergelt.quiterables.Query;
+
+public class SelectAsyncTest {
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	@Test
+	public void test_selectAsync_preserves_order() {
+		List<Integer> source = new ArrayList<Integer>();
+		for (int i = 0; i < 50; i++)
+			source.add(i);
+
+		// later elements finish first
+		List<Integer> result = Query.list(source).selectAsync(x -> {
+			sleep((50 - x) % 5);
+			return x * 2;
+		}, 8).toList();
+
+		assertEquals(Query.list(source).select(x -> x * 2).toList(), result);
+	}
+
+	@Test
+	public void test_selectAsync_completion_order() {
+		List<Integer> result = Query.list(Arrays.asList(300, 10, 150)).selectAsync(x -> {
+			sleep(x);
+			return x;
+		}, 3, false).toList();
+
+		assertEquals(Arrays.asList(10, 150, 300), result);
+	}
+
+	@Test
+	public void test_selectAsync_limits_concurrency() {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(10);
+		try {
+			int count = Query.list(Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12)).selectAsync(x -> {
+				maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				sleep(10);
+				running.decrementAndGet();
+				return x;
+			}, 3, true, executor).count();
+
+			assertEquals(12, count);
+			assertTrue(maxRunning.get() <= 3);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = ArithmeticException.class)
+	public void test_selectAsync_exception() {
+		Query.list(Arrays.asList(1, 2, 0, 4)).selectAsync(x -> 10 / x, 2).toList();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void test_selectAsync_invalid_concurrency() {
+		Query.list(Arrays.asList(1, 2)).selectAsync(x -> x, 0);
+	}
+}
@@ -0,0 +1,120 @@
+package de.renebergelt.quiterables.tests;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+import de.renebergelt.quiterables.Queriable;
+import de.renebergelt.quiterables.Query;
+
+public class StreamTest {
+
+	@Test
+	public void test_spliterators_are_sized() {
+		Integer[] array = new Integer[] { 5, 3, 1, 4, 2 };
+		List<Integer> list = new ArrayList<Integer>(Arrays.asList(array));
+
+		assertTrue(Query.array(array).spliterator().hasCharacteristics(Spliterator.SIZED));
+		assertEquals(5, Query.array(new int[] { 1, 2, 3, 4, 5 }).spliterator().getExactSizeIfKnown());
+		assertEquals(10, Query.list(list).concat(list).spliterator().getExactSizeIfKnown());
+		assertEquals(5, Query.list(list).reverse().spliterator().getExactSizeIfKnown());
+		assertEquals(5, Query.list(list).orderBy(x -> x).spliterator().getExactSizeIfKnown());
+		assertEquals(5, Query.list(list).selectInt(x -> x).spliterator().getExactSizeIfKnown());
+
+		// a filter changes the size
+		assertFalse(Query.list(list).where(x -> x > 2).spliterator().hasCharacteristics(Spliterator.SIZED));
+		// as may a selector (by returning null)
+		assertFalse(Query.list(list).select(x -> x * 2).spliterator().hasCharacteristics(Spliterator.SIZED));
+	}
+
+	@Test
+	public void test_stream_ends_at_null_selector_result() {
+		List<Integer> list = Arrays.asList(1, 2, 3, 4);
+
+		// as with the iterator a null element returned by a selector ends the sequence
+		Queriable<Integer> q = Query.list(list).select(x -> x == 2 ? null : x);
+		assertEquals(1, q.count());
+		assertEquals(1, q.stream().count());
+		assertEquals(q.toList(), q.stream().collect(Collectors.toList()));
+
+		// fused stages
+		q = Query.list(list).where(x -> x > 0).select(x -> x == 3 ? null : x).select(x -> x * 10);
+		assertEquals(Arrays.asList(10, 20), q.toList());
+		assertEquals(q.toList(), q.stream().collect(Collectors.toList()));
+
+		// a chain of selects only
+		q = Query.list(list).select(x -> x == 2 ? null : x).select(x -> x);
+		assertEquals(Arrays.asList(1), q.stream().collect(Collectors.toList()));
+	}
+
+	@Test
+	public void test_array_stream_keeps_null_elements() {
+		String[] array = new String[] { "a", null, "b" };
+		assertEquals(Arrays.asList("a", null, "b"), Query.array(array).stream().collect(Collectors.toList()));
+		assertEquals(3, Query.array(array).spliterator().getExactSizeIfKnown());
+	}
+
+	@Test
+	public void test_stream() {
+		List<Integer> list = new ArrayList<Integer>();
+		for (int i = 1; i <= 1000; i++)
+			list.add(i);
+
+		Queriable<Integer> q = Query.list(list).reverse().select(x -> x * 2);
+		assertEquals(q.toList(), q.stream().collect(Collectors.toList()));
+		assertEquals(q.toList(), q.parallelStream().collect(Collectors.toList()));
+		assertEquals(1001000, q.parallelStream().mapToInt(x -> x).sum());
+
+		assertEquals(Arrays.asList(1, 2, 3), Query.list(Arrays.asList(3, 1, 2)).orderBy(x -> x).stream().collect(Collectors.toList()));
+		assertEquals(15, Query.intArray(new int[] { 1, 2, 3, 4, 5 }).stream().sum());
+		assertEquals("abc", Query.array(new char[] { 'a', 'b', 'c' }).stream().map(String::valueOf).collect(Collectors.joining()));
+	}
+
+	@Test
+	public void test_stream_sorts_on_use() {
+		List<Integer> list = new ArrayList<Integer>(Arrays.asList(3, 1, 2));
+		Stream<Integer> stream = Query.list(list).orderBy(x -> x).stream();
+
+		// the elements are sorted when the stream is consumed
+		list.add(0);
+		assertEquals(Arrays.asList(0, 1, 2, 3), stream.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void test_query_stream_aggregates() {
+		// the aggregates enumerate the stream only once
+		assertEquals(Integer.valueOf(7), Query.stream(Stream.of(3, 7, 5)).max());
+		assertEquals(Integer.valueOf(3), Query.stream(Stream.of(3, 7, 5)).min());
+		assertEquals(14, Query.stream(Stream.of(3, 7, 5)).max(x -> x * 2).intValue());
+		assertEquals(1, Query.stream(Stream.of(3, 7, 5)).min(x -> x - 2).intValue());
+		assertEquals(5.0, Query.stream(Stream.of(3, 7, 5)).average().doubleValue(), 0.0001);
+
+		try {
+			Query.stream(Stream.<Integer>empty()).max();
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			assertEquals("The iteration has no elements.", e.getMessage());
+		}
+	}
+
+	@Test
+	public void test_query_stream() {
+		Queriable<String> q = Query.stream(Stream.of("a", "bb", "ccc")).where(x -> x.length() > 1);
+		assertEquals(Arrays.asList("bb", "ccc"), q.toList());
+
+		// a stream can only be consumed once
+		try {
+			q.toList();
+			fail("IllegalStateException expected");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+}